@@ -0,0 +1,56 @@
+package projects.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import projects.OrderStore;
+import projects.PaymentMethod;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// state shared by the benchmarks: generated input files in a temporary directory and the same data in memory
+@State(Scope.Benchmark)
+public class BenchmarkData {
+
+    @Param({"10000", "1000000"})
+    public int orderCount;
+
+    @Param({"8"})
+    public int methodCount;
+
+    @Param({"2"})
+    public int fanOut;
+
+    @Param({"0.5", "1.5"})
+    public double tightness;
+
+    public Path directory;
+    public String ordersPath;
+    public String paymentMethodsPath;
+    public OrderStore orderStore;
+    public List<PaymentMethod> paymentMethods;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        DataGenerator generator = new DataGenerator(orderCount, methodCount, fanOut, tightness, 42);
+        directory = Files.createTempDirectory("benchmark-data");
+        generator.write(directory);
+        ordersPath = directory.resolve("orders.json").toString();
+        paymentMethodsPath = directory.resolve("paymentmethods.json").toString();
+        orderStore = generator.orderStore();
+        paymentMethods = generator.paymentMethods();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            Files.deleteIfExists(Path.of(ordersPath));
+            Files.deleteIfExists(Path.of(paymentMethodsPath));
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
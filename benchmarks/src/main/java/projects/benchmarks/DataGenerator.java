@@ -0,0 +1,149 @@
+package projects.benchmarks;
+
+import projects.Money;
+import projects.OrderStore;
+import projects.PaymentMethod;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// class generating synthetic orders and payment methods for the benchmarks, the same parameters and seed always give
+// the same data
+//  * orderCount - number of orders
+//  * methodCount - number of card payment methods, "PUNKTY" is added on top of them
+//  * fanOut - number of distinct promotions of every order, at most methodCount
+//  * tightness - sum of all limits divided by the sum of all order values, below 1 not every order can be paid
+public class DataGenerator {
+
+    private final int orderCount;
+    private final int methodCount;
+    private final int fanOut;
+    private final double tightness;
+    private final long seed;
+
+    // values of the orders in grosze and indices of the cards of their promotions
+    private final long[] values;
+    private final int[][] promotions;
+
+    public DataGenerator(int orderCount, int methodCount, int fanOut, double tightness, long seed) {
+        if (fanOut > methodCount)
+            throw new IllegalArgumentException("Promotion fan-out " + fanOut + " is bigger than the number of cards " + methodCount);
+        this.orderCount = orderCount;
+        this.methodCount = methodCount;
+        this.fanOut = fanOut;
+        this.tightness = tightness;
+        this.seed = seed;
+
+        Random random = new Random(seed);
+        this.values = new long[orderCount];
+        this.promotions = new int[orderCount][];
+        for (int order = 0; order < orderCount; order++) {
+            values[order] = 1_000 + random.nextInt(99_001);
+
+            // choose fanOut distinct cards with a partial Fisher-Yates shuffle
+            int[] cards = new int[methodCount];
+            for (int card = 0; card < methodCount; card++) {
+                cards[card] = card;
+            }
+            for (int i = 0; i < fanOut; i++) {
+                int j = i + random.nextInt(methodCount - i);
+                int swap = cards[i];
+                cards[i] = cards[j];
+                cards[j] = swap;
+            }
+            promotions[order] = Arrays.copyOf(cards, fanOut);
+        }
+    }
+
+    public static String cardId(int card) {
+        return "Card" + card;
+    }
+
+    private static String orderId(int order) {
+        return "ORDER" + (order + 1);
+    }
+
+    // payment methods with the sum of limits given by the tightness, split evenly between "PUNKTY" and the cards
+    public List<PaymentMethod> paymentMethods() {
+        long totalValue = 0;
+        for (long value : values) {
+            totalValue += value;
+        }
+        long limit = (long) (totalValue * tightness / (methodCount + 1));
+
+        Random random = new Random(seed + 1);
+        List<PaymentMethod> paymentMethods = new ArrayList<>();
+        paymentMethods.add(new PaymentMethod("PUNKTY", 15, Money.toDouble(limit)));
+        for (int card = 0; card < methodCount; card++) {
+            paymentMethods.add(new PaymentMethod(cardId(card), 5 + random.nextInt(16), Money.toDouble(limit)));
+        }
+        return paymentMethods;
+    }
+
+    public OrderStore orderStore() {
+        OrderStore.Builder builder = new OrderStore.Builder();
+        List<String> orderPromotions = new ArrayList<>();
+        for (int order = 0; order < orderCount; order++) {
+            orderPromotions.clear();
+            for (int card : promotions[order]) {
+                orderPromotions.add(cardId(card));
+            }
+            builder.add(orderId(order), values[order], orderPromotions);
+        }
+        return builder.build();
+    }
+
+    // method writing orders.json and paymentmethods.json into the given directory
+    public void write(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve("orders.json"), StandardCharsets.UTF_8)) {
+                writer.write("[\n");
+                for (int order = 0; order < orderCount; order++) {
+                    writer.write("  {\n    \"id\": \"" + orderId(order) + "\",\n    \"value\": \"" + amount(values[order]) + "\"");
+                    if (promotions[order].length > 0) {
+                        writer.write(",\n    \"promotions\": [\n");
+                        for (int i = 0; i < promotions[order].length; i++) {
+                            writer.write("      \"" + cardId(promotions[order][i]) + "\"" + (i + 1 < promotions[order].length ? ",\n" : "\n"));
+                        }
+                        writer.write("    ]");
+                    }
+                    writer.write(order + 1 < orderCount ? "\n  },\n" : "\n  }\n");
+                }
+                writer.write("]");
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve("paymentmethods.json"), StandardCharsets.UTF_8)) {
+                List<PaymentMethod> paymentMethods = paymentMethods();
+                writer.write("[\n");
+                for (int i = 0; i < paymentMethods.size(); i++) {
+                    PaymentMethod paymentMethod = paymentMethods.get(i);
+                    writer.write("  {\n    \"id\": \"" + paymentMethod.getId() + "\",\n    \"discount\": \""
+                            + (long) paymentMethod.getDiscount() + "\",\n    \"limit\": \""
+                            + amount(paymentMethod.getMinorLimit()) + "\"\n  }" + (i + 1 < paymentMethods.size() ? ",\n" : "\n"));
+                }
+                writer.write("]");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // amount in grosze formatted with two decimal places
+    private static String amount(long grosze) {
+        return grosze / Money.SCALE + "." + (grosze % Money.SCALE < 10 ? "0" : "") + grosze % Money.SCALE;
+    }
+
+    // writes generated files, arguments: directory, order count, card count, promotion fan-out, tightness and seed
+    public static void main(String[] args) {
+        new DataGenerator(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                Double.parseDouble(args[4]), args.length > 5 ? Long.parseLong(args[5]) : 42).write(Path.of(args[0]));
+    }
+}
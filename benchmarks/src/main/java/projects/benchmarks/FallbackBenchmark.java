@@ -0,0 +1,40 @@
+package projects.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import projects.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// benchmark of paying for orders left without any possible assignment: orders have no promotions and there are no
+// points, so the greedy sends every order to the loop paying for leftover orders
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FallbackBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int orderCount;
+
+    @Param({"8", "64"})
+    public int methodCount;
+
+    private OrderStore orderStore;
+    private List<PaymentMethod> paymentMethods;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DataGenerator generator = new DataGenerator(orderCount, methodCount, 0, 1.5, 42);
+        orderStore = generator.orderStore();
+        paymentMethods = generator.paymentMethods();
+        paymentMethods.set(0, new PaymentMethod("PUNKTY", 15, 0));
+    }
+
+    @Benchmark
+    public AssignmentResult leftoverOrders() {
+        return new GreedySolver().solve(orderStore, paymentMethods);
+    }
+}
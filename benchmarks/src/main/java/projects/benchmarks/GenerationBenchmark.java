@@ -0,0 +1,49 @@
+package projects.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import projects.CalculationsClass;
+import projects.CandidateBuffer;
+import projects.CandidateGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+// benchmarks of generating possible assignments
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GenerationBenchmark {
+
+    private CalculationsClass calculationsClass;
+    private CandidateBuffer candidates;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkData data) {
+        calculationsClass = new CalculationsClass(data.ordersPath, data.paymentMethodsPath);
+        candidates = new CandidateBuffer(data.orderStore.size());
+    }
+
+    // generating PaymentAssignmentOption records from the lists of orders
+    @Benchmark
+    public int assignments() {
+        calculationsClass.getAssignments().clear();
+        calculationsClass.generateAssignments();
+        return calculationsClass.getAssignments().size();
+    }
+
+    // generating into the primitive CandidateBuffer from the OrderStore
+    @Benchmark
+    public int candidates(BenchmarkData data) {
+        CandidateGenerator.generate(data.orderStore, data.paymentMethods, candidates);
+        return candidates.size();
+    }
+
+    // the same with fork-join tasks
+    @Benchmark
+    public int candidatesParallel(BenchmarkData data) {
+        CandidateGenerator.generateParallel(data.orderStore, data.paymentMethods, candidates);
+        return candidates.size();
+    }
+}
@@ -0,0 +1,72 @@
+package projects.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import projects.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// benchmarks of single changes in IncrementalEngine compared with a whole GreedySolver run for the same data, every
+// change is undone by the next call, so that the engine only moves between two states
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IncrementalBenchmark {
+
+    private IncrementalEngine engine;
+
+    // limits and discount of the first card and of "PUNKTY" in the data, and whether the last call changed them
+    private long cardLimit;
+    private long cardDiscount;
+    private long pointsLimit;
+    private boolean changed;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkData data) {
+        engine = IncrementalEngine.of(new JsonFileReader(data.ordersPath, data.paymentMethodsPath));
+        pointsLimit = data.paymentMethods.get(0).getMinorLimit();
+        cardLimit = data.paymentMethods.get(1).getMinorLimit();
+        cardDiscount = data.paymentMethods.get(1).getDiscountBasisPoints();
+    }
+
+    // whole greedy calculation, which the engine would otherwise repeat after every change
+    @Benchmark
+    public AssignmentResult freshGreedy(BenchmarkData data) {
+        return new GreedySolver().solve(data.orderStore, data.paymentMethods);
+    }
+
+    // adding an order with the promotion of the first card and removing it again, two changes
+    @Benchmark
+    public long addAndRemoveOrder() {
+        engine.addOrder("ADDED", 50_000, List.of(DataGenerator.cardId(0)));
+        engine.removeOrder("ADDED");
+        return engine.getTotalDiscount();
+    }
+
+    // raising the limit of the first card by 10% or setting it back
+    @Benchmark
+    public long cardLimit() {
+        changed = !changed;
+        engine.changeLimit(DataGenerator.cardId(0), changed ? cardLimit + cardLimit / 10 : cardLimit);
+        return engine.getTotalDiscount();
+    }
+
+    // raising the limit of "PUNKTY" by 10% or setting it back
+    @Benchmark
+    public long pointsLimit() {
+        changed = !changed;
+        engine.changeLimit("PUNKTY", changed ? pointsLimit + pointsLimit / 10 : pointsLimit);
+        return engine.getTotalDiscount();
+    }
+
+    // raising the discount of the first card by one percentage point or setting it back
+    @Benchmark
+    public long cardDiscount() {
+        changed = !changed;
+        engine.changeDiscount(DataGenerator.cardId(0), changed ? cardDiscount + 100 : cardDiscount);
+        return engine.getTotalDiscount();
+    }
+}
@@ -0,0 +1,47 @@
+package projects.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import projects.JsonFileReader;
+import projects.OrderStore;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// benchmarks of reading the input files
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestionBenchmark {
+
+    // reading both files with the streaming parser, as the program does
+    @Benchmark
+    public JsonFileReader streaming(BenchmarkData data) {
+        return new JsonFileReader(data.ordersPath, data.paymentMethodsPath, true);
+    }
+
+    // reading both files into a JsonArray first
+    @Benchmark
+    public JsonFileReader jsonArray(BenchmarkData data) {
+        return new JsonFileReader(data.ordersPath, data.paymentMethodsPath, false);
+    }
+
+    // reading orders straight into the columnar OrderStore
+    @Benchmark
+    public OrderStore orderStore(BenchmarkData data) {
+        return JsonFileReader.readOrderStore(data.ordersPath);
+    }
+
+    // reading both files with the orders file split into chunks parsed on all processors
+    @Benchmark
+    public JsonFileReader parallel(BenchmarkData data) {
+        return JsonFileReader.readParallel(data.ordersPath, data.paymentMethodsPath, ForkJoinPool.commonPool());
+    }
+
+    // reading orders straight into the columnar OrderStore on all processors
+    @Benchmark
+    public OrderStore orderStoreParallel(BenchmarkData data) {
+        return JsonFileReader.readOrderStoreParallel(data.ordersPath, ForkJoinPool.commonPool());
+    }
+}
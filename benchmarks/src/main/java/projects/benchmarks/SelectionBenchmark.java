@@ -0,0 +1,63 @@
+package projects.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import projects.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// benchmarks of sorting the possible assignments and choosing among them
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectionBenchmark {
+
+    // priorities of assignment types indexed by their ordinals, the same as used by GreedySolver
+    private static final int[] TYPE_PRIORITIES = {1, 0, 2};
+
+    private ArrayList<PaymentAssignmentOption> assignments;
+    private CandidateBuffer candidates;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkData data) {
+        CalculationsClass calculationsClass = new CalculationsClass(data.ordersPath, data.paymentMethodsPath);
+        calculationsClass.generateAssignments();
+        assignments = calculationsClass.getAssignments();
+        candidates = new CandidateBuffer(data.orderStore.size());
+        CandidateGenerator.generate(data.orderStore, data.paymentMethods, candidates);
+    }
+
+    // sorting a copy of the records with a comparator, as chooseBestOption() used to
+    @Benchmark
+    public ArrayList<PaymentAssignmentOption> comparatorSort() {
+        ArrayList<PaymentAssignmentOption> sorted = new ArrayList<>(assignments);
+        sorted.sort((a, b) -> {
+            int typePriority = TYPE_PRIORITIES[a.assignmentType().ordinal()] - TYPE_PRIORITIES[b.assignmentType().ordinal()];
+            if (typePriority != 0)
+                return typePriority;
+            return Double.compare(b.discount(), a.discount());
+        });
+        return sorted;
+    }
+
+    // bucketed radix sort of the CandidateBuffer
+    @Benchmark
+    public int[] radixSort() {
+        return candidates.sortedOrder(TYPE_PRIORITIES);
+    }
+
+    // whole greedy calculation: generation, pruning, sorting, assigning and paying for leftover orders
+    @Benchmark
+    public AssignmentResult greedy(BenchmarkData data) {
+        return new GreedySolver().solve(data.orderStore, data.paymentMethods);
+    }
+
+    // the same calculation sorting all candidates without pruning them first
+    @Benchmark
+    public AssignmentResult greedyWithoutPruning(BenchmarkData data) {
+        return new GreedySolver(false, false).solve(data.orderStore, data.paymentMethods);
+    }
+}
@@ -0,0 +1,22 @@
+package projects;
+
+// record storing the outcome of an AssignmentSolver, all amounts are in grosze and arrays are indexed like the
+// payment methods and the orders of the OrderStore
+//  * spent - funds spent with every payment method
+//  * used - whether the payment method has been used at all
+//  * remainingLimits - limits of the payment methods left after paying for the orders
+//  * paid - whether the order has been paid for
+//  * totalDiscount - sum of the discounts gained on all paid orders
+//  * failedOrder - index of the order that could only be paid partially, which stopped the calculation, or -1
+public record AssignmentResult(long[] spent, boolean[] used, long[] remainingLimits, boolean[] paid,
+                               long totalDiscount, int failedOrder) {
+
+    // method checking whether every order has been paid for
+    public boolean allPaid() {
+        for (boolean orderPaid : paid) {
+            if (!orderPaid)
+                return false;
+        }
+        return true;
+    }
+}
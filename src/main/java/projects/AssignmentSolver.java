@@ -0,0 +1,22 @@
+package projects;
+
+import java.util.List;
+
+// interface for algorithms assigning payment methods to orders
+public interface AssignmentSolver {
+
+    // method assigning payment methods to the orders of the store, the payment methods themselves are not changed
+    AssignmentResult solve(OrderStore orderStore, List<PaymentMethod> paymentMethods);
+
+    // method assigning payment methods to the orders of a snapshot, using the buffers of the given state where the
+    // solver supports it, the result stays valid after the state is reused
+    default AssignmentResult solve(InputSnapshot snapshot, SolverState state) {
+        return solve(snapshot.getOrderStore(), snapshot.toPaymentMethods());
+    }
+
+    // method telling whether the result depends on nothing but the input, so that it can be reused by ResultCache,
+    // solvers using a time budget or random walks are not deterministic
+    default boolean isDeterministic() {
+        return false;
+    }
+}
@@ -0,0 +1,166 @@
+package projects;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// class calculating the result for many independent baskets, each with its own orders and payment methods, on a pool
+// of threads in a single JVM, and writing the result of every basket to a single ResultSink, NDJSON by default
+//
+// baskets are read either from a directory, where every subdirectory contains orders.json and paymentmethods.json, or
+// from NDJSON, where every line is {"id": "...", "orders": [...], "paymentMethods": [...]}. Every basket gives a line
+// {"id": "...", "costs": {...}, "allPaid": true} or {"id": "...", "error": "..."}, in the order of the input. Only a
+// limited number of baskets is read ahead of the output, so the input can be larger than the memory
+public class BatchRunner {
+
+    // number of baskets read ahead of the output for every thread
+    private static final int BASKETS_PER_THREAD = 4;
+
+    // solver shared by all baskets, it must not keep any state between calls
+    private final AssignmentSolver solver;
+
+    private final int threads;
+
+    public BatchRunner(AssignmentSolver solver, int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Number of threads must be positive, got " + threads);
+        this.solver = solver;
+        this.threads = threads;
+    }
+
+    // record storing the number of baskets written and how many of them ended with an error
+    public record Summary(int baskets, int errors) {
+    }
+
+    // method calculating every subdirectory of the directory that contains orders.json, in the order of their names
+    public Summary runDirectory(Path directory, OutputStream outputStream) {
+        return runDirectory(directory, new NdjsonResultSink(Channels.newChannel(outputStream)));
+    }
+
+    public Summary runDirectory(Path directory, ResultSink resultSink) {
+        List<Path> basketDirectories;
+        try (Stream<Path> paths = Files.list(directory)) {
+            basketDirectories = paths.filter(path -> Files.isRegularFile(path.resolve("orders.json"))).sorted().toList();
+        } catch (IOException ioException) {
+            throw new UncheckedIOException("Cannot list " + directory, ioException);
+        }
+
+        return run(resultSink, submit -> {
+            for (Path basketDirectory : basketDirectories) {
+                String id = basketDirectory.getFileName().toString();
+                submit.accept(id, () -> new JsonFileReader(basketDirectory.resolve("orders.json").toString(),
+                        basketDirectory.resolve("paymentmethods.json").toString()));
+            }
+        });
+    }
+
+    // method calculating every non-empty line of NDJSON, baskets without an "id" are identified by their line number
+    public Summary runNdjson(InputStream inputStream, OutputStream outputStream) {
+        return runNdjson(inputStream, new NdjsonResultSink(Channels.newChannel(outputStream)));
+    }
+
+    public Summary runNdjson(InputStream inputStream, ResultSink resultSink) {
+        return run(resultSink, submit -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            try {
+                String line;
+                int lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank())
+                        continue;
+                    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                    submit.accept(String.valueOf(lineNumber), () -> JsonFileReader.fromJson(new ByteArrayInputStream(bytes)));
+                }
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+        });
+    }
+
+    // interface for passing baskets to run(), with the id used when the basket itself has none
+    @FunctionalInterface
+    private interface BasketConsumer {
+        void accept(String id, Supplier<JsonFileReader> reader);
+    }
+
+    @FunctionalInterface
+    private interface BasketSource {
+        void forEach(BasketConsumer submit);
+    }
+
+    // method calculating baskets on the threads and writing their results in the order they were submitted, the sink is
+    // flushed but not closed
+    private Summary run(ResultSink resultSink, BasketSource source) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<CostsResult>> pending = new ArrayDeque<>();
+        AtomicInteger errors = new AtomicInteger();
+        int[] baskets = {0};
+        try {
+            source.forEach((id, reader) -> {
+                pending.add(executor.submit(() -> calculate(id, reader, errors)));
+                baskets[0]++;
+
+                // write finished results once enough baskets are waiting
+                while (pending.size() > threads * BASKETS_PER_THREAD) {
+                    write(resultSink, pending.poll());
+                }
+            });
+            while (!pending.isEmpty()) {
+                write(resultSink, pending.poll());
+            }
+            resultSink.flush();
+        } finally {
+            for (Future<CostsResult> future : pending) {
+                future.cancel(true);
+            }
+            executor.shutdown();
+        }
+        return new Summary(baskets[0], errors.get());
+    }
+
+    // method calculating a single basket and returning its result, with an error instead of costs if it failed
+    private CostsResult calculate(String id, Supplier<JsonFileReader> reader, AtomicInteger errors) {
+        String basketId = id;
+        try {
+            JsonFileReader jsonFileReader = reader.get();
+            if (jsonFileReader.getId() != null)
+                basketId = jsonFileReader.getId();
+            CalculationsClass calculationsClass = new CalculationsClass(jsonFileReader);
+            calculationsClass.setSolver(solver);
+            calculationsClass.chooseBestOption();
+            return calculationsClass.getResult(basketId);
+        } catch (RuntimeException exception) {
+            errors.incrementAndGet();
+            return CostsResult.error(basketId, exception.getMessage());
+        }
+    }
+
+    private static void write(ResultSink resultSink, Future<CostsResult> future) {
+        try {
+            resultSink.write(future.get());
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a basket", interruptedException);
+        } catch (ExecutionException executionException) {
+            throw new IllegalStateException("Basket failed unexpectedly", executionException.getCause());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package projects;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// sink writing results in a compact little-endian binary format, one record after another:
+//  * byte - 0 for costs, 1 for an error
+//  * string - id of the basket, length -1 if there is none
+//  * for costs: int number of payment methods, then for each of them a string id and a long cost in grosze, and a byte
+//    1 if all orders have been paid, 0 otherwise
+//  * for an error: string message
+// a string is an int number of bytes followed by the bytes in UTF-8
+public class BinaryResultSink extends BufferedResultSink {
+
+    private static final byte COSTS = 0;
+    private static final byte ERROR = 1;
+
+    public BinaryResultSink(WritableByteChannel channel) {
+        super(channel);
+    }
+
+    @Override
+    public void write(CostsResult result) {
+        putByte(result.isError() ? ERROR : COSTS);
+        putBinaryString(result.id());
+        if (result.isError()) {
+            putBinaryString(result.error());
+            return;
+        }
+        putInt(result.methodIds().length);
+        for (int method = 0; method < result.methodIds().length; method++) {
+            putBinaryString(result.methodIds()[method]);
+            putLong(result.costs()[method]);
+        }
+        putByte(result.allPaid() ? 1 : 0);
+    }
+
+    private void putBinaryString(String text) {
+        if (text == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        putBytes(bytes);
+    }
+
+    // method reading all results written by this sink
+    public static List<CostsResult> readAll(InputStream inputStream) {
+        DataInputStream input = new DataInputStream(inputStream);
+        List<CostsResult> results = new ArrayList<>();
+        try {
+            int kind;
+            while ((kind = input.read()) >= 0) {
+                String id = readString(input);
+                if (kind == ERROR) {
+                    results.add(CostsResult.error(id, readString(input)));
+                    continue;
+                }
+                if (kind != COSTS)
+                    throw new IllegalArgumentException("Unknown record type " + kind);
+                int methodCount = readInt(input);
+                String[] methodIds = new String[methodCount];
+                long[] costs = new long[methodCount];
+                for (int method = 0; method < methodCount; method++) {
+                    methodIds[method] = readString(input);
+                    costs[method] = readLong(input);
+                }
+                results.add(new CostsResult(id, methodIds, costs, input.readByte() != 0, null));
+            }
+        } catch (EOFException eofException) {
+            throw new IllegalArgumentException("Results end in the middle of a record", eofException);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+        return results;
+    }
+
+    // readFully() throws EOFException at the end of the stream, where readNBytes() would return fewer bytes
+    private static int readInt(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[Integer.BYTES];
+        input.readFully(bytes);
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    }
+
+    private static long readLong(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[Long.BYTES];
+        input.readFully(bytes);
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = readInt(input);
+        if (length < 0)
+            return null;
+        // read in portions, so that a damaged length cannot allocate more than the stream holds
+        byte[] bytes = input.readNBytes(length);
+        if (bytes.length < length)
+            throw new EOFException();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
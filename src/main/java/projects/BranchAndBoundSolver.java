@@ -0,0 +1,248 @@
+package projects;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+// solver searching for the assignment with the highest total discount among those paying for every order, using
+// depth-first branch and bound started from the greedy result, within a time budget
+//
+// every order is paid with one of its PaymentOptions, under the rules of GreedySolver: a candidate of its own or the
+// funds left after all candidates, so the optimum differs from the greedy result only by the choice of candidates
+public class BranchAndBoundSolver implements AssignmentSolver {
+
+    // how many nodes are visited between checks of the time budget
+    private static final int TIME_CHECK_INTERVAL = 4096;
+
+    private final long timeBudgetMillis;
+
+    // report of the most recent call to solve()
+    private volatile Report lastReport;
+
+    // record describing the outcome of the search
+    //  * result - the best assignment found, the greedy one if no better assignment paying for every order was found
+    //  * greedyResult - the assignment found by GreedySolver
+    //  * optimal - whether the search has finished within the time budget, which proves the result is optimal
+    //  * exploredNodes - number of partial assignments visited by the search
+    public record Report(AssignmentResult result, AssignmentResult greedyResult, boolean optimal, long exploredNodes) {
+
+        // discount gained over the greedy result, in grosze, negative if the greedy result leaves orders unpaid and
+        // the result pays for all of them with a lower discount
+        public long gap() {
+            return result.totalDiscount() - greedyResult.totalDiscount();
+        }
+    }
+
+    public BranchAndBoundSolver(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    @Override
+    public AssignmentResult solve(OrderStore orderStore, List<PaymentMethod> paymentMethods) {
+        return solveWithReport(orderStore, paymentMethods).result();
+    }
+
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    // method solving the problem and reporting how the result compares to the greedy one
+    public Report solveWithReport(OrderStore orderStore, List<PaymentMethod> paymentMethods) {
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000;
+
+        // the greedy result is the first incumbent, as long as it pays for every order
+        AssignmentResult greedyResult = new GreedySolver().solve(orderStore, paymentMethods);
+
+        Search search = new Search(orderStore, paymentMethods);
+        if (greedyResult.allPaid())
+            search.bestDiscount = greedyResult.totalDiscount();
+        boolean optimal = search.run(deadline);
+
+        AssignmentResult result = search.bestChoices == null ? greedyResult : search.toResult();
+        Report report = new Report(result, greedyResult, optimal, search.nodes);
+        lastReport = report;
+        return report;
+    }
+
+    // class keeping the state of a single search
+    private static class Search {
+        private final OrderStore orderStore;
+        private final PaymentOptions options;
+
+        // orders in the order in which they are decided, the most valuable ones first
+        private final int[] decisionOrder;
+
+        // for every depth, the highest discount and the lowest amount of funds taken possible for all orders from
+        // that depth on
+        private final long[] maxDiscountFrom;
+        private final long[] minConsumptionFrom;
+
+        // state of the search: remaining limits for the used amounts, funds left on the payment methods other than
+        // "PUNKTY", the lowest amount of funds left for the remaining orders, the discount of the options with the
+        // highest one for the orders left, and whether an id already has a candidate
+        private final long[] capacities;
+        private long otherFunds;
+        private long slack;
+        private long discount;
+        private final boolean[] assignedIds;
+        private long nodes;
+
+        // the highest rest of a partial payment up to every depth, which the other payment methods have to cover
+        private final long[] maxRests;
+
+        // the best assignment found so far, as an option for every order
+        private long bestDiscount = -1;
+        private int[] bestChoices;
+
+        private Search(OrderStore orderStore, List<PaymentMethod> paymentMethods) {
+            this.orderStore = orderStore;
+            this.options = new PaymentOptions(orderStore, paymentMethods);
+
+            // decide the most valuable orders first, as they constrain the limits the most
+            int size = orderStore.size();
+            this.decisionOrder = IntStream.range(0, size).boxed()
+                    .sorted((a, b) -> Long.compare(orderStore.getValue(b), orderStore.getValue(a)))
+                    .mapToInt(Integer::intValue).toArray();
+
+            // the first option of every order has the highest discount
+            this.maxDiscountFrom = new long[size + 1];
+            this.minConsumptionFrom = new long[size + 1];
+            for (int depth = size - 1; depth >= 0; depth--) {
+                int order = decisionOrder[depth];
+                long minConsumption = Long.MAX_VALUE;
+                for (int option = options.starts[order]; option < options.starts[order + 1]; option++) {
+                    minConsumption = Math.min(minConsumption, options.consumption(order, option));
+                }
+                maxDiscountFrom[depth] = maxDiscountFrom[depth + 1] + options.discounts[options.starts[order]];
+                minConsumptionFrom[depth] = minConsumptionFrom[depth + 1] + minConsumption;
+            }
+
+            this.capacities = options.limits.clone();
+            this.otherFunds = options.otherLimit;
+            this.slack = options.otherLimit + (options.pointsIndex >= 0 ? options.limits[options.pointsIndex] : 0);
+            this.assignedIds = new boolean[size];
+            this.maxRests = new long[size + 1];
+        }
+
+        // method running the search until it is finished or until the deadline, returns whether it has finished
+        private boolean run(long deadline) {
+            int size = decisionOrder.length;
+            if (size == 0) {
+                if (bestDiscount < 0) {
+                    bestDiscount = 0;
+                    bestChoices = new int[0];
+                }
+                return true;
+            }
+
+            // option chosen at every depth, whether it is currently applied to the state, and the option of every
+            // order decided so far
+            int[] choices = new int[size];
+            boolean[] applied = new boolean[size];
+            int[] orderChoices = new int[size];
+            int depth = 0;
+            choices[0] = options.starts[decisionOrder[0]] - 1;
+
+            while (depth >= 0) {
+                int order = decisionOrder[depth];
+                if (applied[depth]) {
+                    undo(order, choices[depth]);
+                    applied[depth] = false;
+                }
+
+                int option = ++choices[depth];
+                if (option >= options.starts[order + 1]) {
+                    depth--;
+                    continue;
+                }
+
+                // options are sorted by decreasing discount, so if this one cannot beat the best assignment found
+                // so far, no other option at this depth can
+                if (discount + options.discounts[option] + maxDiscountFrom[depth + 1] <= bestDiscount) {
+                    depth--;
+                    continue;
+                }
+
+                if (!fits(order, option, depth) || slack - options.consumption(order, option) < minConsumptionFrom[depth + 1])
+                    continue;
+
+                apply(order, option);
+                applied[depth] = true;
+                orderChoices[order] = option;
+                maxRests[depth + 1] = Math.max(maxRests[depth], options.rests[option]);
+
+                if (nodes++ % TIME_CHECK_INTERVAL == 0 && System.nanoTime() > deadline)
+                    return false;
+
+                if (depth < size - 1) {
+                    depth++;
+                    choices[depth] = options.starts[decisionOrder[depth]] - 1;
+                    continue;
+                }
+
+                // every order has been decided, the orders left have to be paid fully with the funds left
+                long points = options.pointsIndex >= 0 ? capacities[options.pointsIndex] : 0;
+                long leftoverDiscount = options.payLeftovers(orderChoices, points, otherFunds);
+                if (leftoverDiscount < 0)
+                    continue;
+                long total = leftoverDiscount;
+                for (int decided = 0; decided < size; decided++) {
+                    if (options.methods[choices[decided]] != PaymentOptions.LEFTOVER)
+                        total += options.discounts[choices[decided]];
+                }
+                if (total > bestDiscount) {
+                    bestDiscount = total;
+                    bestChoices = choices.clone();
+                }
+            }
+            return true;
+        }
+
+        // method checking whether an option can be chosen with the funds and ids left: the used amount has to fit in
+        // the limit of its payment method, orders sharing an id get a single candidate, a card has to leave enough
+        // for the rests of the partial payments chosen so far and the rest of a partial payment has to fit in the
+        // funds of the other payment methods
+        private boolean fits(int order, int option, int depth) {
+            int methodIndex = options.methods[option];
+            if (methodIndex == PaymentOptions.LEFTOVER)
+                return true;
+            if (assignedIds[options.idOf(order)] || options.dedicated[option] > capacities[methodIndex])
+                return false;
+            if (methodIndex != options.pointsIndex && otherFunds - options.dedicated[option] < maxRests[depth])
+                return false;
+            return options.rests[option] <= otherFunds;
+        }
+
+        private void apply(int order, int option) {
+            int methodIndex = options.methods[option];
+            if (methodIndex != PaymentOptions.LEFTOVER) {
+                capacities[methodIndex] -= options.dedicated[option];
+                if (methodIndex != options.pointsIndex)
+                    otherFunds -= options.dedicated[option];
+                assignedIds[options.idOf(order)] = true;
+            }
+            slack -= options.consumption(order, option);
+            discount += options.discounts[option];
+        }
+
+        private void undo(int order, int option) {
+            int methodIndex = options.methods[option];
+            if (methodIndex != PaymentOptions.LEFTOVER) {
+                capacities[methodIndex] += options.dedicated[option];
+                if (methodIndex != options.pointsIndex)
+                    otherFunds += options.dedicated[option];
+                assignedIds[options.idOf(order)] = false;
+            }
+            slack += options.consumption(order, option);
+            discount -= options.discounts[option];
+        }
+
+        // method turning the best choices, made in the order of decisions, into payments
+        private AssignmentResult toResult() {
+            int[] choices = new int[decisionOrder.length];
+            for (int depth = 0; depth < decisionOrder.length; depth++) {
+                choices[decisionOrder[depth]] = bestChoices[depth];
+            }
+            return options.toResult(choices);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package projects;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+// base class of sinks writing bytes through a buffer to a channel, with amounts formatted digit by digit instead of
+// with String.format(), so that writing a result allocates nothing but the bytes of the ids
+public abstract class BufferedResultSink implements ResultSink {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    // digits of the amount being written, from the last one
+    private final byte[] digits = new byte[20];
+
+    protected BufferedResultSink(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    // method making sure that the buffer has room for the given number of bytes
+    private void reserve(int bytes) {
+        if (buffer.remaining() < bytes)
+            drain();
+    }
+
+    private void drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException("Cannot write results", ioException);
+        }
+        buffer.clear();
+    }
+
+    protected void putByte(int b) {
+        reserve(1);
+        buffer.put((byte) b);
+    }
+
+    protected void putInt(int value) {
+        reserve(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    protected void putLong(long value) {
+        reserve(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    protected void putBytes(byte[] bytes) {
+        int offset = 0;
+        while (offset < bytes.length) {
+            reserve(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    protected void putString(String text) {
+        putBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // method writing an amount in grosze with two decimal places, such as 1234 as "12.34"
+    protected void putAmount(long amount) {
+        reserve(digits.length + 2);
+        if (amount < 0)
+            buffer.put((byte) '-');
+        int count = 0;
+        long rest = amount;
+        do {
+            digits[count++] = (byte) ('0' + Math.abs(rest % 10));
+            rest /= 10;
+        } while (rest != 0 || count < 3);
+        for (int i = count - 1; i >= 0; i--) {
+            buffer.put(digits[i]);
+            if (i == 2)
+                buffer.put((byte) '.');
+        }
+    }
+
+    @Override
+    public void flush() {
+        drain();
+    }
+
+    @Override
+    public void close() {
+        drain();
+        try {
+            channel.close();
+        } catch (IOException ioException) {
+            throw new UncheckedIOException("Cannot close results", ioException);
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package projects;
 
+import java.nio.channels.Channels;
 import java.util.*;
 
 public class CalculationsClass {
 
-    // ArrayList for storing orders
-    private final ArrayList<Order> orders;
+    // reader of the input, asked for Order objects only by the methods kept for the legacy code
+    private final JsonFileReader jsonFileReader;
 
-    // HashMap for storing orders with promotion as a key
-    private final HashMap<String, ArrayList<Order>> ordersByPromotion;
+    // Order objects of the reader, null until getOrders() is called
+    private ArrayList<Order> orders;
+
+    // orders stored column by column, the only copy of the orders used by the calculation
+    private final OrderStore orderStore;
+
+    // whether every order has been paid by the last run of chooseBestOption(), null before the first run
+    private boolean[] paid;
 
     // ArrayList for storing payment methods
     private final ArrayList<PaymentMethod> paymentMethods;
@@ -16,20 +23,43 @@ public class CalculationsClass {
     // HashMap for storing payment methods with IDs as a key
     private final HashMap<String, PaymentMethod> paymentMethodsById;
 
-    // HashMap for storing costs for a given payment method
-    private final HashMap<String, Double> costs;
+    // costs in grosze for every id of the payment methods, indexed by its code in the dictionary of the snapshot, and
+    // whether a cost has been recorded for it, turned into a HashMap only by getCosts()
+    private final long[] costs;
+    private final boolean[] costed;
 
     // ArrayLists for storing possible assignments for a given payment method
     private final ArrayList<PaymentAssignmentOption> assignments;
 
+    // the same possible assignments stored in primitive arrays
+    private final CandidateBuffer candidates;
+
+    // algorithm used by chooseBestOption(), the greedy one by default
+    private AssignmentSolver solver;
+
+    // input as it was read, every run of chooseBestOption() starts from it, so that it can be run more than once
+    private final InputSnapshot snapshot;
+
+    // buffers reused by every run of chooseBestOption()
+    private final SolverState solverState;
+
     public CalculationsClass(String ordersPath, String paymentMethodsPath) {
-        JsonFileReader jsonFileReader = new JsonFileReader(ordersPath, paymentMethodsPath);
-        this.orders = jsonFileReader.getOrders();
-        this.ordersByPromotion = jsonFileReader.getOrdersByPromotion();
+        this(new JsonFileReader(ordersPath, paymentMethodsPath));
+    }
+
+    // constructor for data that has already been read, such as the body of a request to OptimizerServer
+    public CalculationsClass(JsonFileReader jsonFileReader) {
+        this.jsonFileReader = jsonFileReader;
+        this.orderStore = jsonFileReader.getOrderStore();
         this.paymentMethods = jsonFileReader.getPaymentMethods();
         this.paymentMethodsById = jsonFileReader.getPaymentMethodsById();
-        this.costs = new HashMap<>();
         this.assignments = new ArrayList<>();
+        this.candidates = new CandidateBuffer(orderStore.size());
+        this.solver = new GreedySolver();
+        this.snapshot = InputSnapshot.of(orderStore, paymentMethods);
+        this.costs = new long[snapshot.getDictionary().size()];
+        this.costed = new boolean[snapshot.getDictionary().size()];
+        this.solverState = new SolverState();
     }
 
     // method for generating possible assignments for each payment method
@@ -44,7 +74,7 @@ public class CalculationsClass {
             if (methodId.equalsIgnoreCase("PUNKTY")) {
 
                 // for each order
-                for (Order order : orders) {
+                for (Order order : getOrders()) {
 
                     double orderValue = order.getValue();
 
@@ -75,7 +105,7 @@ public class CalculationsClass {
             } else {
 
                 // for each order, that can use the given payment method
-                for (Order order : ordersByPromotion.getOrDefault(methodId, new ArrayList<>())) {
+                for (Order order : getOrdersByPromotion().getOrDefault(methodId, new ArrayList<>())) {
 
                     double orderValue = order.getValue();
 
@@ -94,207 +124,120 @@ public class CalculationsClass {
         }
     }
 
-    public void chooseBestOption() {
-
-        // generate possible assignments
-        generateAssignments();
-
-        // sort assignments in order of the payment method's priority (firstly wholly by points, then wholly by card,
-        // lastly partially by points and by card) and then in order of decreasing discount
-        assignments.sort((a, b) -> {
-
-            // check priority of payment's type
-            int typePriority = getTypePriority(a.assignmentType()) - getTypePriority(b.assignmentType());
-
-            // if types of payment are different, sort them in order of priority
-            if (typePriority != 0)
-                return typePriority;
-            return Double.compare(b.discount(), a.discount());
-        });
-
-        // set for soring assigned orders
-        Set<String> assignedOrders = new HashSet<>();
-
-        // for each assignment option
-        for (PaymentAssignmentOption assignment : assignments) {
-
-            Order order = assignment.order();
-
-            // skip if the order is already paid or has been handled
-            if (order.isPaid() || assignedOrders.contains(order.getId()))
-                continue;
-
-            // get payment method and it's available funds
-            PaymentMethod method = paymentMethodsById.get(assignment.paymentMethodId());
-            double available = method.getLimit();
-
-            // if the assignment is for a partial payment, check if there are enough funds for it
-            if (assignment.assignmentType() == AssignmentType.PARTIAL) {
-
-                double leftToPay = assignment.cost() - assignment.usedAmount();
-
-                // calculate funds left for all payment methods except "PUNKTY"
-                double otherFunds = paymentMethods.stream().filter(pm -> !pm.getId().equals("PUNKTY"))
-                        .mapToDouble(PaymentMethod::getLimit).sum();
-
-                // skip if there are not enough funds for the partial payment
-                if (leftToPay > otherFunds)
-                    continue;
-            }
-
-            // if there are more funds left for this payment method than there is to pay for that order
-            if (available >= assignment.usedAmount()) {
-
-                // update method's payment limit
-                method.setLimit(available - assignment.usedAmount());
-
-                // add cost to the sum of funds spent for specific payment method
-                costs.merge(method.getId(), assignment.usedAmount(), Double::sum);
-
-                // set order as paid
-                order.setPaid(true);
+    // method generating the same assignments as generateAssignments(), but into the primitive CandidateBuffer
+    public void generateCandidates() {
+        CandidateGenerator.generate(orderStore, paymentMethods, candidates);
+    }
 
-                // add order's id to set of assigned orders
-                assignedOrders.add(order.getId());
+    // method choosing payment methods for all orders with the solver, then marking paid orders, updating limits of
+    // the payment methods to the funds left and adding funds spent to the costs. Every run starts from the
+    // input as it was read, so running it again gives the same result
+    public void chooseBestOption() {
+        OptimizationRunEvent event = new OptimizationRunEvent();
+        event.begin();
+
+        // phases are measured only for a recording
+        if (event.isEnabled()) {
+            if (solverState.phaseNanos == null)
+                solverState.phaseNanos = new long[PipelineMetrics.Phase.values().length];
+            Arrays.fill(solverState.phaseNanos, 0);
+        } else
+            solverState.phaseNanos = null;
+
+        AssignmentResult result = solver.solve(snapshot, solverState);
+
+        Arrays.fill(costs, 0);
+        Arrays.fill(costed, false);
+        paid = result.paid().clone();
+        markPaid();
+
+        for (int methodIndex = 0; methodIndex < paymentMethods.size(); methodIndex++) {
+            PaymentMethod paymentMethod = paymentMethods.get(methodIndex);
+            paymentMethod.setMinorLimit(result.remainingLimits()[methodIndex]);
+
+            // add cost to the sum of funds spent for specific payment method
+            if (result.used()[methodIndex]) {
+                int code = snapshot.getDictionary().getCode(methodIndex);
+                costs[code] += result.spent()[methodIndex];
+                costed[code] = true;
             }
         }
 
-        // code handling orders which were not paid yet
-        for (Order order : orders) {
-
-            // first check whether the order can be paid partially by points and other payment methods
-
-            // skip if the order is already paid
-            if (order.isPaid()) continue;
-
-            double orderValue = order.getValue();
-            double tentativeLeftToPay = orderValue;
-            double tentativeUsedPoints = 0.0;
-
-            // calculate funds left for all payment methods except "PUNKTY"
-            double fundsLeft = paymentMethods.stream()
-                    .filter(pm -> !pm.getId().equals("PUNKTY"))
-                    .mapToDouble(PaymentMethod::getLimit)
-                    .sum();
-
-            PaymentMethod points = paymentMethodsById.get("PUNKTY");
-
-            // if there are still points left
-            if (points.getLimit() > 0) {
-
-                // calculate how many points can be used for this order
-                tentativeUsedPoints = Math.min(points.getLimit(), tentativeLeftToPay);
-
-                // if there are enough points to cover at least 10% of the order's value, apply discount
-                if (tentativeUsedPoints >= orderValue * 0.1) {
-                    tentativeLeftToPay -= orderValue * 0.1;
-                }
-            }
-
-            double totalFundsAvailable = tentativeUsedPoints + fundsLeft;
-
-            // skip if the amount left to pay is bigger than funds left, which means that the order cannot be covered
-            if (tentativeLeftToPay > totalFundsAvailable) {
-                continue;
-            }
-
-            double leftToPay = orderValue;
-
-            // if there are still points left
-            if (points.getLimit() > 0) {
+        event.end();
+        if (event.shouldCommit())
+            commit(event, result);
 
-                // calculate how many points can be used for this order
-                double usedPoints = Math.min(points.getLimit(), leftToPay);
-
-                // check whether a discount can be applied
-                boolean applyDiscount = usedPoints >= orderValue * 0.1;
-
-                // if it can be, then apply it
-                if (applyDiscount)
-                    leftToPay -= orderValue * 0.1;
-
-                // deduct used points from the payment method's limit and add them to the costs HashMap
-                points.setLimit(points.getLimit() - usedPoints);
-                costs.merge("PUNKTY", usedPoints, Double::sum);
-
-                // deduct used points from the remaining amount to pay
-                leftToPay -= usedPoints;
-            }
-
-            // try paying for the remaining amount with other payment methods
-            // for each payment method, except "PUNKTY"
-            for (PaymentMethod method : paymentMethods) {
-                if (method.getId().equals("PUNKTY")) continue;
-
-                // skip if the order has already been paid
-                if (leftToPay <= 0.0001) break;
-
-                double available = method.getLimit();
-
-                // if there are still funds left for this payment method, use them for this order
-                if (available > 0) {
-
-                    // calculate how many funds can be used for this order
-                    double used = Math.min(available, leftToPay);
-
-                    // deduct used funds from the payment method's limit and add them to the costs HashMap'
-                    method.setLimit(available - used);
-                    costs.merge(method.getId(), used, Double::sum);
-
-                    // deduct used funds from the remaining amount to pay
-                    leftToPay -= used;
-                }
-            }
-
-            // if there are still funds left to pay for this order, then it cannot be covered by any payment method
-            // throw exception and stop the loop
-            if (leftToPay > 0.0001) {
-                throw new RuntimeException("Cannot pay for " + order.getId() + " - insufficient amount of funds!");
+        // if an order could not be covered by any payment method, throw exception
+        if (result.failedOrder() >= 0)
+            throw new RuntimeException("Cannot pay for " + orderStore.getId(result.failedOrder()) + " - insufficient amount of funds!");
+    }
 
-            // else mark order as paid
-            } else {
-                order.setPaid(true);
-            }
+    // method copying the result of the last run to the Order objects, if they have been created
+    private void markPaid() {
+        if (orders == null || paid == null)
+            return;
+        for (int order = 0; order < orders.size(); order++) {
+            orders.get(order).setPaid(paid[order]);
         }
     }
 
-    // return priority of a given payment type
-    private int getTypePriority(AssignmentType type) {
-        return switch (type) {
-            case POINTS -> 0;
-            case CARD -> 1;
-            case PARTIAL -> 2;
-        };
+    // method filling in and committing the event of a run of chooseBestOption()
+    private void commit(OptimizationRunEvent event, AssignmentResult result) {
+        event.solver = solver.getClass().getSimpleName();
+        event.orderCount = orderStore.size();
+        event.paymentMethodCount = snapshot.getMethodCount();
+        event.candidateCount = solverState.candidates.size() + solverState.prunedCandidates;
+        event.prunedCount = solverState.prunedCandidates;
+        long[] phaseNanos = solverState.phaseNanos;
+        event.generateTime = phaseNanos[PipelineMetrics.Phase.GENERATE.ordinal()];
+        event.pruneTime = phaseNanos[PipelineMetrics.Phase.PRUNE.ordinal()];
+        event.sortTime = phaseNanos[PipelineMetrics.Phase.SORT.ordinal()];
+        event.greedyTime = phaseNanos[PipelineMetrics.Phase.GREEDY.ordinal()];
+        event.fallbackTime = phaseNanos[PipelineMetrics.Phase.FALLBACK.ordinal()];
+        for (boolean costRecorded : costed) {
+            if (costRecorded)
+                event.costsCount++;
+        }
+        event.allPaid = result.allPaid();
+        event.totalDiscount = result.totalDiscount();
+        event.commit();
     }
 
     // method printing to the standard output values of used funds for each payment method
     public void calculateCosts() {
-        chooseBestOption();
+        ResultSink resultSink = new TextResultSink(Channels.newChannel(System.out), System.err);
+        calculateCosts(resultSink);
 
-        // adding unused payment methods to the costs HashMap
-        for (PaymentMethod paymentMethod : paymentMethods) {
-            costs.putIfAbsent(paymentMethod.getId(), 0.0);
-        }
+        // the standard output stays open
+        resultSink.flush();
+    }
 
-        // printing costs for each payment method to the standard output
-        costs.forEach((key, value) -> System.out.println(key + " " + String.format("%.2f", value)));
+    // method writing values of used funds for each payment method to a sink, which is neither flushed nor closed
+    public void calculateCosts(ResultSink resultSink) {
+        chooseBestOption();
 
-        // if the order still has not been paid, print an error message
-        for (Order order : orders) {
-            if (!order.isPaid()) {
-                System.err.println("Insufficient amount of funds to pay for all orders!");
-                break;
-            }
-        }
+        // adding unused payment methods to the costs
+        Arrays.fill(costed, true);
+
+        resultSink.write(getResult(null));
     }
 
-    // getters for the used collections
+    // getters for the used collections, Order objects are created on the first call and show the result of the last run
     public ArrayList<Order> getOrders() {
+        if (orders == null) {
+            orders = jsonFileReader.getOrders();
+            markPaid();
+        }
         return orders;
     }
 
     public HashMap<String, ArrayList<Order>> getOrdersByPromotion() {
-        return ordersByPromotion;
+        getOrders();
+        return jsonFileReader.getOrdersByPromotion();
+    }
+
+    public OrderStore getOrderStore() {
+        return orderStore;
     }
 
     public ArrayList<PaymentMethod> getPaymentMethods() {
@@ -305,12 +248,51 @@ public class CalculationsClass {
         return paymentMethodsById;
     }
 
+    // method returning the costs of all payment methods used by the last run, and of all of them after calculateCosts()
     public HashMap<String, Double> getCosts() {
-        return costs;
+        HashMap<String, Double> costsById = new HashMap<>();
+        for (int code = 0; code < costs.length; code++) {
+            if (costed[code])
+                costsById.put(snapshot.getDictionary().getId(code), Money.toDouble(costs[code]));
+        }
+        return costsById;
+    }
+
+    // method returning the costs of the last run for a ResultSink, with every payment method and in the order of the
+    // payment methods, the ones not used by the run cost 0
+    public CostsResult getResult(String id) {
+        MethodDictionary dictionary = snapshot.getDictionary();
+        String[] methodIds = new String[dictionary.size()];
+        for (int code = 0; code < methodIds.length; code++) {
+            methodIds[code] = dictionary.getId(code);
+        }
+        boolean allPaid = paid != null || orderStore.size() == 0;
+        if (paid != null) {
+            for (boolean orderPaid : paid) {
+                allPaid &= orderPaid;
+            }
+        }
+        return new CostsResult(id, methodIds, costs.clone(), allPaid, null);
     }
 
     public ArrayList<PaymentAssignmentOption> getAssignments() {
         return assignments;
     }
 
+    public CandidateBuffer getCandidates() {
+        return candidates;
+    }
+
+    public InputSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public AssignmentSolver getSolver() {
+        return solver;
+    }
+
+    public void setSolver(AssignmentSolver solver) {
+        this.solver = solver;
+    }
+
 }
@@ -0,0 +1,211 @@
+package projects;
+
+import java.util.Arrays;
+
+// class for storing possible assignments in parallel primitive arrays, one position per assignment,
+// instead of allocating a PaymentAssignmentOption record for each of them
+public class CandidateBuffer {
+
+    // types of assignments in the order of their ordinals, to avoid copying the array on every getType() call
+    private static final AssignmentType[] TYPES = AssignmentType.values();
+
+    private int size;
+
+    // index of the order in the OrderStore
+    private int[] orders;
+
+    // index of the payment method in the list of payment methods
+    private int[] methods;
+
+    // ordinal of the AssignmentType
+    private byte[] types;
+
+    // amount of funds taken from the payment method and the discount gained, both in grosze
+    private long[] usedAmounts;
+    private long[] discounts;
+
+    public CandidateBuffer() {
+        this(16);
+    }
+
+    public CandidateBuffer(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.orders = new int[capacity];
+        this.methods = new int[capacity];
+        this.types = new byte[capacity];
+        this.usedAmounts = new long[capacity];
+        this.discounts = new long[capacity];
+    }
+
+    // method adding an assignment to the end of the buffer
+    public void add(int order, int method, AssignmentType type, long usedAmount, long discount) {
+        if (size == orders.length)
+            grow();
+        orders[size] = order;
+        methods[size] = method;
+        types[size] = (byte) type.ordinal();
+        usedAmounts[size] = usedAmount;
+        discounts[size] = discount;
+        size++;
+    }
+
+    // method appending all assignments of another buffer to the end of this one
+    public void addAll(CandidateBuffer other) {
+        if (size + other.size > orders.length)
+            grow(Math.max(orders.length * 2, size + other.size));
+        System.arraycopy(other.orders, 0, orders, size, other.size);
+        System.arraycopy(other.methods, 0, methods, size, other.size);
+        System.arraycopy(other.types, 0, types, size, other.size);
+        System.arraycopy(other.usedAmounts, 0, usedAmounts, size, other.size);
+        System.arraycopy(other.discounts, 0, discounts, size, other.size);
+        size += other.size;
+    }
+
+    private void grow() {
+        grow(orders.length * 2);
+    }
+
+    private void grow(int capacity) {
+        orders = Arrays.copyOf(orders, capacity);
+        methods = Arrays.copyOf(methods, capacity);
+        types = Arrays.copyOf(types, capacity);
+        usedAmounts = Arrays.copyOf(usedAmounts, capacity);
+        discounts = Arrays.copyOf(discounts, capacity);
+    }
+
+    // method removing the assignments marked in removed, keeping the order of the others, returns how many were removed
+    public int removeAll(boolean[] removed) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed[i])
+                continue;
+            orders[kept] = orders[i];
+            methods[kept] = methods[i];
+            types[kept] = types[i];
+            usedAmounts[kept] = usedAmounts[i];
+            discounts[kept] = discounts[i];
+            kept++;
+        }
+        int removedCount = size - kept;
+        size = kept;
+        return removedCount;
+    }
+
+    // method removing all assignments, keeping the allocated arrays for reuse
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getOrder(int candidate) {
+        return orders[candidate];
+    }
+
+    public int getMethod(int candidate) {
+        return methods[candidate];
+    }
+
+    public AssignmentType getType(int candidate) {
+        return TYPES[types[candidate]];
+    }
+
+    public long getUsedAmount(int candidate) {
+        return usedAmounts[candidate];
+    }
+
+    public long getDiscount(int candidate) {
+        return discounts[candidate];
+    }
+
+    // method returning positions of the assignments sorted by the given priorities of their types and then by
+    // decreasing discount, assignments that compare equal keep the order in which they were added
+    public int[] sortedOrder(int[] typePriorities) {
+
+        // count assignments of every priority, each priority becomes a bucket of consecutive positions
+        int bucketCount = 0;
+        for (int priority : typePriorities) {
+            bucketCount = Math.max(bucketCount, priority + 1);
+        }
+        int[] bucketStarts = new int[bucketCount + 1];
+        for (int i = 0; i < size; i++) {
+            bucketStarts[typePriorities[types[i]] + 1]++;
+        }
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            bucketStarts[bucket + 1] += bucketStarts[bucket];
+        }
+
+        // place every assignment in its bucket, keeping the order in which they were added, together with its sort key
+        int[] order = new int[size];
+        long[] keys = new long[size];
+        int[] next = Arrays.copyOf(bucketStarts, bucketCount);
+        for (int i = 0; i < size; i++) {
+            int position = next[typePriorities[types[i]]]++;
+            order[position] = i;
+            keys[position] = descendingKey(discounts[i]);
+        }
+
+        // sort every bucket by the keys, radix sort is stable so equal discounts keep their order
+        int[] orderBuffer = new int[size];
+        long[] keyBuffer = new long[size];
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            radixSort(keys, order, keyBuffer, orderBuffer, bucketStarts[bucket], bucketStarts[bucket + 1]);
+        }
+        return order;
+    }
+
+    // method mapping a discount to a key whose unsigned order is the reverse of the signed order of discounts
+    static long descendingKey(long discount) {
+        return ~(discount ^ Long.MIN_VALUE);
+    }
+
+    // least significant digit radix sort of keys between start and end, moving positions in order together with them
+    static void radixSort(long[] keys, int[] order, long[] keyBuffer, int[] orderBuffer, int start, int end) {
+        if (end - start < 2)
+            return;
+
+        // histograms of all eight bytes of the keys, counted in a single pass
+        int[][] counts = new int[8][257];
+        for (int i = start; i < end; i++) {
+            long key = keys[i];
+            for (int digit = 0; digit < 8; digit++) {
+                counts[digit][(int) ((key >>> (digit * 8)) & 0xFF) + 1]++;
+            }
+        }
+
+        long[] sourceKeys = keys, targetKeys = keyBuffer;
+        int[] sourceOrder = order, targetOrder = orderBuffer;
+        for (int digit = 0; digit < 8; digit++) {
+            int[] count = counts[digit];
+            int shift = digit * 8;
+
+            // skip the byte if it is the same for every key
+            if (count[(int) ((sourceKeys[start] >>> shift) & 0xFF) + 1] == end - start)
+                continue;
+
+            for (int value = 0; value < 256; value++) {
+                count[value + 1] += count[value];
+            }
+            for (int i = start; i < end; i++) {
+                int position = start + count[(int) ((sourceKeys[i] >>> shift) & 0xFF)]++;
+                targetKeys[position] = sourceKeys[i];
+                targetOrder[position] = sourceOrder[i];
+            }
+
+            long[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            int[] swapOrder = sourceOrder;
+            sourceOrder = targetOrder;
+            targetOrder = swapOrder;
+        }
+
+        // copy the result back if the last pass ended in the buffers
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, start, keys, start, end - start);
+            System.arraycopy(sourceOrder, start, order, start, end - start);
+        }
+    }
+}
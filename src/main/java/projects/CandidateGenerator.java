@@ -0,0 +1,165 @@
+package projects;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// class generating possible assignments of payment methods to orders into a CandidateBuffer
+public class CandidateGenerator {
+
+    // share of the order's value, in basis points, that has to be paid with points to get the 10% discount
+    public static final long POINTS_SHARE = 1_000;
+
+    // largest number of orders handled by a single task of the parallel generation
+    static final int RANGE_SIZE = 1 << 14;
+
+    private CandidateGenerator() {
+    }
+
+    // method generating possible assignments for each payment method, iterating the columnar OrderStore and
+    // calculating all amounts exactly in grosze
+    public static void generate(OrderStore orderStore, List<PaymentMethod> paymentMethods, CandidateBuffer candidates) {
+        generate(InputSnapshot.of(orderStore, paymentMethods), candidates);
+    }
+
+    // the same for the orders and payment methods of a snapshot
+    public static void generate(InputSnapshot snapshot, CandidateBuffer candidates) {
+        candidates.clear();
+
+        // for each payment method
+        for (int methodIndex = 0; methodIndex < snapshot.getMethodCount(); methodIndex++) {
+            generateRange(snapshot, methodIndex, 0, rangeEnd(snapshot, methodIndex), candidates);
+        }
+    }
+
+    // method generating the same assignments as generate(), in the same order, using the common ForkJoinPool
+    public static void generateParallel(OrderStore orderStore, List<PaymentMethod> paymentMethods, CandidateBuffer candidates) {
+        generateParallel(orderStore, paymentMethods, candidates, ForkJoinPool.commonPool());
+    }
+
+    // method generating the same assignments as generate(), in the same order, with a task for every payment method
+    // and its orders split into ranges of at most RANGE_SIZE, every task filling its own buffer
+    public static void generateParallel(OrderStore orderStore, List<PaymentMethod> paymentMethods, CandidateBuffer candidates,
+                                        ForkJoinPool pool) {
+        generateParallel(InputSnapshot.of(orderStore, paymentMethods), candidates, pool);
+    }
+
+    // the same for the orders and payment methods of a snapshot
+    public static void generateParallel(InputSnapshot snapshot, CandidateBuffer candidates, ForkJoinPool pool) {
+        candidates.clear();
+
+        // create tasks in the order in which the serial generation visits payment methods and orders
+        ArrayList<RangeTask> tasks = new ArrayList<>();
+        for (int methodIndex = 0; methodIndex < snapshot.getMethodCount(); methodIndex++) {
+            int end = rangeEnd(snapshot, methodIndex);
+            for (int start = 0; start < end; start += RANGE_SIZE) {
+                tasks.add(new RangeTask(snapshot, methodIndex, start, Math.min(start + RANGE_SIZE, end)));
+            }
+        }
+
+        for (RangeTask task : tasks) {
+            pool.execute(task);
+        }
+
+        // append the buffers in the order of the tasks, which makes the result identical to the serial one
+        for (RangeTask task : tasks) {
+            task.join();
+            candidates.addAll(task.buffer);
+        }
+    }
+
+    // method appending the assignments of a single payment method to the buffer, in the order of generate()
+    static void generateMethod(InputSnapshot snapshot, int methodIndex, CandidateBuffer candidates) {
+        generateRange(snapshot, methodIndex, 0, rangeEnd(snapshot, methodIndex), candidates);
+    }
+
+    // number of positions to iterate for a payment method: all orders for "PUNKTY", otherwise the orders with its promotion
+    private static int rangeEnd(InputSnapshot snapshot, int methodIndex) {
+        OrderStore orderStore = snapshot.getOrderStore();
+        if (snapshot.isPoints(methodIndex))
+            return orderStore.size();
+        int promotion = snapshot.getPromotion(methodIndex);
+        return promotion < 0 ? 0 : orderStore.ordersByPromotionEnd(promotion) - orderStore.ordersByPromotionStart(promotion);
+    }
+
+    // method generating assignments of a single payment method for positions between start and end, which are order
+    // indices for "PUNKTY" and positions among the orders with the method's promotion otherwise
+    private static void generateRange(InputSnapshot snapshot, int methodIndex, int start, int end, CandidateBuffer candidates) {
+        OrderStore orderStore = snapshot.getOrderStore();
+        long limit = snapshot.getLimit(methodIndex);
+        long discountBasisPoints = snapshot.getDiscount(methodIndex);
+
+        // if the payment method is "PUNKTY"
+        if (snapshot.isPoints(methodIndex)) {
+
+            // for each order
+            for (int order = start; order < end; order++) {
+
+                long orderValue = orderStore.getValue(order);
+
+                // if there are enough points to pay fully with them for this order
+                if (orderValue <= limit) {
+                    long discount = Money.percentOf(orderValue, discountBasisPoints);
+                    candidates.add(order, methodIndex, AssignmentType.POINTS, orderValue - discount, discount);
+
+                    // if there are enough points to qualify for a 10% discount for paying partially with them,
+                    // use just enough points to qualify for it
+                } else if (limit >= Money.minimumShare(orderValue, POINTS_SHARE)) {
+                    candidates.add(order, methodIndex, AssignmentType.PARTIAL, Money.minimumShare(orderValue, POINTS_SHARE),
+                            Money.percentOf(orderValue, POINTS_SHARE));
+                }
+            }
+
+            // if the payment method is other than "PUNKTY"
+        } else {
+
+            int promotion = snapshot.getPromotion(methodIndex);
+
+            // skip if no order can use the given payment method
+            if (promotion < 0)
+                return;
+
+            // for each order, that can use the given payment method
+            int first = orderStore.ordersByPromotionStart(promotion);
+            for (int k = first + start; k < first + end; k++) {
+
+                int order = orderStore.getOrderByPromotion(k);
+                long orderValue = orderStore.getValue(order);
+
+                // if there are enough funds for the given payment method to pay fully for this order
+                if (orderValue <= limit) {
+                    long discount = Money.percentOf(orderValue, discountBasisPoints);
+                    candidates.add(order, methodIndex, AssignmentType.CARD, orderValue - discount, discount);
+                }
+            }
+        }
+    }
+
+    // task generating assignments of a single payment method for a range of positions into its own buffer, tasks are
+    // never serialized, RecursiveAction is Serializable only because ForkJoinTask is
+    private static class RangeTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient InputSnapshot snapshot;
+        private final int methodIndex;
+        private final int start;
+        private final int end;
+        private final transient CandidateBuffer buffer;
+
+        private RangeTask(InputSnapshot snapshot, int methodIndex, int start, int end) {
+            this.snapshot = snapshot;
+            this.methodIndex = methodIndex;
+            this.start = start;
+            this.end = end;
+            this.buffer = new CandidateBuffer(end - start);
+        }
+
+        @Override
+        protected void compute() {
+            generateRange(snapshot, methodIndex, start, end, buffer);
+        }
+    }
+}
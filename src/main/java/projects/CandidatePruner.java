@@ -0,0 +1,67 @@
+package projects;
+
+import java.util.Arrays;
+
+// class removing candidates that can never be chosen by GreedySolver, so that fewer of them have to be sorted, the
+// result of the greedy pass is exactly the same as without pruning
+//
+// GreedySolver takes candidates of POINTS first, then CARD and lastly PARTIAL, each group by decreasing discount, and
+// skips candidates of orders that are already paid. When all POINTS candidates of a points payment method fit in its
+// limit together, each of them is taken if its order is still unpaid, so that order is surely paid by points. The
+// same holds for CARD candidates of a card whose limit fits all of them, as nothing is taken from cards before. So:
+//  * all CARD and PARTIAL candidates of an order surely paid by points are removed
+//  * CARD candidates of an order with a lower discount than its best CARD candidate of such a card are removed
+//  * all PARTIAL candidates of an order with a CARD candidate of such a card are removed
+public class CandidatePruner {
+
+    private CandidatePruner() {
+    }
+
+    // method removing dominated candidates from the buffer, keeping the order of the others, returns how many were removed
+    public static int prune(InputSnapshot snapshot, CandidateBuffer candidates) {
+        int methodCount = snapshot.getMethodCount();
+        int orderCount = snapshot.getOrderStore().size();
+
+        // funds needed by all POINTS candidates of points payment methods and all CARD candidates of cards
+        long[] demand = new long[methodCount];
+        for (int candidate = 0; candidate < candidates.size(); candidate++) {
+            if (candidates.getType(candidate) != AssignmentType.PARTIAL)
+                demand[candidates.getMethod(candidate)] += candidates.getUsedAmount(candidate);
+        }
+        boolean[] sufficient = new boolean[methodCount];
+        boolean anySufficient = false;
+        for (int method = 0; method < methodCount; method++) {
+            sufficient[method] = demand[method] > 0 && demand[method] <= snapshot.getLimit(method);
+            anySufficient |= sufficient[method];
+        }
+        if (!anySufficient)
+            return 0;
+
+        // orders surely paid by points and the highest discount of a CARD candidate surely taken, -1 if there is none
+        boolean[] paidByPoints = new boolean[orderCount];
+        long[] bestCardDiscount = new long[orderCount];
+        Arrays.fill(bestCardDiscount, -1);
+        for (int candidate = 0; candidate < candidates.size(); candidate++) {
+            if (!sufficient[candidates.getMethod(candidate)])
+                continue;
+            int order = candidates.getOrder(candidate);
+            switch (candidates.getType(candidate)) {
+                case POINTS -> paidByPoints[order] = true;
+                case CARD -> bestCardDiscount[order] = Math.max(bestCardDiscount[order], candidates.getDiscount(candidate));
+                case PARTIAL -> {
+                }
+            }
+        }
+
+        boolean[] removed = new boolean[candidates.size()];
+        for (int candidate = 0; candidate < candidates.size(); candidate++) {
+            int order = candidates.getOrder(candidate);
+            removed[candidate] = switch (candidates.getType(candidate)) {
+                case POINTS -> false;
+                case CARD -> paidByPoints[order] || candidates.getDiscount(candidate) < bestCardDiscount[order];
+                case PARTIAL -> paidByPoints[order] || bestCardDiscount[order] >= 0;
+            };
+        }
+        return candidates.removeAll(removed);
+    }
+}
@@ -0,0 +1,319 @@
+package projects;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParsingException;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// class reading a huge orders file on many threads
+//
+// the file is memory-mapped in regions and split between top-level array elements in three steps:
+// 1. every region is scanned in parallel, counting its unescaped quotes and the change of nesting depth outside of
+//    strings, once for a region starting outside of a string and once for one starting inside of a string
+// 2. whether every region starts inside of a string and at what depth follows from the results of the previous regions
+// 3. every region is split at its first comma between two orders, so the chunks between the splits contain whole orders
+// chunks are parsed in parallel and passed to the consumer one after another, in the order of the file, with at most
+// twice as many chunks parsed or waiting for the consumer as the pool has threads, so that memory does not grow with
+// the size of the file
+public class ChunkedOrdersReader {
+
+    // default number of bytes of a region, a single mapping cannot be larger than 2 GB
+    static final int REGION_SIZE = 1 << 25;
+
+    // number of bytes mapped before a region, where the backslashes escaping its first byte are counted
+    static final int LOOKBACK = 64;
+
+    private final ForkJoinPool pool;
+
+    private final int regionSize;
+
+    public ChunkedOrdersReader(ForkJoinPool pool) {
+        this(pool, REGION_SIZE);
+    }
+
+    // constructor with the size of regions, every region adds a chunk parsed as a separate task
+    public ChunkedOrdersReader(ForkJoinPool pool, int regionSize) {
+        if (regionSize < 1 || regionSize > Integer.MAX_VALUE - LOOKBACK)
+            throw new IllegalArgumentException("Region size must be between 1 and " + (Integer.MAX_VALUE - LOOKBACK)
+                    + ", got " + regionSize);
+        this.pool = pool;
+        this.regionSize = regionSize;
+    }
+
+    // method reading only the columnar copy of the orders, without creating any Order objects
+    public OrderStore readOrderStore(String path) {
+        OrderStore.Builder builder = new OrderStore.Builder();
+        read(path, (id, value, promotions) -> builder.add(id, Money.parse(value), promotions));
+        return builder.build();
+    }
+
+    // method reading all orders of a file and passing them to the consumer in the order of the file
+    void read(String path, JsonFileReader.OrderConsumer consumer) {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long arrayStart = findArrayStart(channel, size);
+            long arrayEnd = findArrayEnd(channel, size, arrayStart);
+
+            // steps 1 and 2, state at the start of every region
+            int regionCount = (int) ((size + regionSize - 1) / regionSize);
+            List<ForkJoinTask<RegionScan>> scans = new ArrayList<>();
+            for (int region = 0; region < regionCount; region++) {
+                long start = (long) region * regionSize;
+                scans.add(pool.submit(() -> scanRegion(channel, start, Math.min(size, start + regionSize))));
+            }
+            boolean[] startsInString = new boolean[regionCount];
+            int[] startDepths = new int[regionCount];
+            boolean inString = false;
+            int depth = 0;
+            for (int region = 0; region < regionCount; region++) {
+                RegionScan scan = scans.get(region).join();
+                startsInString[region] = inString;
+                startDepths[region] = depth;
+                depth += inString ? scan.depthChangeInString : scan.depthChange;
+                inString ^= scan.oddQuotes;
+            }
+
+            // step 3, positions of the commas separating the chunks
+            List<ForkJoinTask<Long>> splitTasks = new ArrayList<>();
+            for (int region = 1; region < regionCount; region++) {
+                long start = (long) region * regionSize;
+                boolean regionInString = startsInString[region];
+                int regionDepth = startDepths[region];
+                splitTasks.add(pool.submit(() -> findSplit(channel, start, Math.min(arrayEnd, start + regionSize),
+                        regionInString, regionDepth)));
+            }
+            List<Long> splits = new ArrayList<>();
+            splits.add(arrayStart);
+            for (ForkJoinTask<Long> splitTask : splitTasks) {
+                long split = splitTask.join();
+                if (split > arrayStart && split < arrayEnd)
+                    splits.add(split);
+            }
+            splits.add(arrayEnd);
+
+            // parse the chunks in parallel, but hand their orders over strictly in the order of the chunks, a chunk is
+            // submitted only when one of the window of chunks in flight has been passed on
+            int window = 2 * pool.getParallelism();
+            ArrayDeque<ForkJoinTask<List<ParsedOrder>>> chunks = new ArrayDeque<>();
+            int nextChunk = 0;
+            while (nextChunk + 1 < splits.size() || !chunks.isEmpty()) {
+                while (nextChunk + 1 < splits.size() && chunks.size() < window) {
+                    long start = splits.get(nextChunk) + 1;
+                    long end = splits.get(nextChunk + 1);
+                    chunks.add(pool.submit(() -> parseChunk(channel, start, end)));
+                    nextChunk++;
+                }
+                for (ParsedOrder order : chunks.poll().join()) {
+                    consumer.accept(order.id, order.value, order.promotions);
+                }
+            }
+        } catch (NoSuchFileException noSuchFileException) {
+            throw new RuntimeException("File not found: " + noSuchFileException.getMessage(), noSuchFileException);
+        } catch (FileNotFoundException fileNotFoundException) {
+            throw new RuntimeException("File not found: " + fileNotFoundException.getMessage(), fileNotFoundException);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    // method returning the position of the '[' opening the top-level array
+    private static long findArrayStart(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = 0;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '[')
+                    return position + i;
+                if (!isWhitespace(b))
+                    throw new JsonParsingException("Orders file must contain a JSON array!", null);
+            }
+            position += read;
+        }
+        throw new JsonParsingException("Orders file must contain a JSON array!", null);
+    }
+
+    // method returning the position of the ']' closing the top-level array
+    private static long findArrayEnd(FileChannel channel, long size, long arrayStart) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long end = size;
+        while (end > arrayStart + 1) {
+            long start = Math.max(arrayStart + 1, end - buffer.capacity());
+            buffer.clear().limit((int) (end - start));
+            channel.read(buffer, start);
+            for (int i = (int) (end - start) - 1; i >= 0; i--) {
+                byte b = buffer.get(i);
+                if (b == ']')
+                    return start + i;
+                if (!isWhitespace(b))
+                    throw new JsonParsingException("Orders array is not closed!", null);
+            }
+            end = start;
+        }
+        throw new JsonParsingException("Orders array is not closed!", null);
+    }
+
+    // method scanning a region for step 1
+    private static RegionScan scanRegion(FileChannel channel, long start, long end) throws IOException {
+        long mapStart = Math.max(0, start - LOOKBACK);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, end - mapStart);
+        int offset = (int) (start - mapStart);
+
+        // a quote is escaped by an odd number of backslashes right before it, which may belong to the previous region
+        int backslashes = precedingBackslashes(channel, buffer, mapStart, offset);
+        boolean oddQuotes = false;
+        int depth = 0;
+        int depthInString = 0;
+        for (int i = offset; i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+            if (b == '\\') {
+                backslashes++;
+                continue;
+            }
+            if (b == '"' && (backslashes & 1) == 0) {
+                oddQuotes = !oddQuotes;
+            } else if (b == '[' || b == '{') {
+
+                // oddQuotes tells whether the byte is inside of a string for a region starting outside of one
+                if (oddQuotes)
+                    depthInString++;
+                else
+                    depth++;
+            } else if (b == ']' || b == '}') {
+                if (oddQuotes)
+                    depthInString--;
+                else
+                    depth--;
+            }
+            backslashes = 0;
+        }
+        return new RegionScan(oddQuotes, depth, depthInString);
+    }
+
+    // method counting the backslashes right before position offset of a buffer mapped from mapStart, only a run of
+    // backslashes longer than LOOKBACK is counted further by reading the channel, LOOKBACK bytes at a time
+    private static int precedingBackslashes(FileChannel channel, ByteBuffer buffer, long mapStart, int offset)
+            throws IOException {
+        int count = 0;
+        while (true) {
+            for (int i = offset - 1; i >= 0; i--) {
+                if (buffer.get(i) != '\\')
+                    return count;
+                count++;
+            }
+            if (mapStart == 0)
+                return count;
+            long previousStart = Math.max(0, mapStart - LOOKBACK);
+            offset = (int) (mapStart - previousStart);
+            buffer = ByteBuffer.allocate(offset);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, previousStart + buffer.position()) < 0)
+                    throw new EOFException("File ended before position " + mapStart);
+            }
+            mapStart = previousStart;
+        }
+    }
+
+    // method returning the position of the first comma between two orders in a region, or -1 if there is none
+    private static long findSplit(FileChannel channel, long start, long end, boolean inString, int depth) throws IOException {
+        if (start >= end)
+            return -1;
+        long mapStart = Math.max(0, start - LOOKBACK);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, end - mapStart);
+        int offset = (int) (start - mapStart);
+        int backslashes = precedingBackslashes(channel, buffer, mapStart, offset);
+        for (int i = offset; i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+            if (b == '\\') {
+                backslashes++;
+                continue;
+            }
+            if (b == '"' && (backslashes & 1) == 0)
+                inString = !inString;
+            else if (!inString) {
+                if (b == '[' || b == '{')
+                    depth++;
+                else if (b == ']' || b == '}')
+                    depth--;
+                else if (b == ',' && depth == 1)
+                    return mapStart + i;
+            }
+            backslashes = 0;
+        }
+        return -1;
+    }
+
+    // method parsing the orders between two splits, separated by commas but without the brackets of an array
+    private static List<ParsedOrder> parseChunk(FileChannel channel, long start, long end) throws IOException {
+        if (end - start > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Order at position " + start + " is larger than 2 GB");
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+
+        List<ParsedOrder> orders = new ArrayList<>();
+        InputStream inputStream = new SequenceInputStream(new ByteArrayInputStream(new byte[]{'['}),
+                new SequenceInputStream(new ByteBufferInputStream(buffer), new ByteArrayInputStream(new byte[]{']'})));
+        try (JsonParser jsonParser = Json.createParser(inputStream)) {
+            jsonParser.next();
+            JsonFileReader.streamOrderArray(jsonParser,
+                    (id, value, promotions) -> orders.add(new ParsedOrder(id, value, List.copyOf(promotions))));
+            if (jsonParser.hasNext())
+                throw new JsonParsingException("Unexpected content after the order at position " + start + "!", jsonParser.getLocation());
+        }
+        return orders;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    // record storing the result of scanning a single region in step 1
+    private record RegionScan(boolean oddQuotes, int depthChange, int depthChangeInString) {
+    }
+
+    // record storing an order read from a chunk until it is passed to the consumer
+    private record ParsedOrder(String id, String value, List<String> promotions) {
+    }
+
+    // class reading a mapped region as an InputStream for JsonParser
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining())
+                return -1;
+            length = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, length);
+            return length;
+        }
+    }
+}
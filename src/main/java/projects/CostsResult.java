@@ -0,0 +1,39 @@
+package projects;
+
+// record storing what is written to a ResultSink for a single calculation: costs in grosze of every distinct id of the
+// payment methods in the order of their first appearance, whether all orders have been paid, or an error instead
+//  * id - id of the basket in batch mode, null for a single calculation
+//  * methodIds, costs - ids of the payment methods and funds spent with them, both empty for an error
+//  * allPaid - whether all orders have been paid, false for an error
+//  * error - message of the error that stopped the calculation, null if there was none
+public record CostsResult(String id, String[] methodIds, long[] costs, boolean allPaid, String error) {
+
+    // method creating the result of a solver, adding up costs of payment methods sharing an id
+    public static CostsResult of(String id, InputSnapshot snapshot, AssignmentResult result) {
+        MethodDictionary dictionary = snapshot.getDictionary();
+        String[] methodIds = new String[dictionary.size()];
+        for (int code = 0; code < methodIds.length; code++) {
+            methodIds[code] = dictionary.getId(code);
+        }
+        long[] costs = new long[dictionary.size()];
+        for (int methodIndex = 0; methodIndex < snapshot.getMethodCount(); methodIndex++) {
+            if (result.used()[methodIndex])
+                costs[dictionary.getCode(methodIndex)] += result.spent()[methodIndex];
+        }
+        return new CostsResult(id, methodIds, costs, result.allPaid(), null);
+    }
+
+    // method creating the error of a calculation stopped at an order that could only be paid partially, with the
+    // message of CalculationsClass.chooseBestOption()
+    public static CostsResult insufficientFunds(String id, OrderStore orderStore, int failedOrder) {
+        return error(id, "Cannot pay for " + orderStore.getId(failedOrder) + " - insufficient amount of funds!");
+    }
+
+    public static CostsResult error(String id, String message) {
+        return new CostsResult(id, new String[0], new long[0], false, String.valueOf(message));
+    }
+
+    public boolean isError() {
+        return error != null;
+    }
+}
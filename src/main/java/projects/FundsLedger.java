@@ -0,0 +1,87 @@
+package projects;
+
+import java.util.List;
+
+// class keeping remaining limits of the payment methods in grosze during a calculation, together with a running total
+// of funds left on all payment methods except "PUNKTY", so that it never has to be summed up again
+public final class FundsLedger {
+
+    // remaining limit of every payment method, indexed like the list of payment methods
+    private final long[] limits;
+
+    // index of "PUNKTY" or -1 if there is no such payment method
+    private int pointsIndex;
+
+    // sum of the remaining limits of all payment methods except "PUNKTY"
+    private long otherFunds;
+
+    public FundsLedger(List<PaymentMethod> paymentMethods) {
+        this(paymentMethods.stream().mapToLong(PaymentMethod::getMinorLimit).toArray(),
+                MethodDictionary.pointsMethodOf(paymentMethods.stream().map(PaymentMethod::getId).toList()));
+    }
+
+    public FundsLedger(InputSnapshot snapshot) {
+        this(snapshot.getLimits(), snapshot.getDictionary().getPointsMethod());
+    }
+
+    // constructor taking the limits in grosze indexed like the payment methods, which are copied, and the index of
+    // "PUNKTY" or -1 if there is no such payment method
+    public FundsLedger(long[] limits, int pointsIndex) {
+        this.limits = limits.clone();
+        this.pointsIndex = pointsIndex;
+        sumOtherFunds();
+    }
+
+    // method setting the limits back to the ones of a snapshot with the same payment methods, so that the ledger can be reused
+    public void reset(InputSnapshot snapshot) {
+        if (snapshot.getMethodCount() != limits.length)
+            throw new IllegalArgumentException("Snapshot has " + snapshot.getMethodCount() + " payment methods instead of " + limits.length);
+        pointsIndex = snapshot.getDictionary().getPointsMethod();
+        for (int i = 0; i < limits.length; i++) {
+            limits[i] = snapshot.getLimit(i);
+        }
+        sumOtherFunds();
+    }
+
+    private void sumOtherFunds() {
+        otherFunds = 0;
+        for (int i = 0; i < limits.length; i++) {
+            if (i != pointsIndex)
+                otherFunds += limits[i];
+        }
+    }
+
+    public int size() {
+        return limits.length;
+    }
+
+    public long getLimit(int method) {
+        return limits[method];
+    }
+
+    // method changing the remaining limit of a payment method and the running total in constant time
+    public void setLimit(int method, long limit) {
+        if (method != pointsIndex)
+            otherFunds += limit - limits[method];
+        limits[method] = limit;
+    }
+
+    public int getPointsIndex() {
+        return pointsIndex;
+    }
+
+    // remaining points, 0 if there is no "PUNKTY" payment method
+    public long getPoints() {
+        return pointsIndex < 0 ? 0 : limits[pointsIndex];
+    }
+
+    // remaining funds of all payment methods except "PUNKTY"
+    public long getOtherFunds() {
+        return otherFunds;
+    }
+
+    // method returning a copy of the remaining limits of all payment methods
+    public long[] getLimits() {
+        return limits.clone();
+    }
+}
@@ -0,0 +1,374 @@
+package projects;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// solver paying for orders greedily: firstly wholly by points, then wholly by card, lastly partially by points, each
+// group in order of decreasing discount, and finally paying for the orders left with whatever funds remain
+public class GreedySolver implements AssignmentSolver {
+
+    // priorities of assignment types indexed by their ordinals, lower priorities are assigned first
+    static final int[] TYPE_PRIORITIES = new int[AssignmentType.values().length];
+
+    static {
+        for (AssignmentType type : AssignmentType.values()) {
+            TYPE_PRIORITIES[type.ordinal()] = getTypePriority(type);
+        }
+    }
+
+    // return priority of a given payment type
+    private static int getTypePriority(AssignmentType type) {
+        return switch (type) {
+            case POINTS -> 0;
+            case CARD -> 1;
+            case PARTIAL -> 2;
+        };
+    }
+
+    // whether possible assignments are generated in parallel, which gives the same assignments in the same order
+    private final boolean parallelGeneration;
+
+    // whether assignments that can never be chosen are removed by CandidatePruner before sorting, which does not
+    // change the result
+    private final boolean pruning;
+
+    public GreedySolver() {
+        this(false);
+    }
+
+    public GreedySolver(boolean parallelGeneration) {
+        this(parallelGeneration, true);
+    }
+
+    public GreedySolver(boolean parallelGeneration, boolean pruning) {
+        this.parallelGeneration = parallelGeneration;
+        this.pruning = pruning;
+    }
+
+    // the result depends only on the input, also with parallel generation and pruning
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public AssignmentResult solve(OrderStore orderStore, List<PaymentMethod> paymentMethods) {
+        return solve(InputSnapshot.of(orderStore, paymentMethods), new SolverState());
+    }
+
+    @Override
+    public AssignmentResult solve(InputSnapshot snapshot, SolverState state) {
+        return solve(snapshot, state, null);
+    }
+
+    // the same, also writing to assignedMethods, if it is not null, the payment method of the candidate assigned to
+    // every order or -1 for the orders paid by payLeftoverOrders() or not at all, used by LocalSearchSolver to start
+    // from the greedy choices
+    AssignmentResult solve(InputSnapshot snapshot, SolverState state, int[] assignedMethods) {
+        PipelineMetrics.Stopwatch stopwatch = PipelineMetrics.stopwatch(state.phaseNanos);
+        state.reset(snapshot);
+
+        // generate possible assignments
+        if (parallelGeneration)
+            CandidateGenerator.generateParallel(snapshot, state.candidates, ForkJoinPool.commonPool());
+        else
+            CandidateGenerator.generate(snapshot, state.candidates);
+        stopwatch.lap(PipelineMetrics.Phase.GENERATE);
+        PipelineMetrics.recordCandidates(state.candidates);
+
+        // remove assignments that cannot be chosen
+        state.prunedCandidates = pruning ? CandidatePruner.prune(snapshot, state.candidates) : 0;
+        stopwatch.lap(PipelineMetrics.Phase.PRUNE);
+        PipelineMetrics.recordPruned(state.prunedCandidates);
+
+        // sort assignments in order of the payment method's priority and then in order of decreasing discount
+        int[] sortedCandidates = state.candidates.sortedOrder(TYPE_PRIORITIES);
+        stopwatch.lap(PipelineMetrics.Phase.SORT);
+
+        Calculation calculation = new Calculation(snapshot.getOrderStore(), state);
+        if (assignedMethods != null)
+            calculation.recordAssignedMethods(assignedMethods);
+        calculation.assignCandidates(state.candidates, sortedCandidates);
+        stopwatch.lap(PipelineMetrics.Phase.GREEDY);
+        calculation.payLeftoverOrders();
+        stopwatch.lap(PipelineMetrics.Phase.FALLBACK);
+        PipelineMetrics.recordRun(calculation.fallbackOrders, calculation.totalDiscount);
+        return state.toResult(calculation.totalDiscount, calculation.failedOrder);
+    }
+
+    // results of payLeftover() other than the discount of a paid order
+    static final long NOT_COVERED = -1;
+    static final long FAILED = -2;
+
+    // whether a candidate can be assigned with the funds left: its payment method has to cover the used amount and,
+    // for a partial payment, the payment methods except "PUNKTY" have to cover the rest of the discounted value
+    static boolean fits(FundsLedger ledger, AssignmentType type, int methodIndex, long orderValue, long usedAmount,
+                        long discount) {
+        return fits(ledger.getLimit(methodIndex), ledger.getOtherFunds(), type, orderValue, usedAmount, discount);
+    }
+
+    // the same for the funds left on the payment method and on the payment methods except "PUNKTY" given directly
+    static boolean fits(long limit, long otherFunds, AssignmentType type, long orderValue, long usedAmount,
+                        long discount) {
+        if (type == AssignmentType.PARTIAL && orderValue - discount - usedAmount > otherFunds)
+            return false;
+        return limit >= usedAmount;
+    }
+
+    // method paying for an order no candidate was assigned to with the funds of the ledger: points first, with a 10%
+    // discount if they cover at least 10% of the order's value, then the other payment methods in their order. The
+    // amounts taken are added to amounts, indexed like the payment methods. Returns the discount, NOT_COVERED if the
+    // funds left are not enough, in which case nothing is taken, or FAILED if the order was paid only partly
+    static long payLeftover(FundsLedger ledger, long orderValue, long[] amounts) {
+        int pointsIndex = ledger.getPointsIndex();
+        long pointsMinimum = Money.minimumShare(orderValue, CandidateGenerator.POINTS_SHARE);
+        long pointsDiscount = Money.percentOf(orderValue, CandidateGenerator.POINTS_SHARE);
+        long tentativeLeftToPay = orderValue;
+        long tentativeUsedPoints = 0;
+        long pointsLeft = ledger.getPoints();
+
+        // first check whether the order can be paid partially by points and other payment methods
+
+        // if there are still points left
+        if (pointsLeft > 0) {
+
+            // calculate how many points can be used for this order
+            tentativeUsedPoints = Math.min(pointsLeft, tentativeLeftToPay);
+
+            // if there are enough points to cover at least 10% of the order's value, apply discount
+            if (tentativeUsedPoints >= pointsMinimum) {
+                tentativeLeftToPay -= pointsDiscount;
+            }
+        }
+
+        // funds left for all payment methods except "PUNKTY" are kept by the ledger
+        long totalFundsAvailable = tentativeUsedPoints + ledger.getOtherFunds();
+
+        // the order cannot be covered if the amount left to pay is bigger than funds left
+        if (tentativeLeftToPay > totalFundsAvailable)
+            return NOT_COVERED;
+
+        long leftToPay = orderValue;
+        long discount = 0;
+
+        // if there are still points left
+        if (pointsLeft > 0) {
+
+            // calculate how many points can be used for this order
+            long usedPoints = Math.min(pointsLeft, leftToPay);
+
+            // if a discount can be applied, then apply it
+            if (usedPoints >= pointsMinimum) {
+                leftToPay -= pointsDiscount;
+                discount = pointsDiscount;
+            }
+
+            // deduct used points from the payment method's limit and from the remaining amount to pay
+            ledger.setLimit(pointsIndex, pointsLeft - usedPoints);
+            amounts[pointsIndex] += usedPoints;
+            leftToPay -= usedPoints;
+        }
+
+        // try paying for the remaining amount with other payment methods
+        // for each payment method, except "PUNKTY"
+        for (int methodIndex = 0; methodIndex < ledger.size(); methodIndex++) {
+            if (methodIndex == pointsIndex) continue;
+
+            // skip if the order has already been paid
+            if (leftToPay <= 0) break;
+
+            long available = ledger.getLimit(methodIndex);
+
+            // if there are still funds left for this payment method, use them for this order
+            if (available > 0) {
+                long usedFunds = Math.min(available, leftToPay);
+                ledger.setLimit(methodIndex, available - usedFunds);
+                amounts[methodIndex] += usedFunds;
+                leftToPay -= usedFunds;
+            }
+        }
+        return leftToPay > 0 ? FAILED : discount;
+    }
+
+    // class keeping the state of a single calculation, the arrays belong to the SolverState it was created with, also
+    // used by PartitionedSolver to run the phases of the calculation separately
+    static final class Calculation {
+        private final OrderStore orderStore;
+
+        // remaining limits of the payment methods
+        private final FundsLedger ledger;
+
+        // funds spent with every payment method and whether the method has been used at all
+        private final long[] spent;
+        private final boolean[] used;
+
+        private final boolean[] paid;
+        long totalDiscount;
+        int failedOrder = -1;
+
+        // number of orders reached by payLeftoverOrders() unpaid
+        int fallbackOrders;
+
+        // orders sharing an id get a single discounted assignment, the others are paid by payLeftoverOrders(),
+        // firstOrders[order] identifies the id of the order and assignedIds is indexed by it, both are null if all
+        // ids are different
+        private final int[] firstOrders;
+        private final boolean[] assignedIds;
+
+        // payment method assigned to every order by assignCandidates(), null if they are not recorded
+        private int[] assignedMethods;
+
+        Calculation(OrderStore orderStore, SolverState state) {
+            this.orderStore = orderStore;
+            this.ledger = state.ledger;
+            this.spent = state.spent;
+            this.used = state.used;
+            this.paid = state.paid;
+            this.firstOrders = orderStore.getFirstOrdersWithSameId();
+            this.assignedIds = firstOrders != null ? new boolean[orderStore.size()] : null;
+        }
+
+        private Calculation(Calculation calculation) {
+            this.orderStore = calculation.orderStore;
+            this.ledger = new FundsLedger(calculation.ledger.getLimits(), calculation.ledger.getPointsIndex());
+            this.spent = new long[calculation.spent.length];
+            this.used = new boolean[calculation.used.length];
+            this.paid = calculation.paid;
+            this.firstOrders = calculation.firstOrders;
+            this.assignedIds = calculation.assignedIds;
+            this.assignedMethods = calculation.assignedMethods;
+        }
+
+        // method recording the payment method of every assigned candidate in the given array, -1 for the others
+        void recordAssignedMethods(int[] assignedMethods) {
+            Arrays.fill(assignedMethods, -1);
+            this.assignedMethods = assignedMethods;
+        }
+
+        // method creating a calculation with its own copy of the remaining limits and its own spent funds, sharing the
+        // paid orders with this one, so that candidates of disjoint orders and payment methods can be assigned by
+        // many of them at the same time, their outcome is added back by merge()
+        Calculation split() {
+            return new Calculation(this);
+        }
+
+        // method adding the funds spent and discounts gained by a calculation created by split()
+        void merge(Calculation part) {
+            for (int methodIndex = 0; methodIndex < spent.length; methodIndex++) {
+                if (!part.used[methodIndex])
+                    continue;
+                spend(methodIndex, part.spent[methodIndex]);
+            }
+            totalDiscount += part.totalDiscount;
+        }
+
+        // method taking funds from a payment method
+        private void spend(int methodIndex, long amount) {
+            ledger.setLimit(methodIndex, ledger.getLimit(methodIndex) - amount);
+            spent[methodIndex] += amount;
+            used[methodIndex] = true;
+        }
+
+        // method assigning sorted candidates to orders that have not been paid yet, as long as there are enough funds
+        void assignCandidates(CandidateBuffer candidates, int[] sortedCandidates) {
+            assignCandidates(candidates, sortedCandidates, 0, sortedCandidates.length);
+        }
+
+        // the same for the sorted candidates between from and to
+        void assignCandidates(CandidateBuffer candidates, int[] sortedCandidates, int from, int to) {
+
+            // for each assignment option
+            for (int i = from; i < to; i++) {
+
+                int candidate = sortedCandidates[i];
+                int order = candidates.getOrder(candidate);
+
+                // skip if the order is already paid or another order with its id has been assigned
+                if (paid[order] || (firstOrders != null && assignedIds[firstOrders[order]]))
+                    continue;
+
+                // get payment method and it's available funds
+                int methodIndex = candidates.getMethod(candidate);
+                long usedAmount = candidates.getUsedAmount(candidate);
+
+                // if there are enough funds left for the assignment
+                if (fits(ledger, candidates.getType(candidate), methodIndex, orderStore.getValue(order), usedAmount,
+                        candidates.getDiscount(candidate))) {
+                    spend(methodIndex, usedAmount);
+                    totalDiscount += candidates.getDiscount(candidate);
+                    paid[order] = true;
+                    if (firstOrders != null)
+                        assignedIds[firstOrders[order]] = true;
+                    if (assignedMethods != null)
+                        assignedMethods[order] = methodIndex;
+                }
+            }
+        }
+
+        // method handling orders which were not paid yet, stops at the first order that cannot be paid fully
+        // after paying for a part of it
+        void payLeftoverOrders() {
+
+            // amounts taken for a single order, cleared again after they are added to the spent funds
+            long[] amounts = new long[spent.length];
+
+            // whether a recording wants SlowOrderEvents, otherwise no time is measured
+            boolean traced = new SlowOrderEvent().isEnabled();
+
+            for (int order = 0; order < orderStore.size(); order++) {
+
+                // skip if the order is already paid
+                if (paid[order]) continue;
+                fallbackOrders++;
+
+                SlowOrderEvent event = null;
+                long started = 0;
+                if (traced) {
+                    event = new SlowOrderEvent();
+                    event.begin();
+                    started = System.nanoTime();
+                }
+
+                // skip if the order cannot be covered by the funds left
+                long discount = payLeftover(ledger, orderStore.getValue(order), amounts);
+                if (discount == NOT_COVERED)
+                    continue;
+
+                int methodCount = 0;
+                for (int methodIndex = 0; methodIndex < amounts.length; methodIndex++) {
+                    if (amounts[methodIndex] == 0) continue;
+                    spent[methodIndex] += amounts[methodIndex];
+                    used[methodIndex] = true;
+                    amounts[methodIndex] = 0;
+                    methodCount++;
+                }
+
+                // if there are still funds left to pay for this order, then it cannot be covered by any payment method
+                // stop the loop
+                if (discount == FAILED) {
+                    failedOrder = order;
+                    commitIfOutlier(event, started, order, methodCount, false);
+                    return;
+                }
+
+                // else mark order as paid
+                paid[order] = true;
+                totalDiscount += discount;
+                commitIfOutlier(event, started, order, methodCount, true);
+            }
+        }
+
+        // method committing the event of a leftover order if it took long or needed many payment methods
+        private void commitIfOutlier(SlowOrderEvent event, long started, int order, int methodCount, boolean orderPaid) {
+            if (event == null || !SlowOrderEvent.isOutlier(System.nanoTime() - started, methodCount))
+                return;
+            event.end();
+            event.orderId = orderStore.getId(order);
+            event.value = orderStore.getValue(order);
+            event.methodCount = methodCount;
+            event.paid = orderPaid;
+            event.commit();
+        }
+    }
+}
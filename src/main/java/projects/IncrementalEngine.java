@@ -0,0 +1,778 @@
+package projects;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// engine keeping orders paid while they and the payment methods change one at a time, giving after every change the
+// same result as GreedySolver for the orders in the order of adding them, without recalculating everything
+//
+// the engine keeps the candidates GreedySolver would generate, calculated like CandidateGenerator, in the order GreedySolver
+// sorts them, separately for every payment method, together with the candidates that were assigned and the sums of
+// the funds they take. Whether a candidate is assigned depends only on whether its order is paid already and on the
+// funds left before it on its payment method and, for a partial payment, on the other payment methods. So a change
+// goes through the candidates in order again, but visits only the ones whose assignment can differ: the candidates
+// it adds or removes, the candidates of a payment method left with different funds that these funds can move in or
+// out of the assignment, the following candidates of every order whose assignment differs, and the partial payments
+// whose rest lies between the funds the other payment methods had left before and after the change. Orders no
+// candidate is assigned to are kept in their own set, which is the only one the leftover pass of GreedySolver visits,
+// and are paid again from the first one whose part in the pass changes, or from the start if the funds left for the
+// pass changed
+//
+// adding or removing an order usually visits a few candidates. A change moving many assignments, like a new limit of a
+// payment method that runs out, or a new discount, which moves all candidates of its payment method, visits all of
+// them. IncrementalBenchmark compares every kind of change with a fresh GreedySolver run
+public class IncrementalEngine {
+
+    // order of the candidates: priority of the type, decreasing discount, then the payment method and the order, which
+    // is the order of generating them in GreedySolver, written out as it is called for every step in the sets
+    private static final Comparator<Candidate> CANDIDATE_ORDER = (first, second) -> {
+        int order = Integer.compare(GreedySolver.TYPE_PRIORITIES[first.type().ordinal()],
+                GreedySolver.TYPE_PRIORITIES[second.type().ordinal()]);
+        if (order == 0)
+            order = Long.compare(second.discount(), first.discount());
+        if (order == 0)
+            order = Integer.compare(first.method(), second.method());
+        return order != 0 ? order : Integer.compare(first.slot(), second.slot());
+    };
+
+    // key placed after all payments by points and by card, and before all partial payments
+    private static final Candidate FIRST_PARTIAL = new Candidate(null, -1, AssignmentType.PARTIAL, 0, Long.MAX_VALUE);
+
+    private final List<String> methodIds = new ArrayList<>();
+    private final HashMap<String, Integer> methodIndices = new HashMap<>();
+
+    // whether a payment method is "PUNKTY", which every order can use, compared like in MethodDictionary
+    private final boolean[] points;
+
+    // discounts of the payment methods in basis points, their limits and funds taken from them, all indexed like methodIds
+    private final long[] discounts;
+    private final long[] limits;
+    private final long[] spent;
+
+    // funds left on the payment methods, kept together with their total outside of points
+    private final FundsLedger ledger;
+
+    // orders by their ids and by the position they were added at, which is their index in GreedySolver
+    private final HashMap<String, OrderEntry> orders = new HashMap<>();
+    private final TreeMap<Integer, OrderEntry> ordersBySlot = new TreeMap<>();
+    private int nextSlot;
+
+    // orders with a given promotion in the order of adding them, to find the candidates of a card
+    private final HashMap<String, TreeMap<Integer, OrderEntry>> ordersByPromotion = new HashMap<>();
+
+    // candidates of every payment method and the ones that were assigned, both in CANDIDATE_ORDER and indexed like
+    // methodIds, and the partial payments by the rest they need from the other payment methods
+    private final ArrayList<TreeSet<Candidate>> methodCandidates = new ArrayList<>();
+    private final ArrayList<AssignedTree> assignedCandidates = new ArrayList<>();
+    private final TreeMap<Long, ArrayList<Candidate>> partialsByRest = new TreeMap<>();
+
+    // highest value of all orders ever added, which no candidate uses more of
+    private long maxValue;
+
+    // orders no candidate is assigned to and the ones the leftover pass took funds for, both by the position they
+    // were added at
+    private final TreeMap<Integer, OrderEntry> unassignedOrders = new TreeMap<>();
+    private final TreeMap<Integer, OrderEntry> leftoverOrders = new TreeMap<>();
+
+    // order at which the leftover pass stopped after paying for a part of it, null if it did not stop
+    private OrderEntry failedOrder;
+
+    private long totalDiscount;
+
+    // record of a single candidate like the ones in CandidateBuffer, with the amount taken from its payment method and
+    // the discount gained, the order is null only for FIRST_PARTIAL
+    private record Candidate(OrderEntry order, int method, AssignmentType type, long usedAmount, long discount) {
+        private int slot() {
+            return order == null ? -1 : order.slot;
+        }
+
+        // part of the discounted value of a partial payment not covered by points
+        private long rest() {
+            return order.value - discount - usedAmount;
+        }
+    }
+
+    // class storing an order with its candidates and the payment chosen for it
+    private static class OrderEntry {
+        private final String id;
+        private final int slot;
+        private final long value;
+        private final List<String> promotions;
+        private final ArrayList<Candidate> candidates = new ArrayList<>();
+
+        // payment chosen for the order, amounts taken from the payment methods are indexed like methodIds, the
+        // candidate is null if the order was paid by the leftover pass
+        private boolean paid;
+        private Candidate candidate;
+        private AssignmentType type;
+        private long discount;
+        private long[] amounts;
+
+        private OrderEntry(String id, int slot, long value, List<String> promotions) {
+            this.id = id;
+            this.slot = slot;
+            this.value = value;
+            this.promotions = promotions;
+        }
+    }
+
+    // class describing a single change: the candidates it adds and removes, the order it adds or removes and the new
+    // limit or discount of a payment method, -1 for none
+    private static class Change {
+        private final Set<Candidate> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<Candidate> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        private OrderEntry addedOrder;
+        private OrderEntry removedOrder;
+        private int limitMethod = -1;
+        private long limit;
+        private int discountMethod = -1;
+        private long discount;
+    }
+
+    // class storing the candidates assigned to a single payment method in CANDIDATE_ORDER, a treap keeping the sum of
+    // the used amounts in every subtree, so that the funds taken before any candidate are found in logarithmic time
+    private static final class AssignedTree {
+
+        private static final class Node {
+            private final Candidate candidate;
+            private final int priority;
+            private long sum;
+            private Node left;
+            private Node right;
+
+            private Node(Candidate candidate, int priority) {
+                this.candidate = candidate;
+                this.priority = priority;
+                this.sum = candidate.usedAmount();
+            }
+        }
+
+        // priorities of the nodes are random, with a fixed seed so that the shape of the tree is repeatable
+        private final Random random = new Random(0);
+        private Node root;
+
+        private void add(Candidate candidate) {
+            root = add(root, new Node(candidate, random.nextInt()));
+        }
+
+        private static Node add(Node node, Node added) {
+            if (node == null)
+                return added;
+            if (added.priority > node.priority) {
+                Node[] parts = split(node, added.candidate);
+                added.left = parts[0];
+                added.right = parts[1];
+                return update(added);
+            }
+            if (CANDIDATE_ORDER.compare(added.candidate, node.candidate) < 0)
+                node.left = add(node.left, added);
+            else
+                node.right = add(node.right, added);
+            return update(node);
+        }
+
+        // parts of a subtree before and after the given candidate
+        private static Node[] split(Node node, Candidate candidate) {
+            if (node == null)
+                return new Node[2];
+            if (CANDIDATE_ORDER.compare(node.candidate, candidate) < 0) {
+                Node[] parts = split(node.right, candidate);
+                node.right = parts[0];
+                parts[0] = update(node);
+                return parts;
+            }
+            Node[] parts = split(node.left, candidate);
+            node.left = parts[1];
+            parts[1] = update(node);
+            return parts;
+        }
+
+        private void remove(Candidate candidate) {
+            root = remove(root, candidate);
+        }
+
+        private static Node remove(Node node, Candidate candidate) {
+            int order = CANDIDATE_ORDER.compare(candidate, node.candidate);
+            if (order == 0)
+                return merge(node.left, node.right);
+            if (order < 0)
+                node.left = remove(node.left, candidate);
+            else
+                node.right = remove(node.right, candidate);
+            return update(node);
+        }
+
+        private static Node merge(Node first, Node second) {
+            if (first == null)
+                return second;
+            if (second == null)
+                return first;
+            if (first.priority > second.priority) {
+                first.right = merge(first.right, second);
+                return update(first);
+            }
+            second.left = merge(first, second.left);
+            return update(second);
+        }
+
+        private static Node update(Node node) {
+            node.sum = node.candidate.usedAmount() + sum(node.left) + sum(node.right);
+            return node;
+        }
+
+        private static long sum(Node node) {
+            return node == null ? 0 : node.sum;
+        }
+
+        // funds taken by all assigned candidates
+        private long total() {
+            return sum(root);
+        }
+
+        // funds taken by the assigned candidates before the given one
+        private long sumBefore(Candidate candidate) {
+            long sum = 0;
+            for (Node node = root; node != null; ) {
+                if (CANDIDATE_ORDER.compare(node.candidate, candidate) < 0) {
+                    sum += sum(node.left) + node.candidate.usedAmount();
+                    node = node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return sum;
+        }
+
+        // first assigned candidate after the given one, null if there is none
+        private Candidate higher(Candidate candidate) {
+            Candidate higher = null;
+            for (Node node = root; node != null; ) {
+                if (CANDIDATE_ORDER.compare(node.candidate, candidate) > 0) {
+                    higher = node.candidate;
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+            return higher;
+        }
+
+        // first assigned candidate after which the funds taken exceed the given amount, null if there is none
+        private Candidate firstExceeding(long amount) {
+            long sum = 0;
+            for (Node node = root; node != null; ) {
+                if (sum + sum(node.left) > amount) {
+                    node = node.left;
+                } else if (sum + sum(node.left) + node.candidate.usedAmount() > amount) {
+                    return node.candidate;
+                } else {
+                    sum += sum(node.left) + node.candidate.usedAmount();
+                    node = node.right;
+                }
+            }
+            return null;
+        }
+    }
+
+    public IncrementalEngine(List<PaymentMethod> paymentMethods) {
+        this.points = new boolean[paymentMethods.size()];
+        this.discounts = new long[paymentMethods.size()];
+        this.limits = new long[paymentMethods.size()];
+        this.spent = new long[paymentMethods.size()];
+        for (int methodIndex = 0; methodIndex < paymentMethods.size(); methodIndex++) {
+            PaymentMethod paymentMethod = paymentMethods.get(methodIndex);
+            if (methodIndices.putIfAbsent(paymentMethod.getId(), methodIndex) != null)
+                throw new IllegalArgumentException("Duplicate payment method " + paymentMethod.getId());
+            methodIds.add(paymentMethod.getId());
+            points[methodIndex] = paymentMethod.getId().equalsIgnoreCase("PUNKTY");
+            discounts[methodIndex] = paymentMethod.getDiscountBasisPoints();
+            limits[methodIndex] = paymentMethod.getMinorLimit();
+            methodCandidates.add(new TreeSet<>(CANDIDATE_ORDER));
+            assignedCandidates.add(new AssignedTree());
+        }
+        this.ledger = new FundsLedger(paymentMethods);
+    }
+
+    // method creating an engine with all orders and payment methods read by a JsonFileReader, settled with resettleAll()
+    public static IncrementalEngine of(JsonFileReader jsonFileReader) {
+        IncrementalEngine engine = new IncrementalEngine(jsonFileReader.getPaymentMethods());
+        OrderStore orderStore = jsonFileReader.getOrderStore();
+        for (int order = 0; order < orderStore.size(); order++) {
+            List<String> promotions = new ArrayList<>();
+            for (int k = orderStore.promotionsStart(order); k < orderStore.promotionsEnd(order); k++) {
+                promotions.add(orderStore.getPromotionId(orderStore.getPromotion(k)));
+            }
+            OrderEntry entry = engine.newOrder(orderStore.getId(order), orderStore.getValue(order), promotions);
+            engine.insert(entry);
+            entry.candidates.forEach(engine::addCandidate);
+        }
+        engine.resettleAll();
+        return engine;
+    }
+
+    // method adding an order with its value in grosze
+    public void addOrder(String id, long value, List<String> promotions) {
+        Change change = new Change();
+        change.addedOrder = newOrder(id, value, promotions);
+        change.added.addAll(change.addedOrder.candidates);
+        settle(change);
+    }
+
+    // method removing an order
+    public void removeOrder(String id) {
+        OrderEntry order = orders.get(id);
+        if (order == null)
+            throw new IllegalArgumentException("No order " + id);
+        Change change = new Change();
+        change.removedOrder = order;
+        change.removed.addAll(order.candidates);
+        settle(change);
+    }
+
+    // method changing the limit of a payment method in grosze, which changes its candidates and, for payment methods
+    // other than "PUNKTY", the funds partial payments can use
+    public void changeLimit(String methodId, long limit) {
+        int method = methodIndex(methodId);
+        long previous = limits[method];
+        limits[method] = limit;
+        Change change = replacement(method);
+        limits[method] = previous;
+
+        change.limitMethod = method;
+        change.limit = limit;
+        settle(change);
+    }
+
+    // method changing the discount of a payment method in basis points, which changes its candidates
+    public void changeDiscount(String methodId, long discount) {
+        int method = methodIndex(methodId);
+        long previous = discounts[method];
+        discounts[method] = discount;
+        Change change = replacement(method);
+        discounts[method] = previous;
+
+        change.discountMethod = method;
+        change.discount = discount;
+        settle(change);
+    }
+
+    // method releasing all orders and paying for them again like GreedySolver, going through all candidates
+    public void resettleAll() {
+        for (OrderEntry order : leftoverOrders.values()) {
+            release(order);
+        }
+        leftoverOrders.clear();
+        failedOrder = null;
+        for (OrderEntry order : ordersBySlot.values()) {
+            if (order.candidate != null)
+                release(order);
+        }
+
+        TreeSet<Candidate> candidates = new TreeSet<>(CANDIDATE_ORDER);
+        methodCandidates.forEach(candidates::addAll);
+        for (Candidate candidate : candidates) {
+            OrderEntry order = candidate.order();
+            if (!order.paid && GreedySolver.fits(ledger, candidate.type(), candidate.method(), order.value,
+                    candidate.usedAmount(), candidate.discount()))
+                assign(order, candidate);
+        }
+        payLeftoverOrders(0);
+    }
+
+    private int methodIndex(String methodId) {
+        Integer method = methodIndices.get(methodId);
+        if (method == null)
+            throw new IllegalArgumentException("No payment method " + methodId);
+        return method;
+    }
+
+    // method creating an order with its candidates, without adding it to the engine yet
+    private OrderEntry newOrder(String id, long value, List<String> promotions) {
+        if (orders.containsKey(id))
+            throw new IllegalArgumentException("Order " + id + " already exists");
+        OrderEntry order = new OrderEntry(id, nextSlot++, value, promotions.stream().distinct().toList());
+        maxValue = Math.max(maxValue, value);
+        for (int method = 0; method < limits.length; method++) {
+            Candidate candidate = points[method] || order.promotions.contains(methodIds.get(method))
+                    ? generate(method, order) : null;
+            if (candidate != null)
+                order.candidates.add(candidate);
+        }
+        return order;
+    }
+
+    private void insert(OrderEntry order) {
+        orders.put(order.id, order);
+        ordersBySlot.put(order.slot, order);
+        for (String promotion : order.promotions) {
+            ordersByPromotion.computeIfAbsent(promotion, k -> new TreeMap<>()).put(order.slot, order);
+        }
+        if (order.candidate == null)
+            unassignedOrders.put(order.slot, order);
+    }
+
+    private void remove(OrderEntry order) {
+        orders.remove(order.id);
+        ordersBySlot.remove(order.slot);
+        for (String promotion : order.promotions) {
+            ordersByPromotion.get(promotion).remove(order.slot);
+        }
+        unassignedOrders.remove(order.slot);
+    }
+
+    private void addCandidate(Candidate candidate) {
+        methodCandidates.get(candidate.method()).add(candidate);
+        if (candidate.type() == AssignmentType.PARTIAL)
+            partialsByRest.computeIfAbsent(candidate.rest(), k -> new ArrayList<>()).add(candidate);
+    }
+
+    private void removeCandidate(Candidate candidate) {
+        methodCandidates.get(candidate.method()).remove(candidate);
+        if (candidate.type() == AssignmentType.PARTIAL) {
+            ArrayList<Candidate> partials = partialsByRest.get(candidate.rest());
+            partials.remove(candidate);
+            if (partials.isEmpty())
+                partialsByRest.remove(candidate.rest());
+        }
+    }
+
+    // orders that can use a payment method in the order of adding them: all of them for "PUNKTY", otherwise the ones
+    // with its promotion
+    private Collection<OrderEntry> ordersOf(int method) {
+        if (points[method])
+            return ordersBySlot.values();
+        TreeMap<Integer, OrderEntry> promotionOrders = ordersByPromotion.get(methodIds.get(method));
+        return promotionOrders == null ? List.of() : promotionOrders.values();
+    }
+
+    // method calculating the candidate of a payment method for an order with its current limit and discount, exactly
+    // like CandidateGenerator, null if there is none
+    private Candidate generate(int method, OrderEntry order) {
+        long limit = limits[method];
+
+        // if there are enough funds to pay fully for this order
+        if (order.value <= limit) {
+            long discount = Money.percentOf(order.value, discounts[method]);
+            return new Candidate(order, method, points[method] ? AssignmentType.POINTS : AssignmentType.CARD,
+                    order.value - discount, discount);
+
+            // if there are enough points to qualify for a 10% discount for paying partially with them
+        } else if (points[method] && limit >= Money.minimumShare(order.value, CandidateGenerator.POINTS_SHARE)) {
+            return new Candidate(order, method, AssignmentType.PARTIAL,
+                    Money.minimumShare(order.value, CandidateGenerator.POINTS_SHARE),
+                    Money.percentOf(order.value, CandidateGenerator.POINTS_SHARE));
+        }
+        return null;
+    }
+
+    // method creating the change replacing the candidates of a payment method with the ones calculated with its
+    // current limit and discount, candidates equal to the ones before are kept
+    private Change replacement(int method) {
+        Change change = new Change();
+        for (OrderEntry order : ordersOf(method)) {
+            Candidate current = null;
+            for (Candidate candidate : order.candidates) {
+                if (candidate.method() == method)
+                    current = candidate;
+            }
+            Candidate generated = generate(method, order);
+            if (Objects.equals(current, generated))
+                continue;
+            if (current != null)
+                change.removed.add(current);
+            if (generated != null)
+                change.added.add(generated);
+        }
+        return change;
+    }
+
+    // method making a change and assigning the candidates again with the rules of GreedySolver, followed by the
+    // leftover pass. The candidates are visited in order, comparing the funds every payment method has left before
+    // them with the ones it had before the change, kept as their difference
+    private void settle(Change change) {
+        change.added.forEach(this::addCandidate);
+
+        long[] differences = new long[limits.length];
+        HashMap<OrderEntry, Candidate> reassigned = new HashMap<>();
+
+        // candidates to visit: the ones added or removed, sorted, the next candidate of every payment method left with
+        // different funds whose assignment can change, and the ones queued on the way, the same candidate can be
+        // held by more than one of them
+        ArrayList<Candidate> changed = new ArrayList<>(change.added);
+        changed.addAll(change.removed);
+        changed.add(FIRST_PARTIAL);
+        changed.sort(CANDIDATE_ORDER);
+        int nextChanged = 0;
+        Candidate[] nextOfMethod = new Candidate[limits.length];
+        TreeSet<Candidate> queued = new TreeSet<>(CANDIDATE_ORDER);
+        if (change.limitMethod >= 0 && change.limit != limits[change.limitMethod]) {
+            differences[change.limitMethod] = change.limit - limits[change.limitMethod];
+            nextOfMethod[change.limitMethod] = nextToVisit(change.limitMethod, null, differences[change.limitMethod]);
+        }
+
+        // funds the payment methods except "PUNKTY" had left for the partial payments before the change, and the
+        // difference after it, known once all payments by card were visited
+        long otherFunds = 0;
+        long otherDifference = 0;
+        while (true) {
+            Candidate candidate = nextChanged < changed.size() ? changed.get(nextChanged) : null;
+            candidate = earliest(candidate, queued.isEmpty() ? null : queued.first());
+            for (Candidate next : nextOfMethod) {
+                candidate = earliest(candidate, next);
+            }
+            if (candidate == null)
+                break;
+            if (nextChanged < changed.size() && changed.get(nextChanged) == candidate)
+                nextChanged++;
+            if (!queued.isEmpty() && queued.first() == candidate)
+                queued.pollFirst();
+
+            if (candidate == FIRST_PARTIAL) {
+                for (int method = 0; method < limits.length; method++) {
+                    if (method != ledger.getPointsIndex()) {
+                        otherFunds += limits[method] - assignedCandidates.get(method).total();
+                        otherDifference += differences[method];
+                    }
+                }
+                if (otherDifference != 0) {
+                    long low = Math.min(otherFunds, otherFunds + otherDifference);
+                    long high = Math.max(otherFunds, otherFunds + otherDifference);
+                    partialsByRest.subMap(low, false, high, true).values().forEach(queued::addAll);
+                }
+                continue;
+            }
+
+            // the order is paid before this candidate by the candidate assigned to it now, or as before the change if
+            // none of its candidates was visited with a different outcome
+            OrderEntry order = candidate.order();
+            int method = candidate.method();
+            nextOfMethod[method] = null;
+            boolean paid = reassigned.containsKey(order) ? reassigned.get(order) != null
+                    : order.candidate != null && CANDIDATE_ORDER.compare(order.candidate, candidate) < 0;
+            boolean before = candidate == order.candidate;
+            long remaining = limits[method] - assignedCandidates.get(method).sumBefore(candidate) + differences[method];
+            boolean after = !paid && !change.removed.contains(candidate) && GreedySolver.fits(remaining,
+                    otherFunds + otherDifference, candidate.type(), order.value, candidate.usedAmount(), candidate.discount());
+
+            if (after != before) {
+                differences[method] += before ? candidate.usedAmount() : -candidate.usedAmount();
+                if (after)
+                    reassigned.put(order, candidate);
+                else
+                    reassigned.putIfAbsent(order, null);
+                for (Candidate next : order.candidates) {
+                    if (CANDIDATE_ORDER.compare(next, candidate) > 0)
+                        queued.add(next);
+                }
+            }
+            nextOfMethod[method] = nextToVisit(method, candidate, differences[method]);
+        }
+
+        // the leftover pass is repeated from the first order that joins or leaves it, or from the start if the funds
+        // left for it changed. It stays as it was if it stopped at an order before that
+        int from = Integer.MAX_VALUE;
+        for (long difference : differences) {
+            if (difference != 0)
+                from = 0;
+        }
+        for (Map.Entry<OrderEntry, Candidate> entry : reassigned.entrySet()) {
+            if ((entry.getKey().candidate == null) != (entry.getValue() == null))
+                from = Math.min(from, entry.getKey().slot);
+        }
+        if (change.addedOrder != null)
+            from = Math.min(from, change.addedOrder.slot);
+        if (change.removedOrder != null)
+            from = Math.min(from, change.removedOrder.slot);
+        boolean stopped = failedOrder != null && failedOrder.slot < from;
+        if (!stopped) {
+            SortedMap<Integer, OrderEntry> released = leftoverOrders.tailMap(from);
+            for (OrderEntry order : released.values()) {
+                release(order);
+            }
+            released.clear();
+            failedOrder = null;
+        }
+
+        for (OrderEntry order : reassigned.keySet()) {
+            if (order.candidate != null)
+                release(order);
+        }
+        for (Map.Entry<OrderEntry, Candidate> entry : reassigned.entrySet()) {
+            if (entry.getValue() != null)
+                assign(entry.getKey(), entry.getValue());
+        }
+
+        for (Candidate candidate : change.removed) {
+            removeCandidate(candidate);
+            candidate.order().candidates.remove(candidate);
+        }
+        for (Candidate candidate : change.added) {
+            if (candidate.order() != change.addedOrder)
+                candidate.order().candidates.add(candidate);
+        }
+        if (change.limitMethod >= 0) {
+            limits[change.limitMethod] = change.limit;
+            ledger.setLimit(change.limitMethod, change.limit - spent[change.limitMethod]);
+        }
+        if (change.discountMethod >= 0)
+            discounts[change.discountMethod] = change.discount;
+        if (change.addedOrder != null)
+            insert(change.addedOrder);
+        if (change.removedOrder != null)
+            remove(change.removedOrder);
+
+        if (!stopped)
+            payLeftoverOrders(from);
+    }
+
+    // method finding the first candidate of a payment method after the given one, or after none for null, whose
+    // assignment can change when the payment method has the given difference of funds before it, null if there is
+    // none. With fewer funds only an assigned candidate can lose its assignment, the first one leaving less funds than
+    // the difference. With more funds only a candidate that did not fit can be assigned, which needs the funds left
+    // before it to be lower than the highest value of an order. Other candidates change only together with their order
+    private Candidate nextToVisit(int method, Candidate candidate, long difference) {
+        AssignedTree methodAssigned = assignedCandidates.get(method);
+        if (difference < 0) {
+            Candidate first = methodAssigned.firstExceeding(limits[method] + difference);
+            if (first == null || candidate == null || CANDIDATE_ORDER.compare(first, candidate) > 0)
+                return first;
+            return methodAssigned.higher(candidate);
+        }
+        if (difference > 0) {
+            TreeSet<Candidate> candidates = methodCandidates.get(method);
+            if (limits[method] >= maxValue) {
+                Candidate first = methodAssigned.firstExceeding(limits[method] - maxValue);
+                if (first == null)
+                    return null;
+                if (candidate == null || CANDIDATE_ORDER.compare(first, candidate) > 0)
+                    candidate = first;
+            }
+            if (candidate == null)
+                return candidates.isEmpty() ? null : candidates.first();
+            return candidates.higher(candidate);
+        }
+        return null;
+    }
+
+    private static Candidate earliest(Candidate first, Candidate second) {
+        if (first == null)
+            return second;
+        if (second == null)
+            return first;
+        return CANDIDATE_ORDER.compare(first, second) <= 0 ? first : second;
+    }
+
+    private void assign(OrderEntry order, Candidate candidate) {
+        long[] amounts = new long[limits.length];
+        amounts[candidate.method()] = candidate.usedAmount();
+        ledger.setLimit(candidate.method(), ledger.getLimit(candidate.method()) - candidate.usedAmount());
+        spent[candidate.method()] += candidate.usedAmount();
+        order.candidate = candidate;
+        assignedCandidates.get(candidate.method()).add(candidate);
+        unassignedOrders.remove(order.slot);
+        markPaid(order, candidate.type(), candidate.discount(), amounts);
+    }
+
+    // method paying for the orders no candidate is assigned to with GreedySolver.payLeftover(), in the order of adding
+    // them from the given position, stops at the first order that cannot be paid fully after paying for a part of it
+    private void payLeftoverOrders(int from) {
+        long[] amounts = new long[limits.length];
+        for (OrderEntry order : unassignedOrders.tailMap(from).values()) {
+            long discount = GreedySolver.payLeftover(ledger, order.value, amounts);
+            if (discount == GreedySolver.NOT_COVERED)
+                continue;
+            for (int method = 0; method < amounts.length; method++) {
+                spent[method] += amounts[method];
+            }
+            leftoverOrders.put(order.slot, order);
+            if (discount == GreedySolver.FAILED) {
+                order.amounts = amounts;
+                failedOrder = order;
+                return;
+            }
+            markPaid(order, discount > 0 ? AssignmentType.PARTIAL : null, discount, amounts);
+            amounts = new long[limits.length];
+        }
+    }
+
+    private void markPaid(OrderEntry order, AssignmentType type, long discount, long[] amounts) {
+        order.paid = true;
+        order.type = type;
+        order.discount = discount;
+        order.amounts = amounts;
+        totalDiscount += discount;
+    }
+
+    // method giving the funds taken for an order back to the payment methods
+    private void release(OrderEntry order) {
+        if (order.amounts != null) {
+            for (int method = 0; method < order.amounts.length; method++) {
+                if (order.amounts[method] > 0) {
+                    ledger.setLimit(method, ledger.getLimit(method) + order.amounts[method]);
+                    spent[method] -= order.amounts[method];
+                }
+            }
+        }
+        if (order.candidate != null) {
+            assignedCandidates.get(order.candidate.method()).remove(order.candidate);
+            unassignedOrders.put(order.slot, order);
+        }
+        totalDiscount -= order.discount;
+        order.paid = false;
+        order.candidate = null;
+        order.type = null;
+        order.discount = 0;
+        order.amounts = null;
+    }
+
+    // getters for the current state, amounts are in grosze
+    public long getSpent(String methodId) {
+        return spent[methodIndex(methodId)];
+    }
+
+    public long getRemainingLimit(String methodId) {
+        return ledger.getLimit(methodIndex(methodId));
+    }
+
+    public long getTotalDiscount() {
+        return totalDiscount;
+    }
+
+    public boolean isPaid(String orderId) {
+        OrderEntry order = orders.get(orderId);
+        return order != null && order.paid;
+    }
+
+    // type of the payment chosen for an order, null if it is not paid or paid without a discount
+    public AssignmentType getAssignmentType(String orderId) {
+        OrderEntry order = orders.get(orderId);
+        return order == null ? null : order.type;
+    }
+
+    // whether all orders are paid, which is the case when the leftover pass paid for every order it visited
+    public boolean allPaid() {
+        return failedOrder == null && leftoverOrders.size() == unassignedOrders.size();
+    }
+
+    // funds spent with every payment method in grosze, in the order of the payment methods
+    public LinkedHashMap<String, Long> getCosts() {
+        LinkedHashMap<String, Long> costs = new LinkedHashMap<>();
+        for (int method = 0; method < methodIds.size(); method++) {
+            costs.put(methodIds.get(method), spent[method]);
+        }
+        return costs;
+    }
+}
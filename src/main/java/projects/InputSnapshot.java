@@ -0,0 +1,133 @@
+package projects;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// class storing parsed input that never changes after it is created, so that one snapshot can be shared by many
+// calculations running at the same time: the OrderStore and the payment methods with their limits and discounts
+// in grosze and basis points. Variants with a different limit or discount share the OrderStore with the original
+public final class InputSnapshot {
+
+    private final OrderStore orderStore;
+
+    // ids of the payment methods, limits and discounts are indexed like the list of payment methods they were read from
+    private final MethodDictionary dictionary;
+    private final long[] limits;
+    private final long[] discounts;
+
+    // index of the promotion of every payment method in the OrderStore, -1 if no order has it
+    private final int[] promotions;
+
+    private InputSnapshot(OrderStore orderStore, MethodDictionary dictionary, long[] limits, long[] discounts, int[] promotions) {
+        this.orderStore = orderStore;
+        this.dictionary = dictionary;
+        this.limits = limits;
+        this.discounts = discounts;
+        this.promotions = promotions;
+    }
+
+    private static InputSnapshot create(OrderStore orderStore, String[] methodIds, long[] limits, long[] discounts) {
+        int[] promotions = new int[methodIds.length];
+        for (int methodIndex = 0; methodIndex < methodIds.length; methodIndex++) {
+            promotions[methodIndex] = orderStore.indexOfPromotion(methodIds[methodIndex]);
+        }
+        return new InputSnapshot(orderStore, new MethodDictionary(methodIds), limits, discounts, promotions);
+    }
+
+    // method copying the current limits and discounts of the payment methods, later changes to them are not seen
+    public static InputSnapshot of(OrderStore orderStore, List<PaymentMethod> paymentMethods) {
+        String[] methodIds = new String[paymentMethods.size()];
+        long[] limits = new long[paymentMethods.size()];
+        long[] discounts = new long[paymentMethods.size()];
+        for (int methodIndex = 0; methodIndex < methodIds.length; methodIndex++) {
+            PaymentMethod paymentMethod = paymentMethods.get(methodIndex);
+            methodIds[methodIndex] = paymentMethod.getId();
+            limits[methodIndex] = paymentMethod.getMinorLimit();
+            discounts[methodIndex] = paymentMethod.getDiscountBasisPoints();
+        }
+        return create(orderStore, methodIds, limits, discounts);
+    }
+
+    // method creating a snapshot from limits in grosze and discounts in basis points, indexed like the ids
+    static InputSnapshot of(OrderStore orderStore, String[] methodIds, long[] limits, long[] discounts) {
+        return create(orderStore, methodIds, limits.clone(), discounts.clone());
+    }
+
+    public static InputSnapshot of(JsonFileReader jsonFileReader) {
+        return of(jsonFileReader.getOrderStore(), jsonFileReader.getPaymentMethods());
+    }
+
+    public OrderStore getOrderStore() {
+        return orderStore;
+    }
+
+    public MethodDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public int getMethodCount() {
+        return dictionary.getMethodCount();
+    }
+
+    public String getMethodId(int method) {
+        return dictionary.getMethodId(method);
+    }
+
+    // whether assignments of a payment method are generated for all orders as points
+    public boolean isPoints(int method) {
+        return dictionary.isPoints(method);
+    }
+
+    // index of the promotion of a payment method in the OrderStore, -1 if no order has it
+    public int getPromotion(int method) {
+        return promotions[method];
+    }
+
+    // limit of a payment method in grosze
+    public long getLimit(int method) {
+        return limits[method];
+    }
+
+    // discount of a payment method in basis points
+    public long getDiscount(int method) {
+        return discounts[method];
+    }
+
+    // returns the index of a payment method or -1 if there is no such payment method
+    public int indexOfMethod(String methodId) {
+        return dictionary.indexOfMethod(methodId);
+    }
+
+    // method returning a copy of the limits of all payment methods
+    public long[] getLimits() {
+        return limits.clone();
+    }
+
+    // method creating a snapshot with a different limit of one payment method, sharing everything else
+    public InputSnapshot withLimit(int method, long limit) {
+        long[] newLimits = limits.clone();
+        newLimits[method] = limit;
+        return new InputSnapshot(orderStore, dictionary, newLimits, discounts, promotions);
+    }
+
+    // method creating a snapshot with a different discount of one payment method, sharing everything else
+    public InputSnapshot withDiscount(int method, long discount) {
+        long[] newDiscounts = discounts.clone();
+        newDiscounts[method] = discount;
+        return new InputSnapshot(orderStore, dictionary, limits, newDiscounts, promotions);
+    }
+
+    // method creating new PaymentMethod objects with the limits and discounts of the snapshot, for code that changes them
+    public ArrayList<PaymentMethod> toPaymentMethods() {
+        ArrayList<PaymentMethod> paymentMethods = new ArrayList<>();
+        for (int methodIndex = 0; methodIndex < limits.length; methodIndex++) {
+            paymentMethods.add(PaymentMethod.of(getMethodId(methodIndex), discounts[methodIndex], limits[methodIndex]));
+        }
+        return paymentMethods;
+    }
+
+    @Override
+    public String toString() {
+        return "InputSnapshot[orders=" + orderStore.size() + ", methods=" + dictionary + "]";
+    }
+}
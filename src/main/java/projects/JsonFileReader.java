@@ -1,49 +1,150 @@
 package projects;
 
 import jakarta.json.*;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParsingException;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 // class to read data from files
 public class JsonFileReader {
 
-    // ArrayList to store orders
-    ArrayList<Order> orders;
-
     // ArrayList to store payment methods
     ArrayList<PaymentMethod> paymentMethods;
 
-    // HashMap for storing orders with promotions as keys
-    HashMap<String, ArrayList<Order>> ordersByPromotion;
-
     // HashMap for storing payment methods with IDs as keys
     HashMap<String, PaymentMethod> paymentMethodsById;
 
+    // builder of the columnar store of the orders, filled as the orders are read
+    OrderStore.Builder orderStoreBuilder;
+
+    // columnar store of the orders, the only copy of them kept by the reader, built on the first call to getOrderStore()
+    OrderStore orderStore;
+
+    // Order objects and orders with promotions as keys, created from the OrderStore only on the first call to
+    // getOrders() or getOrdersByPromotion(), as the optimizer itself never uses them
+    ArrayList<Order> orders;
+    HashMap<String, ArrayList<Order>> ordersByPromotion;
+
+    // "id" of the JSON object read by fromJson(), null if it had none or the data was read from files
+    String id;
+
+    // interface for receiving orders as they are read from a file
+    @FunctionalInterface
+    interface OrderConsumer {
+        void accept(String id, String value, List<String> promotions);
+    }
+
     public JsonFileReader(String ordersPath, String paymentMethodsPath) {
-        readOrders(ordersPath);
+        this(ordersPath, paymentMethodsPath, true);
+    }
+
+    // streaming decides whether orders are read event by event with JsonParser (default) or as a whole JsonArray
+    public JsonFileReader(String ordersPath, String paymentMethodsPath, boolean streaming) {
+        PipelineMetrics.Stopwatch stopwatch = PipelineMetrics.stopwatch();
+        if (streaming)
+            readOrdersStreaming(ordersPath);
+        else
+            readOrders(ordersPath);
         readPaymentMethods(paymentMethodsPath);
+        stopwatch.lap(PipelineMetrics.Phase.READ);
+    }
+
+    // constructor used by fromJson() and readPaymentMethodsFile(), collections are filled by the caller
+    private JsonFileReader() {
+        orderStoreBuilder = new OrderStore.Builder();
+        paymentMethods = new ArrayList<>();
+        paymentMethodsById = new HashMap<>();
+    }
+
+    // method reading orders and payment methods from a single JSON object with the same arrays as the files, under
+    // "orders" and "paymentMethods" keys, such as the body of a request sent to OptimizerServer
+    public static JsonFileReader fromJson(InputStream inputStream) {
+        PipelineMetrics.Stopwatch stopwatch = PipelineMetrics.stopwatch();
+        JsonFileReader jsonFileReader = new JsonFileReader();
+        boolean hasOrders = false;
+        boolean hasPaymentMethods = false;
+
+        try (JsonParser jsonParser = Json.createParser(inputStream)) {
+            if (!jsonParser.hasNext() || jsonParser.next() != JsonParser.Event.START_OBJECT)
+                throw new JsonParsingException("Input must contain a JSON object!", jsonParser.getLocation());
+
+            JsonParser.Event event;
+            while ((event = jsonParser.next()) != JsonParser.Event.END_OBJECT) {
+                String key = jsonParser.getString();
+                event = jsonParser.next();
+
+                switch (key) {
+                    case "orders" -> {
+                        if (event != JsonParser.Event.START_ARRAY)
+                            throw new JsonParsingException("Orders must be a JSON array!", jsonParser.getLocation());
+                        streamOrderArray(jsonParser, jsonFileReader::addOrder);
+                        hasOrders = true;
+                    }
+                    case "paymentMethods" -> {
+                        if (event != JsonParser.Event.START_ARRAY)
+                            throw new JsonParsingException("Payment methods must be a JSON array!", jsonParser.getLocation());
+                        for (JsonValue jsonValue : jsonParser.getArray()) {
+                            jsonFileReader.addPaymentMethod(jsonValue.asJsonObject());
+                        }
+                        hasPaymentMethods = true;
+                    }
+                    case "id" -> {
+                        if (event != JsonParser.Event.VALUE_STRING)
+                            throw new JsonParsingException("Id must be a JSON string!", jsonParser.getLocation());
+                        jsonFileReader.id = jsonParser.getString();
+                    }
+                    default -> skipValue(jsonParser, event);
+                }
+            }
+
+            if (!hasOrders || !hasPaymentMethods)
+                throw new JsonParsingException("Input must contain both orders and paymentMethods!", jsonParser.getLocation());
+        }
+        stopwatch.lap(PipelineMetrics.Phase.READ);
+        return jsonFileReader;
+    }
+
+    // method reading the orders file with ChunkedOrdersReader on the threads of the pool, for files too large to be
+    // parsed quickly by a single thread, the result is the same as the one of the constructor
+    public static JsonFileReader readParallel(String ordersPath, String paymentMethodsPath, ForkJoinPool pool) {
+        checkFileExtension(ordersPath);
+        PipelineMetrics.Stopwatch stopwatch = PipelineMetrics.stopwatch();
+        JsonFileReader jsonFileReader = new JsonFileReader();
+        new ChunkedOrdersReader(pool).read(ordersPath, jsonFileReader::addOrder);
+        jsonFileReader.readPaymentMethods(paymentMethodsPath);
+        stopwatch.lap(PipelineMetrics.Phase.READ);
+        return jsonFileReader;
+    }
+
+    // method reading only a payment methods file, such as a variant of the payment methods for ScenarioRunner
+    public static ArrayList<PaymentMethod> readPaymentMethodsFile(String path) {
+        JsonFileReader jsonFileReader = new JsonFileReader();
+        jsonFileReader.readPaymentMethods(path);
+        return jsonFileReader.getPaymentMethods();
     }
 
     // method checking whether a file is a .json file
-    private void checkFileExtension(String path) {
+    private static void checkFileExtension(String path) {
         if (!path.endsWith(".json")) {
             throw new IllegalArgumentException("Wrong file type! File must have .json extension!");
         }
     }
 
-    // method for reading orders and returning them as an ArrayList
+    // method for reading orders by materializing the whole file as a JsonArray, kept as a fallback for the streaming reader
     private void readOrders(String path) {
 
         // checking whether the file has the correct extension
         checkFileExtension(path);
 
-        orders = new ArrayList<>();
-        ordersByPromotion = new HashMap<>();
+        orderStoreBuilder = new OrderStore.Builder();
 
         try (FileInputStream fileInputStream = new FileInputStream(path)) {
 
@@ -60,7 +161,7 @@ public class JsonFileReader {
                 // retrieve the content of the element and store it in variables, remove quotation marks for Strings
                 String id = jsonObject.getString("id").replace("\"", "");
 
-                double value = Double.parseDouble(jsonObject.getString("value"));
+                String value = jsonObject.getString("value");
 
                 JsonArray promotionsArray = jsonObject.getJsonArray("promotions");
 
@@ -73,23 +174,51 @@ public class JsonFileReader {
                     }
                 }
 
-                // add "PUNKTY" to each list
-                promotions.add("PUNKTY");
+                addOrder(id, value, promotions);
+            }
+            // exception handling for FileNotFoundException and IOException
+        } catch (FileNotFoundException fileNotFoundException) {
+            throw new RuntimeException("File not found: " + fileNotFoundException.getMessage(), fileNotFoundException);
+        } catch (IOException ioException) {
+            System.err.println(ioException.getMessage());
+        }
+    }
 
-                // create an Order object with retrieved data and add it to the ArrayList
-                Order order = new Order(id, value);
-                orders.add(order);
+    // method for reading orders one JsonParser event at a time, so that no JsonArray of the whole file is ever built
+    private void readOrdersStreaming(String path) {
+        orderStoreBuilder = new OrderStore.Builder();
 
-                // for every promotion available for a given order
-                for (String x : promotions) {
+        streamOrders(path, this::addOrder);
+    }
 
-                    // add new ArrayList if there is no ArrayList corresponding to the order's promotion
-                    ordersByPromotion.putIfAbsent(x, new ArrayList<>());
+    // method for reading only the columnar copy of the orders, without creating any Order objects
+    public static OrderStore readOrderStore(String path) {
+        OrderStore.Builder builder = new OrderStore.Builder();
+        streamOrders(path, (id, value, promotions) -> builder.add(id, Money.parse(value), promotions));
+        return builder.build();
+    }
+
+    // method for reading only the columnar copy of the orders on the threads of the pool
+    public static OrderStore readOrderStoreParallel(String path, ForkJoinPool pool) {
+        checkFileExtension(path);
+        return new ChunkedOrdersReader(pool).readOrderStore(path);
+    }
+
+    // method parsing an orders file with JsonParser and passing every order to the consumer as soon as it is read
+    private static void streamOrders(String path, OrderConsumer consumer) {
+
+        // checking whether the file has the correct extension
+        checkFileExtension(path);
+
+        try (FileInputStream fileInputStream = new FileInputStream(path);
+             JsonParser jsonParser = Json.createParser(fileInputStream)) {
+
+            // the file must contain a top-level array of orders
+            if (!jsonParser.hasNext() || jsonParser.next() != JsonParser.Event.START_ARRAY)
+                throw new JsonParsingException("Orders file must contain a JSON array!", jsonParser.getLocation());
+
+            streamOrderArray(jsonParser, consumer);
 
-                    // add an Order object to the ArrayList in a HashMap corresponding to the order's promotion
-                    ordersByPromotion.get(x).add(order);
-                }
-            }
             // exception handling for FileNotFoundException and IOException
         } catch (FileNotFoundException fileNotFoundException) {
             throw new RuntimeException("File not found: " + fileNotFoundException.getMessage(), fileNotFoundException);
@@ -98,6 +227,67 @@ public class JsonFileReader {
         }
     }
 
+    // method reading orders from a parser positioned just after the start of an array, until the end of that array
+    static void streamOrderArray(JsonParser jsonParser, OrderConsumer consumer) {
+
+        // list of promotions reused for every order, as consumers do not keep a reference to it
+        List<String> promotions = new ArrayList<>();
+
+        while (jsonParser.hasNext()) {
+            JsonParser.Event event = jsonParser.next();
+
+            // end of the array
+            if (event == JsonParser.Event.END_ARRAY)
+                break;
+
+            if (event != JsonParser.Event.START_OBJECT)
+                throw new JsonParsingException("Every order must be a JSON object!", jsonParser.getLocation());
+
+            String id = null;
+            String value = null;
+            promotions.clear();
+
+            // read the fields of a single order until the end of its object
+            while ((event = jsonParser.next()) != JsonParser.Event.END_OBJECT) {
+                String key = jsonParser.getString();
+                event = jsonParser.next();
+
+                switch (key) {
+                    case "id" -> id = jsonParser.getString();
+                    case "value" -> value = jsonParser.getString();
+                    case "promotions" -> {
+
+                        // promotions may be missing, null or an array of Strings
+                        if (event == JsonParser.Event.START_ARRAY) {
+                            while (jsonParser.next() != JsonParser.Event.END_ARRAY) {
+                                promotions.add(jsonParser.getString());
+                            }
+                        }
+                    }
+                    default -> skipValue(jsonParser, event);
+                }
+            }
+
+            if (id == null || value == null)
+                throw new JsonParsingException("Every order must have an id and a value!", jsonParser.getLocation());
+
+            consumer.accept(id, value, promotions);
+        }
+    }
+
+    // method skipping the value of a field that is not used by the program
+    private static void skipValue(JsonParser jsonParser, JsonParser.Event event) {
+        if (event == JsonParser.Event.START_OBJECT)
+            jsonParser.skipObject();
+        else if (event == JsonParser.Event.START_ARRAY)
+            jsonParser.skipArray();
+    }
+
+    // method adding an order to the columnar store, "PUNKTY" is not stored as it is available for every order
+    private void addOrder(String id, String value, List<String> promotions) {
+        orderStoreBuilder.add(id, Money.parse(value), promotions);
+    }
+
     // method for reading payment methods and returning them as a HashMap for easy searching by id
     private void readPaymentMethods(String path) {
 
@@ -115,25 +305,7 @@ public class JsonFileReader {
             JsonArray jsonArray = jsonReader.readArray();
 
             for (JsonValue jsonValue : jsonArray) {
-
-                // store an element of the array contents as JsonObject
-                JsonObject jsonObject = jsonValue.asJsonObject();
-
-                // retrieve the content of the element and store it in variables, remove quotation marks for Strings
-                String id = jsonObject.getString("id").replace("\"", "");
-
-                double discount = Double.parseDouble(jsonObject.getString("discount"));
-
-                double limit = Double.parseDouble(jsonObject.getString("limit"));
-
-                // create a PaymentMethod object with retrieved data
-                PaymentMethod paymentMethod = new PaymentMethod(id, discount, limit);
-
-                // add a created PaymentMethod object to the HashMap with the id as a key
-                paymentMethods.add(paymentMethod);
-
-                paymentMethodsById.put(id, paymentMethod);
-
+                addPaymentMethod(jsonValue.asJsonObject());
             }
 
             // exception handling for FileNotFoundException and IOException
@@ -144,8 +316,36 @@ public class JsonFileReader {
         }
     }
 
+    // method adding a payment method read as JsonObject to the paymentMethods ArrayList and the paymentMethodsById HashMap
+    private void addPaymentMethod(JsonObject jsonObject) {
+
+        // retrieve the content of the element and store it in variables, remove quotation marks for Strings
+        String id = jsonObject.getString("id").replace("\"", "");
+
+        // both are parsed straight from the text, the discount in percent has two decimal places of basis points
+        long discount = Money.parsePercent(jsonObject.getString("discount"));
+
+        long limit = Money.parse(jsonObject.getString("limit"));
+
+        // create a PaymentMethod object with retrieved data
+        PaymentMethod paymentMethod = PaymentMethod.of(id, discount, limit);
+
+        // add a created PaymentMethod object to the HashMap with the id as a key
+        paymentMethods.add(paymentMethod);
+
+        paymentMethodsById.put(id, paymentMethod);
+    }
+
     // getter methods for the data read from the files
+    // method returning an Order for every order of the OrderStore, with values converted from grosze
     public ArrayList<Order> getOrders() {
+        if (orders == null) {
+            OrderStore store = getOrderStore();
+            orders = new ArrayList<>(store.size());
+            for (int order = 0; order < store.size(); order++) {
+                orders.add(new Order(store.getId(order), Money.toDouble(store.getValue(order))));
+            }
+        }
         return orders;
     }
 
@@ -153,11 +353,35 @@ public class JsonFileReader {
         return paymentMethods;
     }
 
+    // method returning the orders of every promotion, built from the inverted index of the OrderStore, the orders are
+    // the same objects as the ones returned by getOrders() and "PUNKTY" is not a key
     public HashMap<String, ArrayList<Order>> getOrdersByPromotion() {
+        if (ordersByPromotion == null) {
+            OrderStore store = getOrderStore();
+            ArrayList<Order> allOrders = getOrders();
+            ordersByPromotion = new HashMap<>();
+            for (int promotion = 0; promotion < store.getPromotionCount(); promotion++) {
+                ArrayList<Order> promotionOrders = new ArrayList<>();
+                for (int k = store.ordersByPromotionStart(promotion); k < store.ordersByPromotionEnd(promotion); k++) {
+                    promotionOrders.add(allOrders.get(store.getOrderByPromotion(k)));
+                }
+                ordersByPromotion.put(store.getPromotionId(promotion), promotionOrders);
+            }
+        }
         return ordersByPromotion;
     }
 
     public HashMap<String, PaymentMethod> getPaymentMethodsById() {
         return paymentMethodsById;
     }
+
+    public String getId() {
+        return id;
+    }
+
+    public OrderStore getOrderStore() {
+        if (orderStore == null)
+            orderStore = orderStoreBuilder.build();
+        return orderStore;
+    }
 }
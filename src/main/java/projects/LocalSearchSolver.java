@@ -0,0 +1,367 @@
+package projects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// solver improving the greedy assignment by simulated annealing within a time budget, for inputs too large for
+// BranchAndBoundSolver to finish
+//
+// every order is paid with one of its PaymentOptions, under the rules of GreedySolver. Walkers running in parallel with
+// independent seeds start from the candidates the greedy solver assigned and repeatedly move a random order to another
+// of its options. An order with the same id holding a candidate is then left to be paid with the funds left, and when
+// the limit of the new payment method is exhausted, so is another order paid with it, which covers swapping orders
+// between cards and moving an order from a card to points. Moves losing discount are accepted with a probability
+// falling with the time left. The best assignment of all walkers is returned only if it is better than the greedy one,
+// so the result is never worse
+public class LocalSearchSolver implements AssignmentSolver {
+
+    // how many moves are made between checks of the time budget
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    // how many random orders are tried when looking for an order to move away from a payment method
+    private static final int EJECTION_TRIES = 8;
+
+    // seed used when none is given, so that runs with the same input and options start the same walks
+    public static final long DEFAULT_SEED = 42;
+
+    private final long timeBudgetMillis;
+
+    private final int walkers;
+
+    // seed of the first walker, the others use the following ones
+    private final long seed;
+
+    private final ForkJoinPool pool;
+
+    // report of the most recent call to solve()
+    private volatile Report lastReport;
+
+    // record describing the outcome of the search
+    //  * result - the best assignment found, the greedy one if no better assignment paying for every order was found
+    //  * greedyResult - the assignment found by GreedySolver
+    //  * moves - number of moves tried by all walkers
+    public record Report(AssignmentResult result, AssignmentResult greedyResult, long moves) {
+
+        // discount gained over the greedy result, in grosze, negative if the greedy result leaves orders unpaid and
+        // the result pays for all of them with a lower discount
+        public long gap() {
+            return result.totalDiscount() - greedyResult.totalDiscount();
+        }
+    }
+
+    // constructor with a walker for every processor and the default seed, using the common ForkJoinPool
+    public LocalSearchSolver(long timeBudgetMillis) {
+        this(timeBudgetMillis, DEFAULT_SEED);
+    }
+
+    // constructor with a walker for every processor and the given seed, using the common ForkJoinPool
+    public LocalSearchSolver(long timeBudgetMillis, long seed) {
+        this(timeBudgetMillis, Runtime.getRuntime().availableProcessors(), seed, ForkJoinPool.commonPool());
+    }
+
+    public LocalSearchSolver(long timeBudgetMillis, int walkers, long seed, ForkJoinPool pool) {
+        if (walkers < 1)
+            throw new IllegalArgumentException("Number of walkers must be positive, got " + walkers);
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.walkers = walkers;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    // even with a fixed seed, the number of moves made within a time budget differs between runs, only without
+    // a budget the result is always the greedy one
+    @Override
+    public boolean isDeterministic() {
+        return timeBudgetMillis <= 0;
+    }
+
+    @Override
+    public AssignmentResult solve(OrderStore orderStore, List<PaymentMethod> paymentMethods) {
+        return solveWithReport(orderStore, paymentMethods).result();
+    }
+
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    // method solving the problem and reporting how the result compares to the greedy one
+    public Report solveWithReport(OrderStore orderStore, List<PaymentMethod> paymentMethods) {
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000;
+        InputSnapshot snapshot = InputSnapshot.of(orderStore, paymentMethods);
+        int[] greedyMethods = new int[orderStore.size()];
+        AssignmentResult greedyResult = new GreedySolver().solve(snapshot, new SolverState(), greedyMethods);
+
+        AssignmentResult result = greedyResult;
+        long moves = 0;
+        if (timeBudgetMillis > 0) {
+            PaymentOptions options = new PaymentOptions(snapshot);
+            int[] start = options.choicesOf(greedyMethods);
+            List<ForkJoinTask<Walker>> tasks = new ArrayList<>();
+            for (int walker = 0; walker < walkers; walker++) {
+                long walkerSeed = seed + walker;
+                tasks.add(pool.submit(() -> new Walker(options, start, walkerSeed).run(deadline)));
+            }
+
+            // the greedy result is the one to beat, as long as it pays for every order
+            Walker best = null;
+            long bestDiscount = greedyResult.allPaid() ? greedyResult.totalDiscount() : -1;
+            for (ForkJoinTask<Walker> task : tasks) {
+                Walker walker = task.join();
+                moves += walker.moves;
+                if (walker.bestDiscount > bestDiscount) {
+                    best = walker;
+                    bestDiscount = walker.bestDiscount;
+                }
+            }
+            if (best != null)
+                result = options.toResult(best.bestChoices);
+        }
+
+        Report report = new Report(result, greedyResult, moves);
+        lastReport = report;
+        return report;
+    }
+
+    // class keeping the state of a single walker
+    private static class Walker {
+        private final PaymentOptions options;
+        private final SplittableRandom random;
+
+        // option chosen for every order, remaining limits for the used amounts of the candidates, their sum for the
+        // payment methods other than "PUNKTY", the number of payment methods whose limit is exceeded, the order with
+        // a candidate of every id or -1, and the discount of the candidates
+        private final int[] choices;
+        private final long[] capacities;
+        private long otherFunds;
+        private int exceededLimits;
+        private final int[] idHolders;
+        private long candidateDiscount;
+
+        // rests of the chosen partial payments with their counts, the highest one has to fit in the other funds
+        private final TreeMap<Long, Integer> rests = new TreeMap<>();
+
+        // values and discounts of the orders left to be paid with whatever funds are left, 0 for the other orders
+        private final FenwickTree leftoverValues;
+        private final FenwickTree leftoverDiscounts;
+
+        // total discount of the current choices, -1 if they do not pay for every order
+        private long discount;
+
+        // temperature at the start, lowered linearly to 0 at the deadline
+        private final double startTemperature;
+
+        // orders moved to their leftover option by the current move and their previous options
+        private final int[] ejected = new int[2];
+        private final int[] ejectedPrevious = new int[2];
+
+        private long moves;
+        private long bestDiscount;
+        private int[] bestChoices;
+
+        private Walker(PaymentOptions options, int[] start, long seed) {
+            this.options = options;
+            this.random = new SplittableRandom(seed);
+            int size = start.length;
+            this.choices = new int[size];
+            this.capacities = options.limits.clone();
+            this.otherFunds = options.otherLimit;
+            this.idHolders = new int[size];
+            Arrays.fill(idHolders, -1);
+            this.leftoverValues = new FenwickTree(size);
+            this.leftoverDiscounts = new FenwickTree(size);
+            long maxDiscounts = 0;
+            for (int order = 0; order < size; order++) {
+                choices[order] = -1;
+                apply(order, start[order]);
+                maxDiscounts += options.discounts[options.starts[order]];
+            }
+            this.discount = evaluate();
+            this.startTemperature = Math.max(1.0, (double) maxDiscounts / Math.max(1, size) / 2);
+            this.bestDiscount = discount;
+            this.bestChoices = choices.clone();
+        }
+
+        private Walker run(long deadline) {
+            int size = choices.length;
+            long started = System.nanoTime();
+            double temperature = startTemperature;
+            while (size > 0) {
+                if (moves++ % TIME_CHECK_INTERVAL == 0) {
+                    long now = System.nanoTime();
+                    if (now >= deadline)
+                        break;
+                    temperature = startTemperature * (deadline - now) / Math.max(1, deadline - started);
+                }
+
+                // move a random order to another of its options
+                int order = random.nextInt(size);
+                int optionCount = options.starts[order + 1] - options.starts[order];
+                if (optionCount < 2)
+                    continue;
+                int previous = choices[order];
+                int option = options.starts[order] + random.nextInt(optionCount - 1);
+                if (option >= previous)
+                    option++;
+
+                // an order with the same id holding a candidate is left to be paid with the funds left
+                int ejections = 0;
+                int methodIndex = options.methods[option];
+                if (methodIndex != PaymentOptions.LEFTOVER) {
+                    int holder = idHolders[options.idOf(order)];
+                    if (holder >= 0 && holder != order)
+                        ejections = eject(holder, ejections);
+                }
+                apply(order, option);
+
+                // if the payment method has not got enough left, try to leave another order paid with it
+                if (methodIndex != PaymentOptions.LEFTOVER && capacities[methodIndex] < 0) {
+                    int other = findHolder(order, methodIndex);
+                    if (other >= 0)
+                        ejections = eject(other, ejections);
+                }
+
+                long current = discount;
+                long next = evaluate();
+                if (next >= 0 && (current < 0 || next >= current
+                        || random.nextDouble() < Math.exp((next - current) / temperature))) {
+                    discount = next;
+                    if (discount > bestDiscount) {
+                        bestDiscount = discount;
+                        System.arraycopy(choices, 0, bestChoices, 0, size);
+                    }
+                    continue;
+                }
+
+                // while the choices do not pay for every order, any move is accepted, otherwise the move is undone
+                if (current < 0) {
+                    discount = next;
+                    continue;
+                }
+                apply(order, previous);
+                for (int ejection = ejections - 1; ejection >= 0; ejection--) {
+                    apply(ejected[ejection], ejectedPrevious[ejection]);
+                }
+            }
+            return this;
+        }
+
+        // method leaving an order to be paid with the funds left as a part of the current move
+        private int eject(int order, int ejections) {
+            ejected[ejections] = order;
+            ejectedPrevious[ejections] = choices[order];
+            apply(order, options.leftoverOption(order));
+            return ejections + 1;
+        }
+
+        // method returning a random order other than the given one paid with the payment method, or -1 if none is found
+        private int findHolder(int order, int methodIndex) {
+            for (int attempt = 0; attempt < EJECTION_TRIES; attempt++) {
+                int other = random.nextInt(choices.length);
+                if (other != order && options.methods[choices[other]] == methodIndex)
+                    return other;
+            }
+            return -1;
+        }
+
+        // method changing the option of an order
+        private void apply(int order, int option) {
+            int previous = choices[order];
+            if (previous >= 0)
+                change(order, previous, -1);
+            change(order, option, 1);
+            choices[order] = option;
+        }
+
+        // method adding an option of an order to the state, or removing it with sign -1
+        private void change(int order, int option, int sign) {
+            int methodIndex = options.methods[option];
+            long value = options.orderStore.getValue(order);
+            if (methodIndex == PaymentOptions.LEFTOVER) {
+                leftoverValues.add(order, sign * value);
+                leftoverDiscounts.add(order, sign * Money.percentOf(value, CandidateGenerator.POINTS_SHARE));
+                return;
+            }
+
+            boolean exceeded = capacities[methodIndex] < 0;
+            capacities[methodIndex] -= sign * options.dedicated[option];
+            if (exceeded != capacities[methodIndex] < 0)
+                exceededLimits += exceeded ? -1 : 1;
+            if (methodIndex != options.pointsIndex)
+                otherFunds -= sign * options.dedicated[option];
+            idHolders[options.idOf(order)] = sign > 0 ? order : -1;
+            candidateDiscount += sign * options.discounts[option];
+            if (options.rests[option] > 0)
+                rests.merge(options.rests[option], sign, (count, change) -> count + change == 0 ? null : count + change);
+        }
+
+        // method returning the total discount of the current choices, or -1 if they do not pay for every order
+        //
+        // GreedySolver.payLeftover() pays the orders left in their order wholly by points as long as the points
+        // cover their whole values, with the 10% discount. The first order whose value they do not cover takes the
+        // points left, with the discount if they cover 10% of its value, and the rest from the other payment methods,
+        // which pay for the following orders wholly, so a prefix sum of the values is enough to find the outcome
+        private long evaluate() {
+            if (exceededLimits > 0 || (!rests.isEmpty() && rests.lastKey() > otherFunds))
+                return -1;
+            long points = options.pointsIndex >= 0 ? capacities[options.pointsIndex] : 0;
+            int paidByPoints = leftoverValues.prefixWithin(points);
+            long pointsValue = leftoverValues.sum(paidByPoints);
+            long leftoverDiscount = leftoverDiscounts.sum(paidByPoints);
+            if (paidByPoints < choices.length) {
+                long value = options.orderStore.getValue(paidByPoints);
+                long pointsLeft = points - pointsValue;
+                long rest = value - pointsLeft;
+                if (pointsLeft > 0 && pointsLeft >= Money.minimumShare(value, CandidateGenerator.POINTS_SHARE)) {
+                    long pointsDiscount = Money.percentOf(value, CandidateGenerator.POINTS_SHARE);
+                    leftoverDiscount += pointsDiscount;
+                    rest = Math.max(0, rest - pointsDiscount);
+                }
+                long following = leftoverValues.sum(choices.length) - pointsValue - value;
+                if (rest + following > otherFunds)
+                    return -1;
+            }
+            return candidateDiscount + leftoverDiscount;
+        }
+    }
+
+    // class storing values of positions, with their prefix sums and changes in logarithmic time
+    private static final class FenwickTree {
+        private final long[] tree;
+
+        private FenwickTree(int size) {
+            this.tree = new long[size + 1];
+        }
+
+        private void add(int position, long delta) {
+            for (int i = position + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        // sum of the values of the first count positions
+        private long sum(int count) {
+            long sum = 0;
+            for (int i = count; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        // the highest count of the first positions whose values sum up to at most the limit, the values are not negative
+        private int prefixWithin(long limit) {
+            int count = 0;
+            for (int step = Integer.highestOneBit(Math.max(1, tree.length - 1)); step > 0; step >>= 1) {
+                if (count + step < tree.length && tree[count + step] <= limit) {
+                    count += step;
+                    limit -= tree[count];
+                }
+            }
+            return count;
+        }
+    }
+}
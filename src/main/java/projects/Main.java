@@ -1,15 +1,133 @@
 package projects;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 public class Main {
     public static void main(String[] args) {
+        Options options = Options.parse(args);
+
+        // "--metrics" enables PipelineMetrics, readable through JMX, and prints their summary to the standard error
+        // output after the calculation
+        if (options.metrics())
+            PipelineMetrics.enable();
+
+        switch (options.mode()) {
+            case SERVER -> runServer(options);
+            case BATCH -> runBatch(options);
+            case SNAPSHOT -> runSnapshot(options);
+            case EXPORT -> exportSnapshot(options);
+            case SCENARIO -> runScenarios(options);
+            case SINGLE -> runSingle(options);
+        }
+    }
+
+    // method starting a resident server, with "--cache=<entries>" keeping the results of the given number of the
+    // latest distinct requests
+    private static void runServer(Options options) {
+        OptimizerServer server = new OptimizerServer(options.port(), options.createSolver(), options.cacheSize());
+        server.start();
+        System.err.println("Listening on port " + server.getPort());
+    }
+
+    // method running BatchRunner for a directory, an NDJSON file or the standard input given as "-", writing a line
+    // for every basket, with "--threads=<count>" threads, and "--cache=<entries>" calculating repeated baskets once
+    private static void runBatch(Options options) {
+        String input = options.input();
+        AssignmentSolver solver = options.createSolver();
+        if (options.cacheSize() > 0)
+            solver = new ResultCache(solver, options.cacheSize());
+        BatchRunner batchRunner = new BatchRunner(solver, options.threads());
 
-        // path to orders.json file
-        String ordersPath = args[0];
+        BatchRunner.Summary summary;
+        try (ResultSink resultSink = ResultSink.create(options.output(), System.out, System.err)) {
+            if (input.equals("-"))
+                summary = batchRunner.runNdjson(System.in, resultSink);
+            else if (Files.isDirectory(Path.of(input)))
+                summary = batchRunner.runDirectory(Path.of(input), resultSink);
+            else {
+                try (InputStream inputStream = Files.newInputStream(Path.of(input))) {
+                    summary = batchRunner.runNdjson(inputStream, resultSink);
+                } catch (IOException ioException) {
+                    throw new UncheckedIOException("Cannot read " + input, ioException);
+                }
+            }
+        }
+        System.err.println("Calculated " + summary.baskets() + " baskets, " + summary.errors() + " with errors");
+        printMetrics(options);
+    }
+
+    // method calculating the result for a binary snapshot written by "--export-snapshot"
+    private static void runSnapshot(Options options) {
+        InputSnapshot snapshot = SnapshotFile.load(Path.of(options.input()));
+        AssignmentResult result = options.createSolver().solve(snapshot, new SolverState());
+        if (result.failedOrder() >= 0)
+            throw new RuntimeException("Cannot pay for " + snapshot.getOrderStore().getId(result.failedOrder()) + " - insufficient amount of funds!");
+        try (ResultSink resultSink = ResultSink.create(options.output(), System.out, System.err)) {
+            resultSink.write(CostsResult.of(null, snapshot, result));
+        }
+        printMetrics(options);
+    }
 
-        // path to paymentmethods.json file
-        String paymentMethodsPath = args[1];
+    // method writing the files as a binary snapshot and doing nothing else
+    private static void exportSnapshot(Options options) {
+        SnapshotFile.write(InputSnapshot.of(readFiles(options)), Path.of(options.exportPath()));
+    }
+
+    // method evaluating the "--scenario=<variant>" variants of the payment methods and printing a table comparing them
+    private static void runScenarios(Options options) {
+        ScenarioRunner scenarioRunner = new ScenarioRunner(InputSnapshot.of(readFiles(options)), options.createSolver());
+        List<ScenarioRunner.Scenario> variants = new ArrayList<>();
+        for (String scenario : options.scenarios()) {
+            variants.add(scenarioRunner.parse(scenario));
+        }
+        System.out.print(ScenarioRunner.formatTable(scenarioRunner.run(variants)));
+        printMetrics(options);
+    }
+
+    // method calculating the costs for the orders and payment methods files
+    private static void runSingle(Options options) {
+        AssignmentSolver solver = options.createSolver();
+        CalculationsClass calculationsClass = new CalculationsClass(readFiles(options));
+        calculationsClass.setSolver(solver);
+
+        try (ResultSink resultSink = ResultSink.create(options.output(), System.out, System.err)) {
+            calculationsClass.calculateCosts(resultSink);
+        }
+
+        // report how much the exact solver has gained over the greedy one
+        if (solver instanceof BranchAndBoundSolver exactSolver) {
+            BranchAndBoundSolver.Report report = exactSolver.getLastReport();
+            System.err.println("Discount " + Money.toDouble(report.result().totalDiscount())
+                    + " (greedy " + Money.toDouble(report.greedyResult().totalDiscount())
+                    + ", gap " + Money.toDouble(report.gap()) + "), "
+                    + (report.optimal() ? "optimal" : "time budget exhausted after " + report.exploredNodes() + " nodes"));
+        } else if (solver instanceof LocalSearchSolver localSearchSolver) {
+            LocalSearchSolver.Report report = localSearchSolver.getLastReport();
+            System.err.println("Discount " + Money.toDouble(report.result().totalDiscount())
+                    + " (greedy " + Money.toDouble(report.greedyResult().totalDiscount())
+                    + ", gap " + Money.toDouble(report.gap()) + ") after " + report.moves() + " moves");
+        }
+        printMetrics(options);
+    }
+
+    // method reading the orders and payment methods files, "--parallel-read" parses the orders file on all
+    // processors, which pays off for files of hundreds of megabytes
+    private static JsonFileReader readFiles(Options options) {
+        return options.parallelRead()
+                ? JsonFileReader.readParallel(options.input(), options.paymentMethodsPath(), ForkJoinPool.commonPool())
+                : new JsonFileReader(options.input(), options.paymentMethodsPath());
+    }
 
-        CalculationsClass calculationsClass = new CalculationsClass(ordersPath, paymentMethodsPath);
-        calculationsClass.calculateCosts();
+    // method printing the summary of PipelineMetrics as a single line of JSON, if they have been enabled
+    private static void printMetrics(Options options) {
+        if (options.metrics())
+            System.err.println(PipelineMetrics.get().getSummary());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package projects;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+// class giving every distinct payment method id a small int code when the input is read, so that calculations work
+// with int indices into primitive arrays and Strings are only needed when reading the input and printing the result
+//
+// payment methods are identified by their position in the list they were read from, codes are the positions of the
+// distinct ids in the order of their first appearance. Both are the same unless an id appears more than once
+public final class MethodDictionary {
+
+    // distinct ids, the code of an id is its position in this array
+    private final String[] ids;
+
+    // HashMap for finding code of an id
+    private final HashMap<String, Integer> codes;
+
+    // code of the payment method at every position
+    private final int[] codeOfMethod;
+
+    // position of the first payment method with every code
+    private final int[] firstMethod;
+
+    // whether the payment method at every position is "PUNKTY" in any letter case, which decides how its assignments
+    // are generated
+    private final boolean[] points;
+
+    // position of the payment method whose limit is kept as points by FundsLedger, -1 if there is none
+    private final int pointsMethod;
+
+    public MethodDictionary(String[] methodIds) {
+        this.codes = new HashMap<>();
+        this.codeOfMethod = new int[methodIds.length];
+        this.points = new boolean[methodIds.length];
+        String[] distinctIds = new String[methodIds.length];
+        int[] first = new int[methodIds.length];
+        for (int method = 0; method < methodIds.length; method++) {
+            Integer code = codes.putIfAbsent(methodIds[method], codes.size());
+            if (code == null) {
+                code = codes.size() - 1;
+                distinctIds[code] = methodIds[method];
+                first[code] = method;
+            }
+            codeOfMethod[method] = code;
+            points[method] = methodIds[method].equalsIgnoreCase("PUNKTY");
+        }
+        this.ids = Arrays.copyOf(distinctIds, codes.size());
+        this.firstMethod = Arrays.copyOf(first, codes.size());
+        this.pointsMethod = pointsMethodOf(Arrays.asList(methodIds));
+    }
+
+    // position of the payment method whose limit is kept as points: only the exact id "PUNKTY", the last one if it
+    // appears more than once, -1 if there is none
+    static int pointsMethodOf(List<String> methodIds) {
+        return methodIds.lastIndexOf("PUNKTY");
+    }
+
+    // number of payment methods
+    public int getMethodCount() {
+        return codeOfMethod.length;
+    }
+
+    // number of distinct ids
+    public int size() {
+        return ids.length;
+    }
+
+    public String getId(int code) {
+        return ids[code];
+    }
+
+    // returns the code of an id or -1 if there is no such payment method
+    public int codeOf(String methodId) {
+        return codes.getOrDefault(methodId, -1);
+    }
+
+    public int getCode(int method) {
+        return codeOfMethod[method];
+    }
+
+    public String getMethodId(int method) {
+        return ids[codeOfMethod[method]];
+    }
+
+    // returns the position of the first payment method with an id or -1 if there is no such payment method
+    public int indexOfMethod(String methodId) {
+        int code = codeOf(methodId);
+        return code < 0 ? -1 : firstMethod[code];
+    }
+
+    public boolean isPoints(int method) {
+        return points[method];
+    }
+
+    public int getPointsMethod() {
+        return pointsMethod;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(ids);
+    }
+}
@@ -0,0 +1,105 @@
+package projects;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// class for exact arithmetic on amounts of money stored as a long number of grosze (hundredths of the currency unit)
+// rounding rules:
+//  * amounts with more than two decimal places are rounded half up to whole grosze when they are read
+//  * percentages are stored in basis points (hundredths of a percent), so "7.5" becomes 750
+//  * a discount is the percentage of the amount rounded half up to whole grosze
+//  * a minimum share that has to be paid (such as 10% of the order's value paid with points) is rounded up,
+//    so that paying it always covers at least the given percentage
+public final class Money {
+
+    // number of grosze in a single unit of the currency
+    public static final long SCALE = 100;
+
+    // number of basis points in 100%
+    public static final long FULL_PERCENT = 10_000;
+
+    private Money() {
+    }
+
+    // method parsing a decimal amount, such as "123.45", into grosze
+    public static long parse(String text) {
+        int length = text.length();
+        int position = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            position++;
+        }
+
+        // read the integer part, falling back to BigDecimal for anything other than plain digits
+        long units = 0;
+        int digits = 0;
+        while (position < length && text.charAt(position) != '.') {
+            char c = text.charAt(position++);
+            if (c < '0' || c > '9' || ++digits > 15)
+                return parseBigDecimal(text);
+            units = units * 10 + (c - '0');
+        }
+
+        // read up to two decimal places, the third one decides about rounding and the rest must be digits
+        long grosze = 0;
+        int decimals = 0;
+        boolean roundUp = false;
+        if (position < length) {
+            position++;
+            while (position < length) {
+                char c = text.charAt(position++);
+                if (c < '0' || c > '9')
+                    return parseBigDecimal(text);
+                if (decimals < 2)
+                    grosze = grosze * 10 + (c - '0');
+                else if (decimals == 2)
+                    roundUp = c >= '5';
+                decimals++;
+            }
+        }
+        if (digits == 0 && decimals == 0)
+            throw new NumberFormatException("Not an amount of money: \"" + text + "\"");
+        for (int i = decimals; i < 2; i++) {
+            grosze *= 10;
+        }
+
+        long amount = units * SCALE + grosze + (roundUp ? 1 : 0);
+        return negative ? -amount : amount;
+    }
+
+    // slower parsing for amounts with exponents or too many digits
+    private static long parseBigDecimal(String text) {
+        return new BigDecimal(text).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // method parsing a percentage, such as "15" or "7.5", into basis points, rounding half up like parse()
+    public static long parsePercent(String text) {
+        return parse(text);
+    }
+
+    // method converting an amount given as a double into grosze, rounding half up
+    public static long toMinor(double amount) {
+        return Math.round(amount * SCALE);
+    }
+
+    // method converting grosze back into a double, which is the closest double to the exact decimal amount
+    public static double toDouble(long amount) {
+        return amount / (double) SCALE;
+    }
+
+    // method converting a percentage, such as 15 or 7.5, into basis points
+    public static long toBasisPoints(double percent) {
+        return Math.round(percent * SCALE);
+    }
+
+    // method calculating the given percentage of an amount, rounded half up to whole grosze
+    public static long percentOf(long amount, long basisPoints) {
+        return (amount * basisPoints + FULL_PERCENT / 2) / FULL_PERCENT;
+    }
+
+    // method calculating the smallest amount that covers at least the given percentage of an amount
+    public static long minimumShare(long amount, long basisPoints) {
+        return (amount * basisPoints + FULL_PERCENT - 1) / FULL_PERCENT;
+    }
+}
@@ -0,0 +1,72 @@
+package projects;
+
+import java.nio.channels.WritableByteChannel;
+
+// sink writing a line of JSON for every result: {"id": "...", "costs": {"<method id>": "<cost>", ...}, "allPaid": true}
+// or {"id": "...", "error": "..."}, where "id" is left out for results without an id and costs are strings with two
+// decimal places, the same as returned by OptimizerServer
+public class NdjsonResultSink extends BufferedResultSink {
+
+    public NdjsonResultSink(WritableByteChannel channel) {
+        super(channel);
+    }
+
+    @Override
+    public void write(CostsResult result) {
+        putByte('{');
+        if (result.id() != null) {
+            putJsonString("id");
+            putByte(':');
+            putJsonString(result.id());
+            putByte(',');
+        }
+        if (result.isError()) {
+            putJsonString("error");
+            putByte(':');
+            putJsonString(result.error());
+        } else {
+            putJsonString("costs");
+            putByte(':');
+            putByte('{');
+            for (int method = 0; method < result.methodIds().length; method++) {
+                if (method > 0)
+                    putByte(',');
+                putJsonString(result.methodIds()[method]);
+                putByte(':');
+                putByte('"');
+                putAmount(result.costs()[method]);
+                putByte('"');
+            }
+            putByte('}');
+            putByte(',');
+            putJsonString("allPaid");
+            putByte(':');
+            putString(result.allPaid() ? "true" : "false");
+        }
+        putByte('}');
+        putByte('\n');
+    }
+
+    // method writing a JSON string, escaping quotes, backslashes and control characters
+    private void putJsonString(String text) {
+        putByte('"');
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20)
+                continue;
+            putString(text.substring(start, i));
+            putByte('\\');
+            switch (c) {
+                case '"', '\\' -> putByte(c);
+                case '\n' -> putByte('n');
+                case '\r' -> putByte('r');
+                case '\t' -> putByte('t');
+                default -> putString(String.format("u%04x", (int) c));
+            }
+            start = i + 1;
+        }
+        putString(start == 0 ? text : text.substring(start));
+        putByte('"');
+    }
+}
@@ -0,0 +1,65 @@
+package projects;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// JDK Flight Recorder event committed by every run of CalculationsClass.chooseBestOption(), lasting the whole run,
+// phases are only measured by GreedySolver and are 0 for other solvers
+@Name("projects.OptimizationRun")
+@Label("Optimization Run")
+@Category("Payment Methods Promotions")
+@Description("Calculation choosing payment methods for all orders")
+@StackTrace(false)
+public class OptimizationRunEvent extends Event {
+
+    @Label("Solver")
+    String solver;
+
+    @Label("Orders")
+    int orderCount;
+
+    @Label("Payment Methods")
+    int paymentMethodCount;
+
+    @Label("Candidates")
+    int candidateCount;
+
+    @Label("Pruned Candidates")
+    int prunedCount;
+
+    @Label("Generate Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long generateTime;
+
+    @Label("Prune Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long pruneTime;
+
+    @Label("Sort Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long sortTime;
+
+    @Label("Greedy Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long greedyTime;
+
+    @Label("Fallback Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long fallbackTime;
+
+    @Label("Costs")
+    @Description("Number of entries of the costs map")
+    int costsCount;
+
+    @Label("All Paid")
+    boolean allPaid;
+
+    @Label("Total Discount")
+    @Description("Sum of the discounts in grosze")
+    long totalDiscount;
+}
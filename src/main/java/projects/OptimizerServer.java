@@ -0,0 +1,208 @@
+package projects;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// resident server running the same calculation as Main for every request, so that the JVM is started and the code is
+// compiled only once
+//
+// POST /optimize with a JSON object containing "orders" and "paymentMethods" arrays in the format of the input files
+// returns 200 with {"costs": {"<method id>": "<amount>", ...}, "allPaid": <boolean>}, with costs in the order of the
+// payment methods, 400 for malformed input, 413 for a body larger than the limit, 422 when an order could only be paid
+// partially and 500 when the calculation failed for any other reason
+//
+// with a ResultCache, results of requests with the same orders and payment methods are calculated only once, and
+// GET /stats returns {"hits": ..., "misses": ..., "evictions": ..., "size": ...} of the cache
+public class OptimizerServer {
+
+    // default limit of the size of a request body in bytes
+    static final int MAX_REQUEST_BYTES = 64 << 20;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // solver shared by all requests, it must not keep any state between calls
+    private final AssignmentSolver solver;
+
+    // cache of the latest results, null if every request is calculated
+    private final ResultCache cache;
+
+    // states reused by the requests, also by the ones calculated through the cache
+    private final SolverState.Pool states = new SolverState.Pool();
+
+    // largest accepted request body in bytes
+    private final int maxRequestBytes;
+
+    // port 0 chooses any free port, which can be read with getPort()
+    public OptimizerServer(int port, AssignmentSolver solver) {
+        this(port, solver, 0);
+    }
+
+    // constructor keeping the results of the given number of the latest distinct requests, 0 disables the cache
+    public OptimizerServer(int port, AssignmentSolver solver, int cacheSize) {
+        this(port, solver, cacheSize, MAX_REQUEST_BYTES);
+    }
+
+    // constructor with the largest accepted request body in bytes
+    public OptimizerServer(int port, AssignmentSolver solver, int cacheSize, int maxRequestBytes) {
+        if (maxRequestBytes < 1 || maxRequestBytes == Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Request size limit must be between 1 and " + (Integer.MAX_VALUE - 1)
+                    + ", got " + maxRequestBytes);
+        this.solver = solver;
+        this.maxRequestBytes = maxRequestBytes;
+        this.cache = cacheSize > 0 ? new ResultCache(solver, cacheSize) : null;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException("Cannot start server on port " + port, ioException);
+        }
+
+        // every request is handled on its own virtual thread
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/optimize", this::handle);
+        if (cache != null)
+            server.createContext("/stats", this::handleStats);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // method stopping the server, waiting at most the given number of seconds for requests being handled
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // statistics of the cache, null if there is none
+    public ResultCache.Stats getCacheStats() {
+        return cache == null ? null : cache.getStats();
+    }
+
+    // method handling a single request
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendError(exchange, 405, "Only POST requests are supported!");
+                return;
+            }
+
+            // read at most one byte more than the limit, so that a larger body is rejected without reading all of it
+            String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (contentLength != null && isLarger(contentLength, maxRequestBytes)) {
+                sendError(exchange, 413, "Request body is larger than " + maxRequestBytes + " bytes!");
+                return;
+            }
+            byte[] body = exchange.getRequestBody().readNBytes(maxRequestBytes + 1);
+            if (body.length > maxRequestBytes) {
+                sendError(exchange, 413, "Request body is larger than " + maxRequestBytes + " bytes!");
+                return;
+            }
+
+            // parse the request, any exception here means that the input is malformed
+            InputSnapshot snapshot;
+            try {
+                snapshot = InputSnapshot.of(JsonFileReader.fromJson(new ByteArrayInputStream(body)));
+            } catch (RuntimeException exception) {
+                sendError(exchange, 400, "Invalid input: " + exception.getMessage());
+                return;
+            }
+
+            // an order that could only be paid partially is reported in the result, any exception is an internal error
+            CostsResult result;
+            try {
+                result = calculate(snapshot);
+            } catch (RuntimeException exception) {
+                sendError(exchange, 500, "Calculation failed: " + exception.getMessage());
+                return;
+            }
+            if (result.isError()) {
+                sendError(exchange, 422, result.error());
+                return;
+            }
+
+            send(exchange, 200, costsJson(result));
+        }
+    }
+
+    // whether the value of a Content-Length header is larger than the limit, a malformed value is left to the server
+    private static boolean isLarger(String contentLength, int limit) {
+        try {
+            return Long.parseLong(contentLength.trim()) > limit;
+        } catch (NumberFormatException numberFormatException) {
+            return false;
+        }
+    }
+
+    private CostsResult calculate(InputSnapshot snapshot) {
+        SolverState state = states.acquire();
+        try {
+            AssignmentResult result = (cache != null ? cache : solver).solve(snapshot, state);
+            if (result.failedOrder() >= 0)
+                return CostsResult.insufficientFunds(null, snapshot.getOrderStore(), result.failedOrder());
+            return CostsResult.of(null, snapshot, result);
+        } finally {
+            states.release(state);
+        }
+    }
+
+    // method handling a request for the statistics of the cache
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ResultCache.Stats stats = cache.getStats();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (JsonGenerator jsonGenerator = Json.createGenerator(outputStream)) {
+                jsonGenerator.writeStartObject()
+                        .write("hits", stats.hits())
+                        .write("misses", stats.misses())
+                        .write("evictions", stats.evictions())
+                        .write("size", stats.size())
+                        .writeEnd();
+            }
+            send(exchange, 200, outputStream.toByteArray());
+        }
+    }
+
+    // method writing the costs of all payment methods and whether all orders have been paid
+    private static byte[] costsJson(CostsResult result) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JsonGenerator jsonGenerator = Json.createGenerator(outputStream)) {
+            jsonGenerator.writeStartObject().writeStartObject("costs");
+            for (int method = 0; method < result.methodIds().length; method++) {
+                jsonGenerator.write(result.methodIds()[method], BigDecimal.valueOf(result.costs()[method], 2).toPlainString());
+            }
+            jsonGenerator.writeEnd().write("allPaid", result.allPaid()).writeEnd();
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JsonGenerator jsonGenerator = Json.createGenerator(outputStream)) {
+            jsonGenerator.writeStartObject().write("error", String.valueOf(message)).writeEnd();
+        }
+        send(exchange, status, outputStream.toByteArray());
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+}
@@ -0,0 +1,165 @@
+package projects;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// record storing the command line of Main, parsed at once before anything is run:
+//  * mode - what Main does, chosen by the first argument and, for the paths of the files, by the options after them
+//  * input - path of the orders file, of the snapshot file, or the input of a batch, null for the server
+//  * paymentMethodsPath - path of the payment methods file, null unless the paths of the files are given
+//  * port - port of the server
+//  * cacheSize - number of results kept by the server or a batch, 0 for none
+//  * threads - threads of a batch
+//  * output - format of the results, "text" by default and "ndjson" for a batch
+//  * metrics - whether PipelineMetrics are enabled and printed after the calculation
+//  * parallelRead, scenarios, exportPath - options only available after the paths of the files
+//  * exactMillis, improveMillis, shards - options of the solver, -1 and 1 if they are not given
+//  * seed - seed of the local search, LocalSearchSolver.DEFAULT_SEED if it is not given
+public record Options(Mode mode, String input, String paymentMethodsPath, int port, int cacheSize, int threads,
+                      String output, boolean metrics, boolean parallelRead, List<String> scenarios, String exportPath,
+                      long exactMillis, long improveMillis, long seed, int shards) {
+
+    public enum Mode {
+        SERVER, BATCH, SNAPSHOT, EXPORT, SCENARIO, SINGLE
+    }
+
+    // method parsing the arguments of Main, throws IllegalArgumentException for an option that is unknown or cannot
+    // be used in the chosen mode
+    public static Options parse(String[] args) {
+        Builder builder = new Builder();
+
+        // "--metrics" and "--output=<text|ndjson|binary>" can be given anywhere
+        List<String> rest = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--metrics"))
+                builder.metrics = true;
+            else if (arg.startsWith("--output="))
+                builder.output = value(arg);
+            else
+                rest.add(arg);
+        }
+        args = rest.toArray(new String[0]);
+
+        // "--server[=<port>]", "--batch=<input>" or "--snapshot=<file>" as the first argument, the paths of the
+        // orders and payment methods files otherwise
+        int firstOption;
+        if (args.length > 0 && (args[0].equals("--server") || args[0].startsWith("--server="))) {
+            builder.mode = Mode.SERVER;
+            if (args[0].startsWith("--server="))
+                builder.port = Integer.parseInt(value(args[0]));
+            firstOption = 1;
+        } else if (args.length > 0 && args[0].startsWith("--batch=")) {
+            builder.mode = Mode.BATCH;
+            builder.input = value(args[0]);
+            firstOption = 1;
+        } else if (args.length > 0 && args[0].startsWith("--snapshot=")) {
+            builder.mode = Mode.SNAPSHOT;
+            builder.input = value(args[0]);
+            firstOption = 1;
+        } else {
+            if (args.length < 2 || args[0].startsWith("--") || args[1].startsWith("--"))
+                throw new IllegalArgumentException("Usage: <orders file> <payment methods file> [options], "
+                        + "--server[=<port>], --batch=<input> or --snapshot=<file>");
+            builder.mode = Mode.SINGLE;
+            builder.input = args[0];
+            builder.paymentMethodsPath = args[1];
+            firstOption = 2;
+        }
+
+        for (int i = firstOption; i < args.length; i++) {
+            String arg = args[i];
+            String name = arg.contains("=") ? arg.substring(0, arg.indexOf('=') + 1) : arg;
+            switch (name) {
+                case "--exact=" -> builder.exactMillis = Long.parseLong(value(arg));
+                case "--improve=" -> builder.improveMillis = Long.parseLong(value(arg));
+                case "--seed=" -> builder.seed = Long.parseLong(value(arg));
+                case "--shards=" -> builder.shards = Integer.parseInt(value(arg));
+                case "--cache=" -> {
+                    builder.require(arg, Mode.SERVER, Mode.BATCH);
+                    builder.cacheSize = Integer.parseInt(value(arg));
+                }
+                case "--threads=" -> {
+                    builder.require(arg, Mode.BATCH);
+                    builder.threads = Integer.parseInt(value(arg));
+                }
+                case "--parallel-read" -> {
+                    builder.require(arg, Mode.SINGLE);
+                    builder.parallelRead = true;
+                }
+                case "--scenario=" -> {
+                    builder.require(arg, Mode.SINGLE);
+                    builder.scenarios.add(value(arg));
+                }
+                case "--export-snapshot=" -> {
+                    builder.require(arg, Mode.SINGLE);
+                    builder.exportPath = value(arg);
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        return builder.build();
+    }
+
+    // value of an option written as "--name=value"
+    private static String value(String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    // method creating the solver chosen by the options: the exact solver with "--exact", the greedy one improved by
+    // local search with "--improve", the greedy one with card payments assigned in shards with "--shards", and the
+    // greedy one otherwise
+    public AssignmentSolver createSolver() {
+        if (exactMillis >= 0)
+            return new BranchAndBoundSolver(exactMillis);
+        if (improveMillis >= 0)
+            return new LocalSearchSolver(improveMillis, seed);
+        if (shards > 1)
+            return new PartitionedSolver(shards);
+        return new GreedySolver();
+    }
+
+    // class collecting the options while they are parsed
+    private static class Builder {
+        private Mode mode;
+        private String input;
+        private String paymentMethodsPath;
+        private int port = 8080;
+        private int cacheSize;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private String output;
+        private boolean metrics;
+        private boolean parallelRead;
+        private final List<String> scenarios = new ArrayList<>();
+        private String exportPath;
+        private long exactMillis = -1;
+        private long improveMillis = -1;
+        private Long seed;
+        private int shards = 1;
+
+        // method rejecting an option that cannot be used in the chosen mode
+        private void require(String arg, Mode... allowed) {
+            if (!List.of(allowed).contains(mode))
+                throw new IllegalArgumentException("Unknown option " + arg);
+        }
+
+        private Options build() {
+            if (exactMillis >= 0 && improveMillis >= 0)
+                throw new IllegalArgumentException("--exact cannot be combined with --improve");
+            if (shards > 1 && (exactMillis >= 0 || improveMillis >= 0))
+                throw new IllegalArgumentException("--shards cannot be combined with --exact or --improve");
+            if (seed != null && improveMillis < 0)
+                throw new IllegalArgumentException("--seed can only be combined with --improve");
+            if (exportPath != null && !scenarios.isEmpty())
+                throw new IllegalArgumentException("--export-snapshot cannot be combined with --scenario");
+            if (exportPath != null)
+                mode = Mode.EXPORT;
+            else if (!scenarios.isEmpty())
+                mode = Mode.SCENARIO;
+            if (output == null)
+                output = mode == Mode.BATCH ? "ndjson" : "text";
+            return new Options(mode, input, paymentMethodsPath, port, cacheSize, threads, output, metrics, parallelRead,
+                    List.copyOf(scenarios), exportPath, exactMillis, improveMillis,
+                    seed != null ? seed : LocalSearchSolver.DEFAULT_SEED, shards);
+        }
+    }
+}
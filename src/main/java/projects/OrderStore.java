@@ -0,0 +1,262 @@
+package projects;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+// class for storing orders column by column, with promotions kept as compressed adjacency arrays
+// orders are identified by their index, "PUNKTY" is not stored as it is available for every order
+public class OrderStore {
+
+    // number of stored orders
+    private final int size;
+
+    // values of the orders in grosze
+    private final long[] values;
+
+    // ids of the orders encoded in UTF-8 one after another, id of order i is stored between idOffsets[i] and idOffsets[i + 1]
+    private final byte[] idBytes;
+    private final int[] idOffsets;
+
+    // ids of the distinct promotions, promotion index is the position in this array
+    private final String[] promotionIds;
+
+    // HashMap for finding index of a promotion by its id
+    private final HashMap<String, Integer> promotionIndices;
+
+    // promotions of order i are stored between promotionOffsets[i] and promotionOffsets[i + 1]
+    private final int[] promotionOffsets;
+    private final int[] promotions;
+
+    // orders with promotion p are stored between ordersByPromotionOffsets[p] and ordersByPromotionOffsets[p + 1],
+    // in the same order in which they were added
+    private final int[] ordersByPromotionOffsets;
+    private final int[] ordersByPromotion;
+
+    // result of getFirstOrdersWithSameId(), null until it is called and ALL_IDS_DIFFERENT if no two ids are equal
+    private volatile int[] firstOrdersWithSameId;
+    private static final int[] ALL_IDS_DIFFERENT = new int[0];
+
+    private OrderStore(int size, long[] values, byte[] idBytes, int[] idOffsets, String[] promotionIds,
+                       HashMap<String, Integer> promotionIndices, int[] promotionOffsets, int[] promotions) {
+        this.size = size;
+        this.values = values;
+        this.idBytes = idBytes;
+        this.idOffsets = idOffsets;
+        this.promotionIds = promotionIds;
+        this.promotionIndices = promotionIndices;
+        this.promotionOffsets = promotionOffsets;
+        this.promotions = promotions;
+
+        // build the inverted index by counting the orders of each promotion first and then placing them in order
+        this.ordersByPromotionOffsets = new int[promotionIds.length + 1];
+        for (int k = 0; k < promotionOffsets[size]; k++) {
+            ordersByPromotionOffsets[promotions[k] + 1]++;
+        }
+        for (int p = 0; p < promotionIds.length; p++) {
+            ordersByPromotionOffsets[p + 1] += ordersByPromotionOffsets[p];
+        }
+        this.ordersByPromotion = new int[promotionOffsets[size]];
+        int[] next = Arrays.copyOf(ordersByPromotionOffsets, promotionIds.length);
+        for (int i = 0; i < size; i++) {
+            for (int k = promotionOffsets[i]; k < promotionOffsets[i + 1]; k++) {
+                ordersByPromotion[next[promotions[k]]++] = i;
+            }
+        }
+    }
+
+    // constructor for stores keeping their columns somewhere else, such as MappedOrderStore, which override all accessors
+    OrderStore() {
+        this.size = 0;
+        this.values = null;
+        this.idBytes = null;
+        this.idOffsets = null;
+        this.promotionIds = null;
+        this.promotionIndices = null;
+        this.promotionOffsets = null;
+        this.promotions = null;
+        this.ordersByPromotionOffsets = null;
+        this.ordersByPromotion = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // value of the order in grosze
+    public long getValue(int order) {
+        return values[order];
+    }
+
+    public String getId(int order) {
+        return new String(idBytes, idOffsets[order], idOffsets[order + 1] - idOffsets[order], StandardCharsets.UTF_8);
+    }
+
+    public int getPromotionCount() {
+        return promotionIds.length;
+    }
+
+    public String getPromotionId(int promotion) {
+        return promotionIds[promotion];
+    }
+
+    // returns the index of a promotion or -1 if no order has it
+    public int indexOfPromotion(String promotionId) {
+        return promotionIndices.getOrDefault(promotionId, -1);
+    }
+
+    // bounds of the promotions of a given order, to be used with getPromotion()
+    public int promotionsStart(int order) {
+        return promotionOffsets[order];
+    }
+
+    public int promotionsEnd(int order) {
+        return promotionOffsets[order + 1];
+    }
+
+    public int getPromotion(int position) {
+        return promotions[position];
+    }
+
+    // bounds of the orders with a given promotion, to be used with getOrderByPromotion()
+    public int ordersByPromotionStart(int promotion) {
+        return ordersByPromotionOffsets[promotion];
+    }
+
+    public int ordersByPromotionEnd(int promotion) {
+        return ordersByPromotionOffsets[promotion + 1];
+    }
+
+    public int getOrderByPromotion(int position) {
+        return ordersByPromotion[position];
+    }
+
+    // method creating a store with the given orders only, in the given order, so that order i of the new store is
+    // order orders[i] of this one
+    public OrderStore subset(int[] orders) {
+        Builder builder = new Builder();
+        ArrayList<String> orderPromotions = new ArrayList<>();
+        for (int order : orders) {
+            orderPromotions.clear();
+            for (int k = promotionsStart(order); k < promotionsEnd(order); k++) {
+                orderPromotions.add(getPromotionId(getPromotion(k)));
+            }
+            builder.add(getId(order), getValue(order), orderPromotions);
+        }
+        return builder.build();
+    }
+
+    // method returning for every order the index of the first order with the same id, or null if all ids are different,
+    // found on the first call and kept, as stores never change
+    public int[] getFirstOrdersWithSameId() {
+        int[] firstOrders = firstOrdersWithSameId;
+        if (firstOrders == null) {
+            firstOrders = findFirstOrdersWithSameId();
+            firstOrdersWithSameId = firstOrders;
+        }
+        return firstOrders == ALL_IDS_DIFFERENT ? null : firstOrders;
+    }
+
+    // ids are compared by sorted 64-bit hashes first, so that Strings are kept only for the orders whose hashes are equal
+    private int[] findFirstOrdersWithSameId() {
+        int size = size();
+        long[] hashes = new long[size];
+        for (int order = 0; order < size; order++) {
+            hashes[order] = hashOfId(order);
+        }
+        long[] sortedHashes = hashes.clone();
+        Arrays.sort(sortedHashes);
+        boolean equalHashes = false;
+        for (int i = 1; i < size && !equalHashes; i++) {
+            equalHashes = sortedHashes[i] == sortedHashes[i - 1];
+        }
+        if (!equalHashes)
+            return ALL_IDS_DIFFERENT;
+
+        int[] firstOrders = new int[size];
+        HashMap<String, Integer> firstOrderById = new HashMap<>();
+        boolean equalIds = false;
+        for (int order = 0; order < size; order++) {
+            firstOrders[order] = order;
+            int position = Arrays.binarySearch(sortedHashes, hashes[order]);
+            if ((position > 0 && sortedHashes[position - 1] == hashes[order])
+                    || (position + 1 < size && sortedHashes[position + 1] == hashes[order])) {
+                Integer firstOrder = firstOrderById.putIfAbsent(getId(order), order);
+                if (firstOrder != null) {
+                    firstOrders[order] = firstOrder;
+                    equalIds = true;
+                }
+            }
+        }
+        return equalIds ? firstOrders : ALL_IDS_DIFFERENT;
+    }
+
+    private long hashOfId(int order) {
+        String id = getId(order);
+        long hash = 1125899906842597L;
+        for (int i = 0; i < id.length(); i++) {
+            hash = 31 * hash + id.charAt(i);
+        }
+        return hash;
+    }
+
+    // class used to fill the store one order at a time
+    public static class Builder {
+        private int size;
+        private long[] values = new long[16];
+        private byte[] idBytes = new byte[256];
+        private int[] idOffsets = new int[17];
+        private int[] promotionOffsets = new int[17];
+        private int[] promotions = new int[16];
+        private final HashMap<String, Integer> promotionIndices = new HashMap<>();
+        private String[] promotionIds = new String[8];
+
+        // method adding an order with its value in grosze and its promotions, "PUNKTY" should not be passed as it is implied
+        public Builder add(String id, long value, List<String> orderPromotions) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                idOffsets = Arrays.copyOf(idOffsets, size * 2 + 1);
+                promotionOffsets = Arrays.copyOf(promotionOffsets, size * 2 + 1);
+            }
+            values[size] = value;
+
+            // append the id's bytes
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            int idStart = idOffsets[size];
+            if (idStart + bytes.length > idBytes.length)
+                idBytes = Arrays.copyOf(idBytes, Math.max(idBytes.length * 2, idStart + bytes.length));
+            System.arraycopy(bytes, 0, idBytes, idStart, bytes.length);
+            idOffsets[size + 1] = idStart + bytes.length;
+
+            // append the indices of the promotions, adding promotions that have not been seen yet
+            int promotionStart = promotionOffsets[size];
+            if (promotionStart + orderPromotions.size() > promotions.length)
+                promotions = Arrays.copyOf(promotions, Math.max(promotions.length * 2, promotionStart + orderPromotions.size()));
+            int position = promotionStart;
+            for (String promotionId : orderPromotions) {
+                Integer index = promotionIndices.get(promotionId);
+                if (index == null) {
+                    index = promotionIndices.size();
+                    promotionIndices.put(promotionId, index);
+                    if (index == promotionIds.length)
+                        promotionIds = Arrays.copyOf(promotionIds, index * 2);
+                    promotionIds[index] = promotionId;
+                }
+                promotions[position++] = index;
+            }
+            promotionOffsets[size + 1] = position;
+
+            size++;
+            return this;
+        }
+
+        public OrderStore build() {
+            return new OrderStore(size, Arrays.copyOf(values, size), Arrays.copyOf(idBytes, idOffsets[size]),
+                    Arrays.copyOf(idOffsets, size + 1), Arrays.copyOf(promotionIds, promotionIndices.size()),
+                    new HashMap<>(promotionIndices), Arrays.copyOf(promotionOffsets, size + 1),
+                    Arrays.copyOf(promotions, promotionOffsets[size]));
+        }
+    }
+}
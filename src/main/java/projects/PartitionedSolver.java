@@ -0,0 +1,221 @@
+package projects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// solver giving exactly the result of GreedySolver, with the assignments of card payment methods split into shards
+// generated, sorted and assigned in parallel
+//
+// orders interact only through the limits of the payment methods they can use. Without "PUNKTY" the orders connected
+// through card promotions form independent components, which are grouped into shards of similar size, orders sharing
+// an id are always in the same shard. Cards are assigned after all whole payments with points and before all partial
+// ones, and each card only pays for orders of its own shard, so the shards can assign their cards independently with
+// their own copies of the limits. Points, partial payments and the leftover orders use the funds of all shards, so
+// they are assigned by a single calculation with the limits of the whole problem before and after the shards
+public class PartitionedSolver implements AssignmentSolver {
+
+    private final int shardCount;
+
+    private final ForkJoinPool pool;
+
+    public PartitionedSolver(int shardCount) {
+        this(shardCount, ForkJoinPool.commonPool());
+    }
+
+    public PartitionedSolver(int shardCount, ForkJoinPool pool) {
+        if (shardCount < 1)
+            throw new IllegalArgumentException("Number of shards must be positive, got " + shardCount);
+        this.shardCount = shardCount;
+        this.pool = pool;
+    }
+
+    // the result is always the one of GreedySolver
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public AssignmentResult solve(OrderStore orderStore, List<PaymentMethod> paymentMethods) {
+        return solve(InputSnapshot.of(orderStore, paymentMethods), new SolverState());
+    }
+
+    @Override
+    public AssignmentResult solve(InputSnapshot snapshot, SolverState state) {
+        int[] shardOfOrder = assignShards(snapshot, shardCount);
+        int shards = 0;
+        for (int shard : shardOfOrder) {
+            shards = Math.max(shards, shard + 1);
+        }
+        if (shards < 2)
+            return new GreedySolver().solve(snapshot, state);
+
+        PipelineMetrics.Stopwatch stopwatch = PipelineMetrics.stopwatch(state.phaseNanos);
+        state.reset(snapshot);
+
+        // generate and sort the card assignments of every shard in parallel, while the points are generated here
+        List<List<Integer>> shardMethods = cardMethodsOfShards(snapshot, shardOfOrder, shards);
+        List<ForkJoinTask<ShardCandidates>> tasks = new ArrayList<>();
+        for (List<Integer> methods : shardMethods) {
+            tasks.add(pool.submit(() -> generateSorted(snapshot, methods)));
+        }
+        for (int methodIndex = 0; methodIndex < snapshot.getMethodCount(); methodIndex++) {
+            if (snapshot.isPoints(methodIndex))
+                CandidateGenerator.generateMethod(snapshot, methodIndex, state.candidates);
+        }
+        PipelineMetrics.recordCandidates(state.candidates);
+        stopwatch.lap(PipelineMetrics.Phase.GENERATE);
+        int[] sortedCandidates = state.candidates.sortedOrder(GreedySolver.TYPE_PRIORITIES);
+        stopwatch.lap(PipelineMetrics.Phase.SORT);
+
+        // whole payments with points come first in the sorted order, partial ones after them
+        int partialStart = 0;
+        while (partialStart < sortedCandidates.length
+                && state.candidates.getType(sortedCandidates[partialStart]) == AssignmentType.POINTS) {
+            partialStart++;
+        }
+        GreedySolver.Calculation calculation = new GreedySolver.Calculation(snapshot.getOrderStore(), state);
+        calculation.assignCandidates(state.candidates, sortedCandidates, 0, partialStart);
+
+        // assign the cards of every shard with the limits left after the points, then add up what the shards spent
+        List<ForkJoinTask<GreedySolver.Calculation>> shardTasks = new ArrayList<>();
+        for (ForkJoinTask<ShardCandidates> task : tasks) {
+            GreedySolver.Calculation shardCalculation = calculation.split();
+            shardTasks.add(pool.submit(() -> {
+                ShardCandidates shardCandidates = task.join();
+                shardCalculation.assignCandidates(shardCandidates.candidates(), shardCandidates.sortedCandidates());
+                return shardCalculation;
+            }));
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            calculation.merge(shardTasks.get(shard).join());
+            PipelineMetrics.recordCandidates(tasks.get(shard).join().candidates());
+        }
+
+        calculation.assignCandidates(state.candidates, sortedCandidates, partialStart, sortedCandidates.length);
+        stopwatch.lap(PipelineMetrics.Phase.GREEDY);
+        calculation.payLeftoverOrders();
+        stopwatch.lap(PipelineMetrics.Phase.FALLBACK);
+        PipelineMetrics.recordRun(calculation.fallbackOrders, calculation.totalDiscount);
+        return state.toResult(calculation.totalDiscount, calculation.failedOrder);
+    }
+
+    // method generating the assignments of the given card payment methods, in the order of the methods, and sorting them
+    private static ShardCandidates generateSorted(InputSnapshot snapshot, List<Integer> methods) {
+        CandidateBuffer candidates = new CandidateBuffer();
+        for (int methodIndex : methods) {
+            CandidateGenerator.generateMethod(snapshot, methodIndex, candidates);
+        }
+        return new ShardCandidates(candidates, candidates.sortedOrder(GreedySolver.TYPE_PRIORITIES));
+    }
+
+    // method returning for every shard the card payment methods used by its orders, in increasing order
+    private static List<List<Integer>> cardMethodsOfShards(InputSnapshot snapshot, int[] shardOfOrder, int shards) {
+        OrderStore orderStore = snapshot.getOrderStore();
+        List<List<Integer>> shardMethods = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            shardMethods.add(new ArrayList<>());
+        }
+        for (int methodIndex = 0; methodIndex < snapshot.getMethodCount(); methodIndex++) {
+            int promotion = snapshot.isPoints(methodIndex) ? -1 : snapshot.getPromotion(methodIndex);
+            if (promotion < 0 || orderStore.ordersByPromotionStart(promotion) == orderStore.ordersByPromotionEnd(promotion))
+                continue;
+            int shard = shardOfOrder[orderStore.getOrderByPromotion(orderStore.ordersByPromotionStart(promotion))];
+            shardMethods.get(shard).add(methodIndex);
+        }
+        return shardMethods;
+    }
+
+    // method assigning every order to one of at most shardCount shards, so that orders sharing a card payment method
+    // or an id are always in the same shard, returns the shard of every order
+    static int[] assignShards(InputSnapshot snapshot, int shardCount) {
+        OrderStore orderStore = snapshot.getOrderStore();
+
+        // join orders connected by a card payment method into components
+        int[] parent = new int[orderStore.size()];
+        for (int order = 0; order < parent.length; order++) {
+            parent[order] = order;
+        }
+        for (int methodIndex = 0; methodIndex < snapshot.getMethodCount(); methodIndex++) {
+            if (snapshot.isPoints(methodIndex))
+                continue;
+            int promotion = snapshot.getPromotion(methodIndex);
+            if (promotion < 0)
+                continue;
+            int start = orderStore.ordersByPromotionStart(promotion);
+            for (int k = start + 1; k < orderStore.ordersByPromotionEnd(promotion); k++) {
+                union(parent, orderStore.getOrderByPromotion(start), orderStore.getOrderByPromotion(k));
+            }
+        }
+
+        // orders sharing an id get a single discounted assignment, so they are joined as well
+        int[] firstOrders = orderStore.getFirstOrdersWithSameId();
+        if (firstOrders != null) {
+            for (int order = 0; order < parent.length; order++) {
+                union(parent, firstOrders[order], order);
+            }
+        }
+
+        // count orders of every component, components are identified by their root
+        int[] componentSizes = new int[parent.length];
+        for (int order = 0; order < parent.length; order++) {
+            componentSizes[find(parent, order)]++;
+        }
+
+        // place components from the largest to the shard with the fewest orders so far, ties broken by the root so
+        // that the shards do not depend on anything but the input
+        Integer[] roots = new Integer[parent.length];
+        int componentCount = 0;
+        for (int order = 0; order < parent.length; order++) {
+            if (parent[order] == order)
+                roots[componentCount++] = order;
+        }
+        Arrays.sort(roots, 0, componentCount, (a, b) -> componentSizes[a] != componentSizes[b]
+                ? Integer.compare(componentSizes[b], componentSizes[a]) : Integer.compare(a, b));
+
+        int shards = Math.min(shardCount, componentCount);
+        long[] shardSizes = new long[shards];
+        int[] shardOfRoot = new int[parent.length];
+        for (int c = 0; c < componentCount; c++) {
+            int smallest = 0;
+            for (int shard = 1; shard < shards; shard++) {
+                if (shardSizes[shard] < shardSizes[smallest])
+                    smallest = shard;
+            }
+            shardOfRoot[roots[c]] = smallest;
+            shardSizes[smallest] += componentSizes[roots[c]];
+        }
+
+        int[] shardOfOrder = new int[parent.length];
+        for (int order = 0; order < parent.length; order++) {
+            shardOfOrder[order] = shardOfRoot[find(parent, order)];
+        }
+        return shardOfOrder;
+    }
+
+    private static int find(int[] parent, int order) {
+        while (parent[order] != order) {
+            parent[order] = parent[parent[order]];
+            order = parent[order];
+        }
+        return order;
+    }
+
+    private static void union(int[] parent, int first, int second) {
+        int firstRoot = find(parent, first);
+        int secondRoot = find(parent, second);
+
+        // the smaller index becomes the root, which keeps the roots independent of the order of unions
+        if (firstRoot < secondRoot)
+            parent[secondRoot] = firstRoot;
+        else if (secondRoot < firstRoot)
+            parent[firstRoot] = secondRoot;
+    }
+
+    // card assignments of a single shard together with their sorted order
+    private record ShardCandidates(CandidateBuffer candidates, int[] sortedCandidates) {
+    }
+}
@@ -3,15 +3,31 @@ package projects;
 import java.util.Objects;
 
 // class for storing payment methods
+// the limit in grosze and the discount in basis points are kept next to the doubles, so that values read from a file
+// reach the calculation without being rounded through a double
 public class PaymentMethod {
     private final String id;
     private final double discount;
     private double limit;
+    private final long discountBasisPoints;
+    private long minorLimit;
 
     public PaymentMethod(String id, double discount, double limit) {
+        this(id, discount, limit, Money.toBasisPoints(discount), Money.toMinor(limit));
+    }
+
+    private PaymentMethod(String id, double discount, double limit, long discountBasisPoints, long minorLimit) {
         this.id = id;
         this.discount = discount;
         this.limit = limit;
+        this.discountBasisPoints = discountBasisPoints;
+        this.minorLimit = minorLimit;
+    }
+
+    // method creating a payment method from a discount in basis points and a limit in grosze
+    public static PaymentMethod of(String id, long discountBasisPoints, long minorLimit) {
+        return new PaymentMethod(id, discountBasisPoints / (double) Money.SCALE, Money.toDouble(minorLimit),
+                discountBasisPoints, minorLimit);
     }
 
     public String getId() {
@@ -26,8 +42,25 @@ public class PaymentMethod {
         return limit;
     }
 
+    // discount in basis points
+    public long getDiscountBasisPoints() {
+        return discountBasisPoints;
+    }
+
+    // limit in grosze
+    public long getMinorLimit() {
+        return minorLimit;
+    }
+
     public void setLimit(double limit) {
         this.limit = limit;
+        this.minorLimit = Money.toMinor(limit);
+    }
+
+    // method setting the limit in grosze
+    public void setMinorLimit(long minorLimit) {
+        this.limit = Money.toDouble(minorLimit);
+        this.minorLimit = minorLimit;
     }
 
     @Override
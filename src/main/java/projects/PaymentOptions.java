@@ -0,0 +1,222 @@
+package projects;
+
+import java.util.Arrays;
+import java.util.List;
+
+// class listing the ways of paying for every order, shared by the solvers that search over whole assignments
+//
+// the options follow the rules of GreedySolver, so that the solvers only search for a better choice than the greedy one
+// and never for a different problem. An order either gets one of the candidates of CandidateGenerator, or is left to be
+// paid like GreedySolver pays the orders no candidate was assigned to. A choice for every order is feasible when
+//  * the used amounts of the candidates fit in the limits of their payment methods
+//  * orders sharing an id get at most one candidate between them
+//  * the rest of every partial payment by points fits in the funds the other payment methods have left after the
+//    cards, which is checked by GreedySolver.fits() when the partial payment is assigned, after all cards
+//  * the orders left, in their order, are all paid by GreedySolver.payLeftover() with the funds left by the candidates
+// like in GreedySolver, the rest of a partial payment is not taken from any payment method
+final class PaymentOptions {
+
+    // payment method of the option leaving the order to be paid with whatever funds are left
+    static final int LEFTOVER = -1;
+
+    final OrderStore orderStore;
+
+    // limits of the payment methods in grosze, the index of "PUNKTY" or -1 if there is none, and the sum of the limits
+    // of the other payment methods
+    final long[] limits;
+    final int pointsIndex;
+    final long otherLimit;
+
+    // firstOrders[order] is the first order with the same id, null if all ids are different
+    final int[] firstOrders;
+
+    // options of paying for every order, options of order i are stored between starts[i] and starts[i + 1], in order of
+    // decreasing discount. Every option takes the used amount of its candidate from its payment method, a partial
+    // payment also needs the rest to fit in the funds of the other payment methods. The option leaving the order has
+    // the highest discount it can get, 10% if there are enough points to cover 10% of its value
+    final int[] starts;
+    final int[] methods;
+    final long[] dedicated;
+    final long[] discounts;
+    final long[] rests;
+
+    PaymentOptions(OrderStore orderStore, List<PaymentMethod> paymentMethods) {
+        this(InputSnapshot.of(orderStore, paymentMethods));
+    }
+
+    PaymentOptions(InputSnapshot snapshot) {
+        this.orderStore = snapshot.getOrderStore();
+        this.limits = snapshot.getLimits();
+        this.pointsIndex = snapshot.getDictionary().getPointsMethod();
+        this.otherLimit = new FundsLedger(limits, pointsIndex).getOtherFunds();
+        this.firstOrders = orderStore.getFirstOrdersWithSameId();
+
+        CandidateBuffer buffer = new CandidateBuffer();
+        CandidateGenerator.generate(snapshot, buffer);
+
+        // count the options of every order, its candidates and the leftover option
+        int size = orderStore.size();
+        this.starts = new int[size + 1];
+        for (int candidate = 0; candidate < buffer.size(); candidate++) {
+            starts[buffer.getOrder(candidate) + 1]++;
+        }
+        for (int order = 0; order < size; order++) {
+            starts[order + 1] += starts[order] + 1;
+        }
+
+        int count = starts[size];
+        this.methods = new int[count];
+        this.dedicated = new long[count];
+        this.discounts = new long[count];
+        this.rests = new long[count];
+
+        // candidates in the order they were generated, followed by the leftover option of every order
+        int[] next = Arrays.copyOf(starts, size);
+        for (int candidate = 0; candidate < buffer.size(); candidate++) {
+            int order = buffer.getOrder(candidate);
+            int option = next[order]++;
+            methods[option] = buffer.getMethod(candidate);
+            dedicated[option] = buffer.getUsedAmount(candidate);
+            discounts[option] = buffer.getDiscount(candidate);
+            if (buffer.getType(candidate) == AssignmentType.PARTIAL)
+                rests[option] = orderStore.getValue(order) - discounts[option] - dedicated[option];
+        }
+        long points = pointsIndex >= 0 ? limits[pointsIndex] : 0;
+        for (int order = 0; order < size; order++) {
+            int option = next[order];
+            long value = orderStore.getValue(order);
+            methods[option] = LEFTOVER;
+            if (points >= Money.minimumShare(value, CandidateGenerator.POINTS_SHARE))
+                discounts[option] = Money.percentOf(value, CandidateGenerator.POINTS_SHARE);
+            sort(starts[order], starts[order + 1]);
+        }
+    }
+
+    int size() {
+        return orderStore.size();
+    }
+
+    // index identifying the id of an order, the same for all orders sharing it
+    int idOf(int order) {
+        return firstOrders == null ? order : firstOrders[order];
+    }
+
+    // the lowest amount of funds an option can take, the used amount of a candidate or the discounted value of an order
+    // left to be paid with whatever funds are left
+    long consumption(int order, int option) {
+        return methods[option] == LEFTOVER ? orderStore.getValue(order) - discounts[option] : dedicated[option];
+    }
+
+    // option leaving an order to be paid with whatever funds are left
+    int leftoverOption(int order) {
+        int option = starts[order];
+        while (methods[option] != LEFTOVER) {
+            option++;
+        }
+        return option;
+    }
+
+    // method returning the options of the candidates GreedySolver assigned, given the payment method assigned to every
+    // order or -1 if none was, every order has a single candidate of every payment method
+    int[] choicesOf(int[] assignedMethods) {
+        int[] choices = new int[size()];
+        for (int order = 0; order < choices.length; order++) {
+            int option = starts[order];
+            while (methods[option] != assignedMethods[order]) {
+                option++;
+            }
+            choices[order] = option;
+        }
+        return choices;
+    }
+
+    // insertion sort of the few options of a single order by decreasing discount, keeping the order of equal ones
+    private void sort(int start, int end) {
+        for (int i = start + 1; i < end; i++) {
+            for (int j = i; j > start && discounts[j] > discounts[j - 1]; j--) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        int method = methods[a];
+        methods[a] = methods[b];
+        methods[b] = method;
+        long dedicatedAmount = dedicated[a];
+        dedicated[a] = dedicated[b];
+        dedicated[b] = dedicatedAmount;
+        long discount = discounts[a];
+        discounts[a] = discounts[b];
+        discounts[b] = discount;
+        long rest = rests[a];
+        rests[a] = rests[b];
+        rests[b] = rest;
+    }
+
+    // method paying for the orders left by the choices, in their order, with the given points and funds of the other
+    // payment methods, returns their discount or -1 if any of them is not paid fully. GreedySolver.payLeftover() only
+    // depends on the sum of the other funds, so a ledger with a single other payment method gives the same outcome
+    long payLeftovers(int[] choices, long points, long otherFunds) {
+        FundsLedger ledger = new FundsLedger(new long[]{points, otherFunds}, 0);
+        long[] amounts = new long[2];
+        long discount = 0;
+        for (int order = 0; order < choices.length; order++) {
+            if (methods[choices[order]] != LEFTOVER)
+                continue;
+            long orderDiscount = GreedySolver.payLeftover(ledger, orderStore.getValue(order), amounts);
+            if (orderDiscount < 0)
+                return -1;
+            discount += orderDiscount;
+        }
+        return discount;
+    }
+
+    // method turning an option for every order into payments: the used amounts of the candidates are taken from their
+    // payment methods, then the orders left are paid in their order like GreedySolver does, so the result of the greedy
+    // choices is the greedy result
+    AssignmentResult toResult(int[] choices) {
+        int size = size();
+        FundsLedger ledger = new FundsLedger(limits, pointsIndex);
+        long[] spent = new long[limits.length];
+        boolean[] used = new boolean[limits.length];
+        boolean[] paid = new boolean[size];
+        long totalDiscount = 0;
+
+        for (int order = 0; order < size; order++) {
+            int option = choices[order];
+            int methodIndex = methods[option];
+            if (methodIndex == LEFTOVER)
+                continue;
+            ledger.setLimit(methodIndex, ledger.getLimit(methodIndex) - dedicated[option]);
+            spent[methodIndex] += dedicated[option];
+            used[methodIndex] = true;
+            totalDiscount += discounts[option];
+            paid[order] = true;
+        }
+
+        long[] amounts = new long[limits.length];
+        int failedOrder = -1;
+        for (int order = 0; order < size && failedOrder < 0; order++) {
+            if (paid[order])
+                continue;
+            long discount = GreedySolver.payLeftover(ledger, orderStore.getValue(order), amounts);
+            if (discount == GreedySolver.NOT_COVERED)
+                continue;
+            for (int methodIndex = 0; methodIndex < amounts.length; methodIndex++) {
+                if (amounts[methodIndex] == 0)
+                    continue;
+                spent[methodIndex] += amounts[methodIndex];
+                used[methodIndex] = true;
+                amounts[methodIndex] = 0;
+            }
+            if (discount == GreedySolver.FAILED) {
+                failedOrder = order;
+            } else {
+                paid[order] = true;
+                totalDiscount += discount;
+            }
+        }
+        return new AssignmentResult(spent, used, ledger.getLimits(), paid, totalDiscount, failedOrder);
+    }
+}
@@ -0,0 +1,323 @@
+package projects;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObjectBuilder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+// class collecting the time and memory taken by every phase of the calculation, together with counts of candidates
+// and leftover orders, readable through JMX as "projects:type=PipelineMetrics" or as a line of JSON
+//
+// metrics are disabled by default, then every phase only checks a volatile flag and no time is measured. Allocations
+// are measured for the thread running the phase, so work done by other threads, such as parallel generation of
+// candidates, is not included
+public final class PipelineMetrics implements PipelineMetricsMBean {
+
+    // phases of a calculation in the order they happen
+    public enum Phase {
+        READ, GENERATE, PRUNE, SORT, GREEDY, FALLBACK
+    }
+
+    public static final String OBJECT_NAME = "projects:type=PipelineMetrics";
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final AssignmentType[] TYPES = AssignmentType.values();
+
+    private static final PipelineMetrics INSTANCE = new PipelineMetrics();
+
+    // stopwatch returned while metrics are disabled, which does nothing
+    private static final Stopwatch DISABLED = new Stopwatch(null, null);
+
+    private volatile boolean enabled;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder[] phaseNanos = adders(PHASES.length);
+    private final LongAdder[] phaseBytes = adders(PHASES.length);
+    private final LongAdder[] candidates = adders(TYPES.length);
+    private final LongAdder prunedCandidates = new LongAdder();
+    private final LongAdder fallbackOrders = new LongAdder();
+    private final LongAdder totalDiscount = new LongAdder();
+
+    // source of allocated bytes of the current thread, null if the JVM cannot measure them
+    private final com.sun.management.ThreadMXBean allocations;
+
+    private PipelineMetrics() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean sunThreadMXBean
+                && sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+            sunThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+            this.allocations = sunThreadMXBean;
+        } else
+            this.allocations = null;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    public static PipelineMetrics get() {
+        return INSTANCE;
+    }
+
+    // method enabling the metrics and registering them with the platform MBean server, if they are not registered yet
+    public static PipelineMetrics enable() {
+        INSTANCE.setEnabled(true);
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!mBeanServer.isRegistered(objectName))
+                mBeanServer.registerMBean(INSTANCE, objectName);
+        } catch (JMException jmException) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, jmException);
+        }
+        return INSTANCE;
+    }
+
+    // method starting to measure phases of a calculation on the current thread, every lap() ends one phase and starts
+    // the next one
+    public static Stopwatch stopwatch() {
+        return stopwatch(null);
+    }
+
+    // method starting to measure phases, also adding their durations to phaseNanos indexed by the ordinals of the
+    // phases when it is not null, even if the metrics are disabled
+    static Stopwatch stopwatch(long[] phaseNanos) {
+        if (INSTANCE.enabled)
+            return new Stopwatch(INSTANCE, phaseNanos);
+        return phaseNanos == null ? DISABLED : new Stopwatch(null, phaseNanos);
+    }
+
+    // method counting the candidates of every type and the calculation they belong to
+    static void recordCandidates(CandidateBuffer buffer) {
+        if (!INSTANCE.enabled)
+            return;
+        long[] counts = new long[TYPES.length];
+        for (int candidate = 0; candidate < buffer.size(); candidate++) {
+            counts[buffer.getType(candidate).ordinal()]++;
+        }
+        for (int type = 0; type < TYPES.length; type++) {
+            INSTANCE.candidates[type].add(counts[type]);
+        }
+    }
+
+    // method counting candidates removed by CandidatePruner
+    static void recordPruned(int pruned) {
+        if (INSTANCE.enabled)
+            INSTANCE.prunedCandidates.add(pruned);
+    }
+
+    // method recording the outcome of a calculation
+    static void recordRun(int fallbackOrders, long totalDiscount) {
+        if (!INSTANCE.enabled)
+            return;
+        INSTANCE.runs.increment();
+        INSTANCE.fallbackOrders.add(fallbackOrders);
+        INSTANCE.totalDiscount.add(totalDiscount);
+    }
+
+    private long allocatedBytes() {
+        return allocations == null ? 0 : allocations.getCurrentThreadAllocatedBytes();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void reset() {
+        runs.reset();
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            phaseNanos[phase].reset();
+            phaseBytes[phase].reset();
+        }
+        for (LongAdder candidateCount : candidates) {
+            candidateCount.reset();
+        }
+        prunedCandidates.reset();
+        fallbackOrders.reset();
+        totalDiscount.reset();
+    }
+
+    public long getNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()].sum();
+    }
+
+    public long getAllocatedBytes(Phase phase) {
+        return phaseBytes[phase.ordinal()].sum();
+    }
+
+    public long getCandidates(AssignmentType type) {
+        return candidates[type.ordinal()].sum();
+    }
+
+    @Override
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    @Override
+    public long getReadNanos() {
+        return getNanos(Phase.READ);
+    }
+
+    @Override
+    public long getGenerateNanos() {
+        return getNanos(Phase.GENERATE);
+    }
+
+    @Override
+    public long getPruneNanos() {
+        return getNanos(Phase.PRUNE);
+    }
+
+    @Override
+    public long getSortNanos() {
+        return getNanos(Phase.SORT);
+    }
+
+    @Override
+    public long getGreedyNanos() {
+        return getNanos(Phase.GREEDY);
+    }
+
+    @Override
+    public long getFallbackNanos() {
+        return getNanos(Phase.FALLBACK);
+    }
+
+    @Override
+    public long getReadAllocatedBytes() {
+        return getAllocatedBytes(Phase.READ);
+    }
+
+    @Override
+    public long getGenerateAllocatedBytes() {
+        return getAllocatedBytes(Phase.GENERATE);
+    }
+
+    @Override
+    public long getPruneAllocatedBytes() {
+        return getAllocatedBytes(Phase.PRUNE);
+    }
+
+    @Override
+    public long getSortAllocatedBytes() {
+        return getAllocatedBytes(Phase.SORT);
+    }
+
+    @Override
+    public long getGreedyAllocatedBytes() {
+        return getAllocatedBytes(Phase.GREEDY);
+    }
+
+    @Override
+    public long getFallbackAllocatedBytes() {
+        return getAllocatedBytes(Phase.FALLBACK);
+    }
+
+    @Override
+    public long getPointsCandidates() {
+        return getCandidates(AssignmentType.POINTS);
+    }
+
+    @Override
+    public long getCardCandidates() {
+        return getCandidates(AssignmentType.CARD);
+    }
+
+    @Override
+    public long getPartialCandidates() {
+        return getCandidates(AssignmentType.PARTIAL);
+    }
+
+    @Override
+    public long getPrunedCandidates() {
+        return prunedCandidates.sum();
+    }
+
+    @Override
+    public long getFallbackOrders() {
+        return fallbackOrders.sum();
+    }
+
+    @Override
+    public long getTotalDiscount() {
+        return totalDiscount.sum();
+    }
+
+    // summary such as {"runs":1,"phases":{"read":{"nanos":..,"allocatedBytes":..},...},"candidates":{"points":..,...},"prunedCandidates":..,
+    // "fallbackOrders":..,"totalDiscount":"123.45"}
+    @Override
+    public String getSummary() {
+        JsonObjectBuilder phases = Json.createObjectBuilder();
+        for (Phase phase : PHASES) {
+            phases.add(phase.name().toLowerCase(), Json.createObjectBuilder()
+                    .add("nanos", getNanos(phase))
+                    .add("allocatedBytes", getAllocatedBytes(phase)));
+        }
+        JsonObjectBuilder candidateCounts = Json.createObjectBuilder();
+        for (AssignmentType type : TYPES) {
+            candidateCounts.add(type.name().toLowerCase(), getCandidates(type));
+        }
+        return Json.createObjectBuilder()
+                .add("runs", getRuns())
+                .add("phases", phases)
+                .add("candidates", candidateCounts)
+                .add("prunedCandidates", getPrunedCandidates())
+                .add("fallbackOrders", getFallbackOrders())
+                .add("totalDiscount", BigDecimal.valueOf(getTotalDiscount(), 2).toPlainString())
+                .build().toString();
+    }
+
+    // class measuring consecutive phases of a calculation on a single thread
+    public static final class Stopwatch {
+        private final PipelineMetrics metrics;
+        private final long[] phaseNanos;
+        private long nanos;
+        private long bytes;
+
+        private Stopwatch(PipelineMetrics metrics, long[] phaseNanos) {
+            this.metrics = metrics;
+            this.phaseNanos = phaseNanos;
+            if (phaseNanos != null)
+                Arrays.fill(phaseNanos, 0);
+            if (metrics != null || phaseNanos != null)
+                this.nanos = System.nanoTime();
+            if (metrics != null)
+                this.bytes = metrics.allocatedBytes();
+        }
+
+        // method adding the time and memory since the previous lap to a phase
+        public void lap(Phase phase) {
+            if (metrics == null && phaseNanos == null)
+                return;
+            long now = System.nanoTime();
+            if (phaseNanos != null)
+                phaseNanos[phase.ordinal()] += now - nanos;
+            if (metrics != null) {
+                long allocated = metrics.allocatedBytes();
+                metrics.phaseNanos[phase.ordinal()].add(now - nanos);
+                metrics.phaseBytes[phase.ordinal()].add(allocated - bytes);
+                bytes = allocated;
+            }
+            nanos = now;
+        }
+    }
+}
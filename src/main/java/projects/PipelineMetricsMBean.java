@@ -0,0 +1,57 @@
+package projects;
+
+// management interface of PipelineMetrics, times are in nanoseconds and allocations in bytes, both summed over all
+// calculations since the last reset
+public interface PipelineMetricsMBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    // method setting all counters back to zero
+    void reset();
+
+    long getRuns();
+
+    long getReadNanos();
+
+    long getGenerateNanos();
+
+    long getPruneNanos();
+
+    long getSortNanos();
+
+    long getGreedyNanos();
+
+    long getFallbackNanos();
+
+    long getReadAllocatedBytes();
+
+    long getGenerateAllocatedBytes();
+
+    long getPruneAllocatedBytes();
+
+    long getSortAllocatedBytes();
+
+    long getGreedyAllocatedBytes();
+
+    long getFallbackAllocatedBytes();
+
+    long getPointsCandidates();
+
+    long getCardCandidates();
+
+    long getPartialCandidates();
+
+    // number of candidates removed by CandidatePruner before sorting
+    long getPrunedCandidates();
+
+    // number of orders left unpaid by the greedy pass and handled by the loop paying for leftover orders
+    long getFallbackOrders();
+
+    // total discount of all calculations in grosze
+    long getTotalDiscount();
+
+    // all counters as a single line of JSON
+    String getSummary();
+}
@@ -0,0 +1,195 @@
+package projects;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// class remembering the results of the latest calculations, so that the same basket and wallet sent again, e.g. after a
+// page refresh or a retry, is answered without generating and choosing assignments again. It is a solver itself, so it
+// can be put in front of CalculationsClass with setSolver(), and the same cache can be shared by many of them
+//
+// the key is a canonical encoding of everything a solver reads: ids, limits and discounts of the payment methods,
+// values and promotions of the orders and which of them share an id, as only the first assignment of an id counts, but
+// not the ids of the orders themselves or of promotions no payment method has. Keys are
+// compared byte by byte and only deterministic solvers are accepted, so a cached result is the one a fresh calculation
+// would give. Only the given number of the most recently used results is kept, calculations whose order could only be
+// paid partially are never cached
+public class ResultCache implements AssignmentSolver {
+
+    // solver calculating missing results, it must not keep any state between calls
+    private final AssignmentSolver solver;
+
+    private final int maxEntries;
+
+    // results in the order of their last use, the least recently used first, guarded by itself
+    private final LinkedHashMap<Key, AssignmentResult> results;
+
+    private final SolverState.Pool states = new SolverState.Pool();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResultCache(AssignmentSolver solver, int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("Cache size must be positive, got " + maxEntries);
+        if (!solver.isDeterministic())
+            throw new IllegalArgumentException("Results of " + solver.getClass().getSimpleName()
+                    + " cannot be cached, as they depend on more than the input");
+        this.solver = solver;
+        this.maxEntries = maxEntries;
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, AssignmentResult> eldest) {
+                if (size() <= ResultCache.this.maxEntries)
+                    return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    // record storing the numbers of results found in the cache, calculated and dropped to make room, and its size
+    public record Stats(long hits, long misses, long evictions, int size) {
+
+        // share of lookups answered from the cache, 0 before the first one
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    @Override
+    public AssignmentResult solve(OrderStore orderStore, List<PaymentMethod> paymentMethods) {
+        return solve(InputSnapshot.of(orderStore, paymentMethods), new SolverState());
+    }
+
+    // method returning the cached result of a snapshot, calculating it with the given state if it is not cached
+    @Override
+    public AssignmentResult solve(InputSnapshot snapshot, SolverState state) {
+        Key key = Key.of(snapshot);
+        AssignmentResult result;
+        synchronized (results) {
+            result = results.get(key);
+        }
+        if (result != null) {
+            hits.increment();
+            return copy(result);
+        }
+        misses.increment();
+
+        // calculated without holding the lock, the same basket requested twice at once is simply calculated twice
+        result = solver.solve(snapshot, state);
+        if (result.failedOrder() < 0) {
+            synchronized (results) {
+                results.put(key, copy(result));
+            }
+        }
+        return result;
+    }
+
+    // a cache is as deterministic as its solver, which is checked by the constructor
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    // method returning the result of a snapshot with the given id, calculating it if it is not cached, or the error of
+    // CostsResult.insufficientFunds() if an order could only be paid partially
+    public CostsResult get(String id, InputSnapshot snapshot) {
+        SolverState state = states.acquire();
+        AssignmentResult result;
+        try {
+            result = solve(snapshot, state);
+        } finally {
+            states.release(state);
+        }
+        if (result.failedOrder() >= 0)
+            return CostsResult.insufficientFunds(id, snapshot.getOrderStore(), result.failedOrder());
+        return CostsResult.of(id, snapshot, result);
+    }
+
+    // cached results are copied in and out, as callers may change the arrays of a result
+    private static AssignmentResult copy(AssignmentResult result) {
+        return new AssignmentResult(result.spent().clone(), result.used().clone(), result.remainingLimits().clone(),
+                result.paid().clone(), result.totalDiscount(), result.failedOrder());
+    }
+
+    public Stats getStats() {
+        synchronized (results) {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), results.size());
+        }
+    }
+
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    // class storing the canonical encoding of a snapshot together with its hash
+    static final class Key {
+        private final byte[] bytes;
+        private final int hash;
+
+        private Key(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        // method encoding a snapshot, where a promotion of an order is the code of the payment method with its id or,
+        // if there is none, -1 - its index, which keeps the numbering of promotions the solvers rely on, and the id of
+        // an order is the index of the first order with the same id
+        static Key of(InputSnapshot snapshot) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            try {
+                MethodDictionary dictionary = snapshot.getDictionary();
+                output.writeInt(snapshot.getMethodCount());
+                for (int method = 0; method < snapshot.getMethodCount(); method++) {
+                    output.writeUTF(snapshot.getMethodId(method));
+                    output.writeLong(snapshot.getLimit(method));
+                    output.writeLong(snapshot.getDiscount(method));
+                }
+
+                OrderStore orderStore = snapshot.getOrderStore();
+                int[] promotionCodes = new int[orderStore.getPromotionCount()];
+                for (int promotion = 0; promotion < promotionCodes.length; promotion++) {
+                    int code = dictionary.codeOf(orderStore.getPromotionId(promotion));
+                    promotionCodes[promotion] = code >= 0 ? code : -1 - promotion;
+                }
+                int[] firstOrders = orderStore.getFirstOrdersWithSameId();
+                output.writeInt(orderStore.size());
+                output.writeBoolean(firstOrders != null);
+                for (int order = 0; order < orderStore.size(); order++) {
+                    if (firstOrders != null)
+                        output.writeInt(firstOrders[order]);
+                    output.writeLong(orderStore.getValue(order));
+                    output.writeInt(orderStore.promotionsEnd(order) - orderStore.promotionsStart(order));
+                    for (int k = orderStore.promotionsStart(order); k < orderStore.promotionsEnd(order); k++) {
+                        output.writeInt(promotionCodes[orderStore.getPromotion(k)]);
+                    }
+                }
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            return new Key(bytes.toByteArray());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && hash == key.hash && Arrays.equals(bytes, key.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
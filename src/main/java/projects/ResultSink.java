@@ -0,0 +1,30 @@
+package projects;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+
+// interface of writers of results, such as the costs printed by Main or the lines of BatchRunner
+//
+// sinks write to a single buffered channel and are not thread safe, results of many threads have to be written by one
+public interface ResultSink extends AutoCloseable {
+
+    void write(CostsResult result);
+
+    // method writing everything buffered so far to the channel
+    void flush();
+
+    // method flushing the sink and closing its channel
+    @Override
+    void close();
+
+    // method creating the sink chosen by Main's "--output=<format>" option: "text", "ndjson" or "binary"
+    static ResultSink create(String format, OutputStream outputStream, PrintStream messages) {
+        return switch (format) {
+            case "text" -> new TextResultSink(Channels.newChannel(outputStream), messages);
+            case "ndjson" -> new NdjsonResultSink(Channels.newChannel(outputStream));
+            case "binary" -> new BinaryResultSink(Channels.newChannel(outputStream));
+            default -> throw new IllegalArgumentException("Unknown output format " + format + ", expected text, ndjson or binary");
+        };
+    }
+}
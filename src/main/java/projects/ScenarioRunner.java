@@ -0,0 +1,133 @@
+package projects;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// class evaluating many variants of the payment methods against the same orders in parallel, the orders and their
+// promotions are read once and shared by all variants through InputSnapshot
+//
+// a variant is given either as a path to a payment methods file or as "<name>:<change>,<change>,..." where every
+// change is one of:
+//  * <method>.discount=<percent> - sets the discount of a payment method, such as mZysk.discount=12
+//  * <method>.limit=<amount> - sets the limit of a payment method, such as PUNKTY.limit=200.00
+//  * <method>.limit*=<factor> - multiplies the limit of a payment method, such as PUNKTY.limit*=2
+// applied to the base payment methods
+public class ScenarioRunner {
+
+    // name of the scenario with the base payment methods, always evaluated first
+    public static final String BASE = "base";
+
+    private final InputSnapshot base;
+
+    private final AssignmentSolver solver;
+
+    // states reused by the scenarios evaluated on the same thread one after another
+    private final SolverState.Pool states = new SolverState.Pool();
+
+    // record of a variant of the payment methods
+    public record Scenario(String name, InputSnapshot snapshot) {
+    }
+
+    // record of the outcome of a scenario, amounts are in grosze
+    public record Outcome(String name, long totalCost, long totalDiscount, boolean allPaid) {
+    }
+
+    public ScenarioRunner(InputSnapshot base, AssignmentSolver solver) {
+        this.base = base;
+        this.solver = solver;
+    }
+
+    public InputSnapshot getBase() {
+        return base;
+    }
+
+    // method creating a scenario from a payment methods file or from changes of the base payment methods
+    public Scenario parse(String variant) {
+        int colon = variant.indexOf(':');
+        if (colon < 0 && variant.endsWith(".json")) {
+            InputSnapshot snapshot = InputSnapshot.of(base.getOrderStore(), JsonFileReader.readPaymentMethodsFile(variant));
+            return new Scenario(Path.of(variant).getFileName().toString(), snapshot);
+        }
+        if (colon <= 0)
+            throw new IllegalArgumentException("Scenario must be a .json file or \"<name>:<changes>\", got \"" + variant + "\"");
+
+        InputSnapshot snapshot = base;
+        for (String change : variant.substring(colon + 1).split(",")) {
+            int dot = change.lastIndexOf('.', change.indexOf('='));
+            int equals = change.indexOf('=');
+            if (dot <= 0 || equals < dot)
+                throw new IllegalArgumentException("Wrong change \"" + change + "\" in scenario \"" + variant + "\"");
+
+            String methodId = change.substring(0, dot);
+            int method = snapshot.indexOfMethod(methodId);
+            if (method < 0)
+                throw new IllegalArgumentException("No payment method " + methodId + " in scenario \"" + variant + "\"");
+
+            String property = change.substring(dot + 1, equals);
+            String value = change.substring(equals + 1);
+            snapshot = switch (property) {
+                case "discount" -> snapshot.withDiscount(method, Money.parsePercent(value));
+                case "limit" -> snapshot.withLimit(method, Money.parse(value));
+                case "limit*" -> snapshot.withLimit(method, new BigDecimal(value)
+                        .multiply(BigDecimal.valueOf(snapshot.getLimit(method))).setScale(0, RoundingMode.HALF_UP).longValueExact());
+                default -> throw new IllegalArgumentException("Unknown property " + property + " in scenario \"" + variant + "\"");
+            };
+        }
+        return new Scenario(variant.substring(0, colon), snapshot);
+    }
+
+    // method evaluating the base payment methods and all scenarios in parallel, outcomes are in the same order as the
+    // scenarios, preceded by the base one
+    public List<Outcome> run(List<Scenario> scenarios) {
+        List<Scenario> all = new ArrayList<>();
+        all.add(new Scenario(BASE, base));
+        all.addAll(scenarios);
+        return IntStream.range(0, all.size()).parallel().mapToObj(i -> evaluate(all.get(i))).toList();
+    }
+
+    private Outcome evaluate(Scenario scenario) {
+        SolverState state = states.acquire();
+        try {
+            AssignmentResult result = solver.solve(scenario.snapshot(), state);
+            long totalCost = 0;
+            for (long spent : result.spent()) {
+                totalCost += spent;
+            }
+            return new Outcome(scenario.name(), totalCost, result.totalDiscount(), result.allPaid());
+        } finally {
+            states.release(state);
+        }
+    }
+
+    // method formatting outcomes as a table, with differences from the first outcome
+    public static String formatTable(List<Outcome> outcomes) {
+        int nameWidth = "scenario".length();
+        for (Outcome outcome : outcomes) {
+            nameWidth = Math.max(nameWidth, outcome.name().length());
+        }
+        String format = "%-" + nameWidth + "s %15s %15s %15s %15s %9s%n";
+
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(format, "scenario", "total cost", "total discount", "cost change", "discount change", "all paid"));
+        Outcome first = outcomes.getFirst();
+        for (Outcome outcome : outcomes) {
+            table.append(String.format(format, outcome.name(), amount(outcome.totalCost()), amount(outcome.totalDiscount()),
+                    signedAmount(outcome.totalCost() - first.totalCost()),
+                    signedAmount(outcome.totalDiscount() - first.totalDiscount()), outcome.allPaid() ? "yes" : "no"));
+        }
+        return table.toString();
+    }
+
+    // amount in grosze written with two decimal places
+    private static String amount(long amount) {
+        return BigDecimal.valueOf(amount, 2).toPlainString();
+    }
+
+    private static String signedAmount(long amount) {
+        return (amount > 0 ? "+" : "") + amount(amount);
+    }
+}
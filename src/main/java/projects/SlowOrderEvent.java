@@ -0,0 +1,45 @@
+package projects;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JDK Flight Recorder event for an order settled by the loop paying for leftover orders that took at least
+// SLOW_ORDER_NANOS or needed at least MANY_METHODS payment methods, other orders are not committed at all
+//
+// thresholds can be changed with the system properties "projects.slowOrderMicros" (100 by default) and
+// "projects.manyMethods" (3 by default)
+@Name("projects.SlowOrder")
+@Label("Slow Order")
+@Category("Payment Methods Promotions")
+@Description("Leftover order that took long to settle or needed many payment methods")
+@StackTrace(false)
+public class SlowOrderEvent extends Event {
+
+    static final long SLOW_ORDER_NANOS = Long.getLong("projects.slowOrderMicros", 100) * 1000;
+
+    static final int MANY_METHODS = Integer.getInteger("projects.manyMethods", 3);
+
+    @Label("Order")
+    String orderId;
+
+    @Label("Value")
+    @Description("Value of the order in grosze")
+    long value;
+
+    @Label("Payment Methods")
+    @Description("Number of payment methods the order has been paid with, including points")
+    int methodCount;
+
+    @Label("Paid")
+    @Description("False if the order could only be paid partially, which stopped the calculation")
+    boolean paid;
+
+    // method checking whether a settled order is worth recording
+    static boolean isOutlier(long nanos, int methodCount) {
+        return nanos >= SLOW_ORDER_NANOS || methodCount >= MANY_METHODS;
+    }
+}
@@ -0,0 +1,300 @@
+package projects;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+// class writing an InputSnapshot to a compact binary file and loading it back by memory-mapping the file, so that
+// loading reads only the header, the promotion ids and the payment methods, and order columns are read from the
+// mapped file when they are used. JSON files stay the format for exchanging data, this one is only a faster copy
+//
+// layout, all numbers little-endian and every section starting at a multiple of 8 bytes:
+//  * header - MAGIC, VERSION, number of orders, of distinct promotions, of payment methods, of order promotions
+//    and of bytes of order ids, all as ints
+//  * values of the orders in grosze, as longs
+//  * offsets of the order ids, offsets of the promotions of every order and promotion indices, as ints
+//  * offsets of the orders of every promotion and order indices, as ints
+//  * order ids encoded in UTF-8 one after another
+//  * ids of the promotions, each as an int length followed by UTF-8 bytes
+//  * payment methods, each as an int length followed by the UTF-8 id, the limit in grosze and the discount in basis
+//    points as longs
+public class SnapshotFile {
+
+    // "PMPS" read as a little-endian int
+    static final int MAGIC = 0x53504D50;
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 7 * Integer.BYTES;
+
+    private SnapshotFile() {
+    }
+
+    // method writing a snapshot to a file, replacing it if it exists
+    public static void write(InputSnapshot snapshot, Path path) {
+        OrderStore orderStore = snapshot.getOrderStore();
+        int size = orderStore.size();
+        int promotionCount = orderStore.getPromotionCount();
+        int orderPromotions = size == 0 ? 0 : orderStore.promotionsEnd(size - 1);
+
+        byte[][] ids = new byte[size][];
+        int idBytes = 0;
+        for (int order = 0; order < size; order++) {
+            ids[order] = orderStore.getId(order).getBytes(StandardCharsets.UTF_8);
+            idBytes += ids[order].length;
+        }
+        byte[][] promotionIds = new byte[promotionCount][];
+        long promotionIdBytes = 0;
+        for (int promotion = 0; promotion < promotionCount; promotion++) {
+            promotionIds[promotion] = orderStore.getPromotionId(promotion).getBytes(StandardCharsets.UTF_8);
+            promotionIdBytes += Integer.BYTES + promotionIds[promotion].length;
+        }
+        byte[][] methodIds = new byte[snapshot.getMethodCount()][];
+        long methodBytes = 0;
+        for (int method = 0; method < methodIds.length; method++) {
+            methodIds[method] = snapshot.getMethodId(method).getBytes(StandardCharsets.UTF_8);
+            methodBytes += Integer.BYTES + methodIds[method].length + 2 * Long.BYTES;
+        }
+
+        Layout layout = new Layout(size, promotionCount, orderPromotions, idBytes);
+        long fileSize = layout.promotionIdsStart + promotionIdBytes + methodBytes;
+        if (fileSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Snapshot of " + fileSize + " bytes is too big for a single file");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(promotionCount).putInt(methodIds.length)
+                    .putInt(orderPromotions).putInt(idBytes);
+
+            buffer.position(layout.valuesStart);
+            for (int order = 0; order < size; order++) {
+                buffer.putLong(orderStore.getValue(order));
+            }
+            buffer.position(layout.idOffsetsStart);
+            int idOffset = 0;
+            buffer.putInt(idOffset);
+            for (int order = 0; order < size; order++) {
+                idOffset += ids[order].length;
+                buffer.putInt(idOffset);
+            }
+            buffer.position(layout.promotionOffsetsStart);
+            buffer.putInt(0);
+            for (int order = 0; order < size; order++) {
+                buffer.putInt(orderStore.promotionsEnd(order));
+            }
+            buffer.position(layout.promotionsStart);
+            for (int k = 0; k < orderPromotions; k++) {
+                buffer.putInt(orderStore.getPromotion(k));
+            }
+            buffer.position(layout.ordersByPromotionOffsetsStart);
+            buffer.putInt(0);
+            for (int promotion = 0; promotion < promotionCount; promotion++) {
+                buffer.putInt(orderStore.ordersByPromotionEnd(promotion));
+            }
+            buffer.position(layout.ordersByPromotionStart);
+            for (int k = 0; k < orderPromotions; k++) {
+                buffer.putInt(orderStore.getOrderByPromotion(k));
+            }
+            buffer.position(layout.idBytesStart);
+            for (byte[] id : ids) {
+                buffer.put(id);
+            }
+
+            buffer.position(layout.promotionIdsStart);
+            for (byte[] promotionId : promotionIds) {
+                buffer.putInt(promotionId.length).put(promotionId);
+            }
+            for (int method = 0; method < methodIds.length; method++) {
+                buffer.putInt(methodIds[method].length).put(methodIds[method]);
+                buffer.putLong(snapshot.getLimit(method)).putLong(snapshot.getDiscount(method));
+            }
+            buffer.force();
+        } catch (IOException ioException) {
+            throw new UncheckedIOException("Cannot write snapshot " + path, ioException);
+        }
+    }
+
+    // method loading a snapshot by memory-mapping the file, the file must not be changed while the snapshot is used
+    public static InputSnapshot load(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Not a snapshot file: " + path);
+
+            // the mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC)
+                throw new IllegalArgumentException("Not a snapshot file: " + path);
+            if (buffer.getInt(4) != VERSION)
+                throw new IllegalArgumentException("Unsupported snapshot version " + buffer.getInt(4) + " in " + path);
+
+            int size = buffer.getInt(8);
+            int promotionCount = buffer.getInt(12);
+            int methodCount = buffer.getInt(16);
+            Layout layout = new Layout(size, promotionCount, buffer.getInt(20), buffer.getInt(24));
+
+            // promotion ids and payment methods are few, so they are read right away
+            buffer.position(layout.promotionIdsStart);
+            String[] promotionIds = new String[promotionCount];
+            HashMap<String, Integer> promotionIndices = new HashMap<>();
+            for (int promotion = 0; promotion < promotionCount; promotion++) {
+                promotionIds[promotion] = readString(buffer);
+                promotionIndices.put(promotionIds[promotion], promotion);
+            }
+            String[] methodIds = new String[methodCount];
+            long[] limits = new long[methodCount];
+            long[] discounts = new long[methodCount];
+            for (int method = 0; method < methodCount; method++) {
+                methodIds[method] = readString(buffer);
+                limits[method] = buffer.getLong();
+                discounts[method] = buffer.getLong();
+            }
+
+            OrderStore orderStore = new MappedOrderStore(buffer, layout, promotionIds, promotionIndices);
+            return InputSnapshot.of(orderStore, methodIds, limits, discounts);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException("Cannot read snapshot " + path, ioException);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // class calculating where every section of the file starts
+    private static class Layout {
+        private final int size;
+        private final int valuesStart;
+        private final int idOffsetsStart;
+        private final int promotionOffsetsStart;
+        private final int promotionsStart;
+        private final int ordersByPromotionOffsetsStart;
+        private final int ordersByPromotionStart;
+        private final int idBytesStart;
+        private final int promotionIdsStart;
+
+        private Layout(int size, int promotionCount, int orderPromotions, int idBytes) {
+            this.size = size;
+            this.valuesStart = align(HEADER_SIZE);
+            this.idOffsetsStart = align(valuesStart + (long) size * Long.BYTES);
+            this.promotionOffsetsStart = align(idOffsetsStart + (size + 1L) * Integer.BYTES);
+            this.promotionsStart = align(promotionOffsetsStart + (size + 1L) * Integer.BYTES);
+            this.ordersByPromotionOffsetsStart = align(promotionsStart + (long) orderPromotions * Integer.BYTES);
+            this.ordersByPromotionStart = align(ordersByPromotionOffsetsStart + (promotionCount + 1L) * Integer.BYTES);
+            this.idBytesStart = align(ordersByPromotionStart + (long) orderPromotions * Integer.BYTES);
+            this.promotionIdsStart = align(idBytesStart + (long) idBytes);
+        }
+
+        private static int align(long position) {
+            long aligned = (position + 7) & ~7L;
+            if (aligned > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Snapshot is too big for a single file");
+            return (int) aligned;
+        }
+    }
+
+    // OrderStore reading its columns straight from the mapped file
+    private static class MappedOrderStore extends OrderStore {
+        private final int size;
+        private final LongBuffer values;
+        private final ByteBuffer idBytes;
+        private final IntBuffer idOffsets;
+        private final IntBuffer promotionOffsets;
+        private final IntBuffer promotions;
+        private final IntBuffer ordersByPromotionOffsets;
+        private final IntBuffer ordersByPromotion;
+        private final String[] promotionIds;
+        private final HashMap<String, Integer> promotionIndices;
+
+        private MappedOrderStore(ByteBuffer buffer, Layout layout, String[] promotionIds, HashMap<String, Integer> promotionIndices) {
+            this.size = layout.size;
+            this.values = section(buffer, layout.valuesStart, layout.idOffsetsStart).asLongBuffer();
+            this.idOffsets = section(buffer, layout.idOffsetsStart, layout.promotionOffsetsStart).asIntBuffer();
+            this.promotionOffsets = section(buffer, layout.promotionOffsetsStart, layout.promotionsStart).asIntBuffer();
+            this.promotions = section(buffer, layout.promotionsStart, layout.ordersByPromotionOffsetsStart).asIntBuffer();
+            this.ordersByPromotionOffsets = section(buffer, layout.ordersByPromotionOffsetsStart, layout.ordersByPromotionStart).asIntBuffer();
+            this.ordersByPromotion = section(buffer, layout.ordersByPromotionStart, layout.idBytesStart).asIntBuffer();
+            this.idBytes = section(buffer, layout.idBytesStart, layout.promotionIdsStart);
+            this.promotionIds = promotionIds;
+            this.promotionIndices = promotionIndices;
+        }
+
+        private static ByteBuffer section(ByteBuffer buffer, int start, int end) {
+            return buffer.slice(start, end - start).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long getValue(int order) {
+            return values.get(order);
+        }
+
+        @Override
+        public String getId(int order) {
+            int start = idOffsets.get(order);
+            byte[] bytes = new byte[idOffsets.get(order + 1) - start];
+            idBytes.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int getPromotionCount() {
+            return promotionIds.length;
+        }
+
+        @Override
+        public String getPromotionId(int promotion) {
+            return promotionIds[promotion];
+        }
+
+        @Override
+        public int indexOfPromotion(String promotionId) {
+            return promotionIndices.getOrDefault(promotionId, -1);
+        }
+
+        @Override
+        public int promotionsStart(int order) {
+            return promotionOffsets.get(order);
+        }
+
+        @Override
+        public int promotionsEnd(int order) {
+            return promotionOffsets.get(order + 1);
+        }
+
+        @Override
+        public int getPromotion(int position) {
+            return promotions.get(position);
+        }
+
+        @Override
+        public int ordersByPromotionStart(int promotion) {
+            return ordersByPromotionOffsets.get(promotion);
+        }
+
+        @Override
+        public int ordersByPromotionEnd(int promotion) {
+            return ordersByPromotionOffsets.get(promotion + 1);
+        }
+
+        @Override
+        public int getOrderByPromotion(int position) {
+            return ordersByPromotion.get(position);
+        }
+    }
+}
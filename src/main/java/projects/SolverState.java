@@ -0,0 +1,75 @@
+package projects;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// class holding the mutable buffers of a single calculation, which can be reset and reused by later calculations
+// instead of being allocated again, a state must be used by one calculation at a time
+public class SolverState {
+
+    // possible assignments of the calculation
+    final CandidateBuffer candidates = new CandidateBuffer();
+
+    // remaining limits of the payment methods
+    FundsLedger ledger;
+
+    // funds spent with every payment method and whether the method has been used at all
+    long[] spent = new long[0];
+    boolean[] used = new boolean[0];
+
+    boolean[] paid = new boolean[0];
+
+    // number of assignments removed by CandidatePruner in the last calculation
+    int prunedCandidates;
+
+    // durations of the phases of the calculation in nanoseconds indexed by the ordinals of PipelineMetrics.Phase,
+    // measured by solvers that support it and only when the array is not null
+    long[] phaseNanos;
+
+    // method preparing the state for a calculation on the given snapshot, growing the buffers only when needed
+    public void reset(InputSnapshot snapshot) {
+        int methodCount = snapshot.getMethodCount();
+        if (ledger == null || ledger.size() != methodCount)
+            ledger = new FundsLedger(snapshot);
+        else
+            ledger.reset(snapshot);
+
+        if (spent.length != methodCount) {
+            spent = new long[methodCount];
+            used = new boolean[methodCount];
+        } else {
+            Arrays.fill(spent, 0);
+            Arrays.fill(used, false);
+        }
+
+        int orderCount = snapshot.getOrderStore().size();
+        if (paid.length != orderCount)
+            paid = new boolean[orderCount];
+        else
+            Arrays.fill(paid, false);
+
+        candidates.clear();
+        prunedCandidates = 0;
+    }
+
+    // method creating a result with copies of the arrays, so that it stays valid after the state is reused
+    AssignmentResult toResult(long totalDiscount, int failedOrder) {
+        return new AssignmentResult(spent.clone(), used.clone(), ledger.getLimits(), paid.clone(), totalDiscount, failedOrder);
+    }
+
+    // class keeping states that are not in use, so that calculations running at the same time can share them
+    public static class Pool {
+        private final ConcurrentLinkedQueue<SolverState> states = new ConcurrentLinkedQueue<>();
+
+        // returns a state that is not used by anyone else, a new one if there is none
+        public SolverState acquire() {
+            SolverState state = states.poll();
+            return state != null ? state : new SolverState();
+        }
+
+        // gives a state back after the calculation has finished with it
+        public void release(SolverState state) {
+            states.offer(state);
+        }
+    }
+}
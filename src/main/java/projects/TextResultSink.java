@@ -0,0 +1,41 @@
+package projects;
+
+import java.io.PrintStream;
+import java.nio.channels.WritableByteChannel;
+
+// sink writing results in the format printed by the program from the beginning, a line "<method id> <cost>" for every
+// payment method, with the id of the basket in front of it in batch mode, while errors and the message about orders
+// left unpaid go to a separate stream, usually the standard error output
+public class TextResultSink extends BufferedResultSink {
+
+    private final PrintStream messages;
+
+    public TextResultSink(WritableByteChannel channel, PrintStream messages) {
+        super(channel);
+        this.messages = messages;
+    }
+
+    @Override
+    public void write(CostsResult result) {
+        String prefix = result.id() == null ? "" : result.id() + ": ";
+        if (result.isError()) {
+            flush();
+            messages.println(prefix + result.error());
+            return;
+        }
+        for (int method = 0; method < result.methodIds().length; method++) {
+            if (result.id() != null) {
+                putString(result.id());
+                putByte(' ');
+            }
+            putString(result.methodIds()[method]);
+            putByte(' ');
+            putAmount(result.costs()[method]);
+            putByte('\n');
+        }
+        if (!result.allPaid()) {
+            flush();
+            messages.println(prefix + "Insufficient amount of funds to pay for all orders!");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import projects.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<JsonObject> lines(ByteArrayOutputStream outputStream) {
+        return outputStream.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> Json.createReader(new StringReader(line)).readObject()).toList();
+    }
+
+    // method creating a basket with a single order, which can be paid with points only if the limit is high enough
+    private static String basket(String id, int value, String pointsLimit) {
+        return "{" + (id == null ? "" : "\"id\": \"" + id + "\", ")
+                + "\"orders\": [{\"id\": \"ORDER1\", \"value\": \"" + value + ".00\", \"promotions\": [\"mZysk\"]}], "
+                + "\"paymentMethods\": [{\"id\": \"PUNKTY\", \"discount\": \"15\", \"limit\": \"" + pointsLimit + "\"}, "
+                + "{\"id\": \"mZysk\", \"discount\": \"10\", \"limit\": \"50.00\"}]}";
+    }
+
+    // test checking whether every line gives a result in the order of the input, with errors for invalid baskets
+    @Test
+    public void testNdjson() {
+        String input = String.join("\n", basket("first", 10, "100.00"), basket(null, 40, "0.00"), "",
+                "{\"orders\": [", basket("last", 80, "0.00")) + "\n";
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BatchRunner.Summary summary = new BatchRunner(new GreedySolver(), 2)
+                .runNdjson(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), outputStream);
+
+        assertEquals(new BatchRunner.Summary(4, 1), summary);
+        List<JsonObject> lines = lines(outputStream);
+        assertEquals(4, lines.size());
+
+        assertEquals("first", lines.get(0).getString("id"));
+        assertEquals("8.50", lines.get(0).getJsonObject("costs").getString("PUNKTY"));
+        assertEquals("0.00", lines.get(0).getJsonObject("costs").getString("mZysk"));
+        assertTrue(lines.get(0).getBoolean("allPaid"));
+
+        assertEquals("2", lines.get(1).getString("id"));
+        assertEquals("36.00", lines.get(1).getJsonObject("costs").getString("mZysk"));
+
+        assertEquals("4", lines.get(2).getString("id"));
+        assertTrue(lines.get(2).containsKey("error"));
+
+        // 80.00 cannot be paid with 50.00 left on the card
+        assertEquals("last", lines.get(3).getString("id"));
+        assertFalse(lines.get(3).getBoolean("allPaid"));
+    }
+
+    // test checking whether many baskets calculated on several threads are written in the order of the input
+    @Test
+    public void testManyBaskets() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 200; i++) {
+            input.append(basket("basket" + i, i % 50 + 1, "100.00")).append('\n');
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BatchRunner.Summary summary = new BatchRunner(new GreedySolver(), 3)
+                .runNdjson(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), outputStream);
+
+        assertEquals(new BatchRunner.Summary(200, 0), summary);
+        List<JsonObject> lines = lines(outputStream);
+        for (int i = 1; i <= 200; i++) {
+            JsonObject line = lines.get(i - 1);
+            assertEquals("basket" + i, line.getString("id"));
+            BigDecimal expected = BigDecimal.valueOf((i % 50 + 1) * 85L, 2);
+            assertEquals(expected, new BigDecimal(line.getJsonObject("costs").getString("PUNKTY")));
+        }
+    }
+
+    // test checking whether subdirectories with input files give the same costs as CalculationsClass
+    @Test
+    public void testDirectory() throws IOException {
+        for (int test = 1; test <= 3; test++) {
+            Path basket = Files.createDirectory(directory.resolve("test" + test));
+            Files.copy(Path.of("src/test/data/valueTests/test" + test + "/orders.json"), basket.resolve("orders.json"));
+            Files.copy(Path.of("src/test/data/valueTests/test" + test + "/paymentmethods.json"), basket.resolve("paymentmethods.json"));
+        }
+        Files.createDirectory(directory.resolve("empty"));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BatchRunner.Summary summary = new BatchRunner(new GreedySolver(), 2).runDirectory(directory, outputStream);
+        assertEquals(3, summary.baskets());
+
+        List<JsonObject> lines = lines(outputStream);
+        for (int test = 1; test <= 3; test++) {
+            JsonObject line = lines.get(test - 1);
+            assertEquals("test" + test, line.getString("id"));
+            CalculationsClass calculationsClass = new CalculationsClass("src/test/data/valueTests/test" + test + "/orders.json",
+                    "src/test/data/valueTests/test" + test + "/paymentmethods.json");
+            calculationsClass.chooseBestOption();
+            calculationsClass.getCosts().forEach((methodId, cost) ->
+                    assertEquals(BigDecimal.valueOf(Money.toMinor(cost), 2).toPlainString(), line.getJsonObject("costs").getString(methodId)));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BranchAndBoundSolverTest {
+
+    // orders where the greedy pays the first order wholly by points, as points come first, so that the second one is
+    // left with the points that remain, although the first order could take its card and the second one the points
+    private OrderStore greedyTrapOrders() {
+        return new OrderStore.Builder()
+                .add("ORDER_A", 10000, List.of("CardX"))
+                .add("ORDER_B", 9000, List.of())
+                .build();
+    }
+
+    private List<PaymentMethod> greedyTrapPaymentMethods() {
+        return new ArrayList<>(List.of(new PaymentMethod("PUNKTY", 15, 100.0), new PaymentMethod("CardX", 20, 100.0)));
+    }
+
+    // method checking whether a result pays for all orders within the limits of the payment methods, the funds spent
+    // follow GreedySolver, which does not take the rest of a partial payment by points from any payment method
+    private void assertValid(List<PaymentMethod> paymentMethods, AssignmentResult result) {
+        assertTrue(result.allPaid());
+        assertEquals(-1, result.failedOrder());
+        for (int methodIndex = 0; methodIndex < paymentMethods.size(); methodIndex++) {
+            long limit = paymentMethods.get(methodIndex).getMinorLimit();
+            assertTrue(result.spent()[methodIndex] <= limit);
+            assertEquals(limit - result.spent()[methodIndex], result.remainingLimits()[methodIndex]);
+        }
+    }
+
+    // test checking whether the exact solver finds the assignment the greedy one misses
+    @Test
+    public void testFindsBetterAssignmentThanGreedy() {
+        OrderStore orderStore = greedyTrapOrders();
+        List<PaymentMethod> paymentMethods = greedyTrapPaymentMethods();
+        BranchAndBoundSolver.Report report = new BranchAndBoundSolver(1000).solveWithReport(orderStore, paymentMethods);
+
+        assertTrue(report.optimal());
+        assertEquals(2400, report.greedyResult().totalDiscount());
+        assertArrayEquals(new long[]{10000, 6600}, report.greedyResult().spent());
+        assertEquals(3350, report.result().totalDiscount());
+        assertEquals(950, report.gap());
+        assertValid(paymentMethods, report.result());
+        assertArrayEquals(new long[]{7650, 8000}, report.result().spent());
+    }
+
+    // test checking whether orders sharing an id get a single discounted candidate, so that the greedy result of
+    // the fixture, where the second ORDER1 is paid with the points left, is already the best one
+    @Test
+    public void testOrdersSharingIds() {
+        JsonFileReader jsonFileReader = new JsonFileReader("src/test/data/duplicateIds/orders.json",
+                "src/test/data/duplicateIds/paymentmethods.json");
+        BranchAndBoundSolver.Report report = new BranchAndBoundSolver(1000)
+                .solveWithReport(jsonFileReader.getOrderStore(), jsonFileReader.getPaymentMethods());
+
+        assertTrue(report.optimal());
+        assertEquals(0, report.gap());
+        assertEquals(3000, report.result().totalDiscount());
+        assertArrayEquals(new long[]{10000, 12000}, report.result().spent());
+    }
+
+    // test checking whether on random input, also with orders sharing ids, the exact result is never worse than
+    // the greedy one and pays for every order within the limits
+    @Test
+    public void testNeverWorseThanGreedyOnRandomInput() {
+        Random random = new Random(7);
+        for (int instance = 0; instance < 300; instance++) {
+            InputSnapshot snapshot = RandomInputs.snapshot(random, 8, 3, instance % 2 == 1);
+            BranchAndBoundSolver.Report report = new BranchAndBoundSolver(1000)
+                    .solveWithReport(snapshot.getOrderStore(), snapshot.toPaymentMethods());
+            assertTrue(report.optimal());
+            if (report.result() == report.greedyResult())
+                continue;
+            assertValid(snapshot.toPaymentMethods(), report.result());
+            if (report.greedyResult().allPaid())
+                assertTrue(report.gap() > 0);
+        }
+    }
+
+    // test checking whether the exact solver is never worse than the greedy one on the test data
+    @Test
+    public void testNeverWorseThanGreedy() {
+        for (int i = 1; i <= 9; i++) {
+            JsonFileReader jsonFileReader = new JsonFileReader("src/test/data/valueTests/test" + i + "/orders.json",
+                    "src/test/data/valueTests/test" + i + "/paymentmethods.json");
+            BranchAndBoundSolver.Report report = new BranchAndBoundSolver(1000)
+                    .solveWithReport(jsonFileReader.getOrderStore(), jsonFileReader.getPaymentMethods());
+            assertTrue(report.optimal());
+            assertTrue(report.gap() >= 0 || !report.greedyResult().allPaid());
+            if (report.result() != report.greedyResult())
+                assertValid(jsonFileReader.getPaymentMethods(), report.result());
+        }
+    }
+
+    // test checking whether the greedy result is returned when there is no time to search
+    @Test
+    public void testFallsBackToGreedyWithoutTimeBudget() {
+        OrderStore orderStore = greedyTrapOrders();
+        List<PaymentMethod> paymentMethods = greedyTrapPaymentMethods();
+        BranchAndBoundSolver.Report report = new BranchAndBoundSolver(0).solveWithReport(orderStore, paymentMethods);
+
+        assertFalse(report.optimal());
+        assertSame(report.greedyResult(), report.result());
+    }
+
+    // test checking whether the exact solver can be used by CalculationsClass and does not change payment methods
+    @Test
+    public void testUsedByCalculationsClass() {
+        CalculationsClass calculationsClass = new CalculationsClass("src/main/resources/data/orders.json",
+                "src/main/resources/data/paymentmethods.json");
+        calculationsClass.setSolver(new BranchAndBoundSolver(1000));
+        calculationsClass.chooseBestOption();
+        for (Order order : calculationsClass.getOrders()) {
+            assertTrue(order.isPaid());
+        }
+    }
+}
@@ -1,10 +1,14 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import projects.CalculationsClass;
+import projects.CandidateBuffer;
 import projects.JsonFileReader;
+import projects.Money;
 import projects.Order;
+import projects.PaymentAssignmentOption;
 import projects.PaymentMethod;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -38,6 +42,28 @@ public class CalculationsClassTest {
         assertEquals(8, calculationsClassObject.getAssignments().size());
     }
 
+    // test whether CalculationsClass.generateCandidates() generates the same assignments as CalculationsClass.generateAssignments()
+    @Test
+    public void testGenerateCandidatesMatchesGenerateAssignments() {
+        for (int i = 1; i <= 9; i++) {
+            CalculationsClass calculationsClassObject1 = new CalculationsClass("src/test/data/valueTests/test" + i + "/orders.json",
+                    "src/test/data/valueTests/test" + i + "/paymentmethods.json");
+            calculationsClassObject1.generateAssignments();
+            calculationsClassObject1.generateCandidates();
+            ArrayList<PaymentAssignmentOption> assignments = calculationsClassObject1.getAssignments();
+            CandidateBuffer candidates = calculationsClassObject1.getCandidates();
+            assertEquals(assignments.size(), candidates.size());
+            for (int j = 0; j < assignments.size(); j++) {
+                PaymentAssignmentOption assignment = assignments.get(j);
+                assertSame(assignment.order(), calculationsClassObject1.getOrders().get(candidates.getOrder(j)));
+                assertEquals(assignment.paymentMethodId(), calculationsClassObject1.getPaymentMethods().get(candidates.getMethod(j)).getId());
+                assertEquals(assignment.assignmentType(), candidates.getType(j));
+                assertEquals(Money.toMinor(assignment.usedAmount()), candidates.getUsedAmount(j));
+                assertEquals(Money.toMinor(assignment.discount()), candidates.getDiscount(j));
+            }
+        }
+    }
+
     // test whether after running CalculationsClass.chooseBestOption() all orders are paid off as expected
     @Test
     public void testChooseBestOptionPaysAllOrdersOff() {
@@ -75,6 +101,24 @@ public class CalculationsClassTest {
 //        assertThrows(RuntimeException.class, calculationsClassObject1::chooseBestOption);
 //    }
 
+    // test whether running CalculationsClass.calculateCosts() again on the same object gives the same costs and limits
+    @Test
+    public void testCalculateCostsCanBeRunAgain() {
+        CalculationsClass calculationsClassObject1 = new CalculationsClass("src/test/data/valueTests/test1/orders.json",
+                "src/test/data/valueTests/test1/paymentmethods.json");
+        calculationsClassObject1.calculateCosts();
+        calculationsClassObject1.calculateCosts();
+        HashMap<String, Double> costs = new HashMap<>(Map.of("PUNKTY", 150.0, "BankY", 76.0, "BankX", 244.5));
+        assertEquals(costs, calculationsClassObject1.getCosts());
+
+        calculationsClassObject.chooseBestOption();
+        calculationsClassObject.chooseBestOption();
+        HashMap<String, PaymentMethod> paymentMethodsById = calculationsClassObject.getPaymentMethodsById();
+        assertEquals(0.0, paymentMethodsById.get("PUNKTY").getLimit());
+        assertEquals(15.0, paymentMethodsById.get("mZysk").getLimit());
+        assertEquals(10.0, paymentMethodsById.get("BosBankrut").getLimit());
+    }
+
     // further tests checking whether costs calculated by CalculationsClass.chooseBestOption() are correct
     @Test
     public void testChooseBestOptionCalculatesCostsCorrectlyTest1() {
@@ -165,4 +209,18 @@ public class CalculationsClassTest {
         assertEquals(costs, calculationsClassObject1.getCosts());
     }
 
+    // test case where two orders share an id, only one of them gets a discounted assignment and the other one is paid
+    // with the funds left, the first one with points and the second one partially with points and by card
+    @Test
+    public void testChooseBestOptionPaysOrdersWithTheSameIdOnce() {
+        CalculationsClass calculationsClassObject1 = new CalculationsClass("src/test/data/duplicateIds/orders.json",
+                "src/test/data/duplicateIds/paymentmethods.json");
+        calculationsClassObject1.calculateCosts();
+        HashMap<String, Double> costs = new HashMap<>(Map.of("PUNKTY", 100.0, "mZysk", 120.0));
+        assertEquals(costs, calculationsClassObject1.getCosts());
+        for (Order order : calculationsClassObject1.getOrders()) {
+            assertTrue(order.isPaid());
+        }
+    }
+
 }
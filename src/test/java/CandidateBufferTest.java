@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+import projects.AssignmentType;
+import projects.CandidateBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CandidateBufferTest {
+
+    // priorities used by CalculationsClass: wholly by points, then wholly by card, lastly partially by points
+    private final int[] typePriorities = {1, 0, 2};
+
+    // test checking whether the buffer grows past its initial capacity and keeps the stored values
+    @Test
+    public void testBufferGrowsAndKeepsValues() {
+        CandidateBuffer candidates = new CandidateBuffer(1);
+        for (int i = 0; i < 100; i++) {
+            candidates.add(i, i % 3, AssignmentType.values()[i % 3], i * 3L, i);
+        }
+        assertEquals(100, candidates.size());
+        assertEquals(99, candidates.getOrder(99));
+        assertEquals(0, candidates.getMethod(99));
+        assertEquals(AssignmentType.CARD, candidates.getType(99));
+        assertEquals(297, candidates.getUsedAmount(99));
+        assertEquals(99, candidates.getDiscount(99));
+        candidates.clear();
+        assertEquals(0, candidates.size());
+    }
+
+    // test checking whether sortedOrder() gives the same order as List.sort() with the comparator used by the greedy,
+    // including assignments with equal discounts
+    @Test
+    public void testSortedOrderMatchesListSort() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            CandidateBuffer candidates = new CandidateBuffer();
+            List<Integer> positions = new ArrayList<>();
+            int size = random.nextInt(2000);
+            for (int i = 0; i < size; i++) {
+                long discount = random.nextBoolean() ? random.nextInt(20) : random.nextLong(1L << 40);
+                candidates.add(i, 0, AssignmentType.values()[random.nextInt(3)], discount, discount);
+                positions.add(i);
+            }
+
+            positions.sort((a, b) -> {
+                int typePriority = typePriorities[candidates.getType(a).ordinal()] - typePriorities[candidates.getType(b).ordinal()];
+                if (typePriority != 0)
+                    return typePriority;
+                return Long.compare(candidates.getDiscount(b), candidates.getDiscount(a));
+            });
+
+            int[] sorted = candidates.sortedOrder(typePriorities);
+            assertEquals(positions.size(), sorted.length);
+            for (int i = 0; i < sorted.length; i++) {
+                assertEquals(positions.get(i), sorted[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CandidateGeneratorTest {
+
+    private void assertSameCandidates(CandidateBuffer expected, CandidateBuffer actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getOrder(i), actual.getOrder(i));
+            assertEquals(expected.getMethod(i), actual.getMethod(i));
+            assertEquals(expected.getType(i), actual.getType(i));
+            assertEquals(expected.getUsedAmount(i), actual.getUsedAmount(i));
+            assertEquals(expected.getDiscount(i), actual.getDiscount(i));
+        }
+    }
+
+    // test checking whether the parallel generation gives the same assignments in the same order as the serial one
+    // for files from resources
+    @Test
+    public void testParallelGenerationMatchesSerialForResources() {
+        for (int test = 1; test <= 9; test++) {
+            String directory = "src/test/data/valueTests/test" + test + "/";
+            JsonFileReader jsonFileReader = new JsonFileReader(directory + "orders.json", directory + "paymentmethods.json");
+            OrderStore orderStore = jsonFileReader.getOrderStore();
+            List<PaymentMethod> paymentMethods = jsonFileReader.getPaymentMethods();
+
+            CandidateBuffer serial = new CandidateBuffer();
+            CandidateGenerator.generate(orderStore, paymentMethods, serial);
+            CandidateBuffer parallel = new CandidateBuffer();
+            CandidateGenerator.generateParallel(orderStore, paymentMethods, parallel);
+            assertSameCandidates(serial, parallel);
+        }
+    }
+
+    // test checking whether the parallel generation gives the same assignments in the same order as the serial one
+    // when the orders of a payment method are split between many tasks
+    @Test
+    public void testParallelGenerationMatchesSerialForManyOrders() {
+        Random random = new Random(7);
+        OrderStore.Builder builder = new OrderStore.Builder();
+        for (int i = 0; i < 100_000; i++) {
+            List<String> promotions = new ArrayList<>();
+            for (int card = 0; card < 4; card++) {
+                if (random.nextInt(3) == 0)
+                    promotions.add("Card" + card);
+            }
+            builder.add("ORDER" + i, 1 + random.nextInt(100_000), promotions);
+        }
+        OrderStore orderStore = builder.build();
+        List<PaymentMethod> paymentMethods = new ArrayList<>(List.of(new PaymentMethod("PUNKTY", 15, 500.0)));
+        for (int card = 0; card < 4; card++) {
+            paymentMethods.add(new PaymentMethod("Card" + card, 5 * card, 250.0 * (card + 1)));
+        }
+
+        CandidateBuffer serial = new CandidateBuffer();
+        CandidateGenerator.generate(orderStore, paymentMethods, serial);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CandidateBuffer parallel = new CandidateBuffer();
+            CandidateGenerator.generateParallel(orderStore, paymentMethods, parallel, pool);
+            assertSameCandidates(serial, parallel);
+
+            // generating again into the same buffer replaces the previous assignments
+            CandidateGenerator.generateParallel(orderStore, paymentMethods, parallel, pool);
+            assertSameCandidates(serial, parallel);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CandidatePrunerTest {
+
+    private static void assertSameResults(InputSnapshot snapshot) {
+        AssignmentResult expected = new GreedySolver(false, false).solve(snapshot, new SolverState());
+        AssignmentResult result = new GreedySolver(false, true).solve(snapshot, new SolverState());
+        assertArrayEquals(expected.spent(), result.spent());
+        assertArrayEquals(expected.used(), result.used());
+        assertArrayEquals(expected.remainingLimits(), result.remainingLimits());
+        assertArrayEquals(expected.paid(), result.paid());
+        assertEquals(expected.totalDiscount(), result.totalDiscount());
+        assertEquals(expected.failedOrder(), result.failedOrder());
+    }
+
+    // test checking whether pruning never changes the result of the greedy solver on the test data
+    @Test
+    public void testSameResultsOnTestData() {
+        for (int test = 1; test <= 9; test++) {
+            assertSameResults(InputSnapshot.of(new JsonFileReader("src/test/data/valueTests/test" + test + "/orders.json",
+                    "src/test/data/valueTests/test" + test + "/paymentmethods.json")));
+        }
+    }
+
+    // test checking whether pruning never changes the result of the greedy solver on random input, half of it with
+    // orders sharing ids
+    @Test
+    public void testSameResultsOnRandomInput() {
+        Random random = new Random(20);
+        for (int i = 0; i < 2000; i++) {
+            assertSameResults(RandomInputs.snapshot(random, 30, 4, i % 2 == 1));
+        }
+    }
+
+    // test checking whether all card and partial candidates of orders surely paid by points are removed
+    @Test
+    public void testPlentifulPoints() {
+        OrderStore orderStore = new OrderStore.Builder()
+                .add("ORDER1", 10_000, List.of("mZysk", "BosBankrut"))
+                .add("ORDER2", 20_000, List.of("mZysk"))
+                .build();
+        InputSnapshot snapshot = InputSnapshot.of(orderStore, List.of(new PaymentMethod("PUNKTY", 15, 1000.0),
+                new PaymentMethod("mZysk", 10, 1000.0), new PaymentMethod("BosBankrut", 5, 1000.0)));
+        CandidateBuffer candidates = new CandidateBuffer();
+        CandidateGenerator.generate(snapshot, candidates);
+        assertEquals(5, candidates.size());
+
+        assertEquals(3, CandidatePruner.prune(snapshot, candidates));
+        assertEquals(2, candidates.size());
+        for (int candidate = 0; candidate < candidates.size(); candidate++) {
+            assertEquals(AssignmentType.POINTS, candidates.getType(candidate));
+            assertEquals(candidate, candidates.getOrder(candidate));
+        }
+    }
+
+    // test checking whether only the best card candidate of a card with enough funds and the better ones are kept
+    @Test
+    public void testPlentifulCard() {
+        OrderStore orderStore = new OrderStore.Builder()
+                .add("ORDER1", 10_000, List.of("BankX", "BankY", "BankZ"))
+                .add("ORDER2", 40_000, List.of("BankZ"))
+                .add("ORDER3", 30_000, List.of("BankZ"))
+                .build();
+
+        // points are not enough for any order, BankY has funds for all its orders, BankZ does not
+        InputSnapshot snapshot = InputSnapshot.of(orderStore, List.of(new PaymentMethod("PUNKTY", 15, 10.0),
+                new PaymentMethod("BankX", 5, 1000.0), new PaymentMethod("BankY", 10, 100.0),
+                new PaymentMethod("BankZ", 20, 400.0)));
+        CandidateBuffer candidates = new CandidateBuffer();
+        CandidateGenerator.generate(snapshot, candidates);
+
+        // BankX has a lower discount than BankY, so it is removed together with the partial payment of ORDER1
+        int before = candidates.size();
+        assertEquals(2, CandidatePruner.prune(snapshot, candidates));
+        assertEquals(before - 2, candidates.size());
+        for (int candidate = 0; candidate < candidates.size(); candidate++) {
+            assertNotEquals(1, candidates.getMethod(candidate));
+            assertFalse(candidates.getOrder(candidate) == 0 && candidates.getType(candidate) == AssignmentType.PARTIAL);
+        }
+        assertSameResults(snapshot);
+    }
+}
@@ -0,0 +1,138 @@
+import jakarta.json.stream.JsonParsingException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import projects.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedOrdersReaderTest {
+
+    @TempDir
+    Path directory;
+
+    private void assertSameOrders(OrderStore expected, OrderStore actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int order = 0; order < expected.size(); order++) {
+            assertEquals(expected.getId(order), actual.getId(order));
+            assertEquals(expected.getValue(order), actual.getValue(order));
+            assertEquals(expected.promotionsEnd(order) - expected.promotionsStart(order),
+                    actual.promotionsEnd(order) - actual.promotionsStart(order));
+            for (int k = expected.promotionsStart(order); k < expected.promotionsEnd(order); k++) {
+                assertEquals(expected.getPromotionId(expected.getPromotion(k)), actual.getPromotionId(actual.getPromotion(k)));
+            }
+        }
+    }
+
+    // method reading a file with regions of the given size, so that even small files are split into many chunks
+    private static OrderStore readChunked(String path, int regionSize) {
+        return new ChunkedOrdersReader(ForkJoinPool.commonPool(), regionSize).readOrderStore(path);
+    }
+
+    // test checking whether reading the test data in chunks of any size gives the same orders as the streaming reader
+    @Test
+    public void testSameOrdersAsStreamingReader() {
+        for (int test = 1; test <= 9; test++) {
+            String path = "src/test/data/valueTests/test" + test + "/orders.json";
+            OrderStore expected = JsonFileReader.readOrderStore(path);
+            for (int regionSize : new int[]{1, 2, 3, 7, 16, 61, 1000, 1 << 20}) {
+                assertSameOrders(expected, readChunked(path, regionSize));
+            }
+        }
+    }
+
+    // test checking whether commas, brackets, quotes and backslashes inside of strings do not split an order
+    @Test
+    public void testSpecialCharactersInStrings() throws IOException {
+        Path path = directory.resolve("orders.json");
+        Files.writeString(path, """
+                 [
+                  {"id": "A,{\\"B\\"}]", "value": "1.00", "promotions": ["x],[y", "\\\\"]},
+                  {"id": "C\\\\", "value": "2.50", "note": {"a": [1, {"b": ","}]}, "promotions": null},
+                  {"id": "D\\\\\\"", "value": "3.75"} , {"id":"E","value":"4.00","promotions":[]}
+                ]
+                """);
+        OrderStore expected = JsonFileReader.readOrderStore(path.toString());
+        assertEquals(4, expected.size());
+        for (int regionSize = 1; regionSize < 40; regionSize++) {
+            assertSameOrders(expected, readChunked(path.toString(), regionSize));
+        }
+    }
+
+    // test checking whether runs of backslashes longer than the bytes mapped before a region are counted, and whether
+    // a pool with a single thread, which keeps only two chunks in flight, passes all chunks on in order
+    @Test
+    public void testLongRunsOfBackslashesWithSingleThread() throws IOException {
+        StringBuilder stringBuilder = new StringBuilder("[");
+        for (int order = 0; order < 50; order++) {
+            stringBuilder.append(order == 0 ? "" : ",").append("{\"id\":\"").append("\\\\".repeat(order * 7))
+                    .append("\\\"").append(order).append("\",\"value\":\"").append(order).append(".00\"}");
+        }
+        Path path = directory.resolve("orders.json");
+        Files.writeString(path, stringBuilder.append("]").toString());
+
+        OrderStore expected = JsonFileReader.readOrderStore(path.toString());
+        assertEquals(50, expected.size());
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            for (int regionSize : new int[]{1, 5, 63, 64, 65, 200, 1000}) {
+                assertSameOrders(expected, new ChunkedOrdersReader(pool, regionSize).readOrderStore(path.toString()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // test checking whether readParallel() gives the same data as the constructor for a generated file of many orders
+    @Test
+    public void testReadParallel() throws IOException {
+        StringBuilder stringBuilder = new StringBuilder("[");
+        for (int order = 0; order < 5000; order++) {
+            List<String> promotions = new ArrayList<>();
+            for (int card = 0; card < order % 4; card++) {
+                promotions.add("\"card" + ((order + card) % 7) + "\"");
+            }
+            stringBuilder.append(order == 0 ? "" : ",").append("{\"id\":\"ORDER").append(order)
+                    .append("\",\"value\":\"").append(order % 500).append(".").append(order % 10).append("0\",\"promotions\":")
+                    .append(promotions).append("}");
+        }
+        Path path = directory.resolve("orders.json");
+        Files.writeString(path, stringBuilder.append("]").toString());
+
+        String paymentMethodsPath = "src/test/data/valueTests/test1/paymentmethods.json";
+        JsonFileReader expected = new JsonFileReader(path.toString(), paymentMethodsPath);
+        JsonFileReader actual = JsonFileReader.readParallel(path.toString(), paymentMethodsPath, ForkJoinPool.commonPool());
+        assertSameOrders(expected.getOrderStore(), actual.getOrderStore());
+        assertEquals(expected.getOrders().size(), actual.getOrders().size());
+        assertEquals(expected.getOrdersByPromotion().keySet(), actual.getOrdersByPromotion().keySet());
+        expected.getOrdersByPromotion().forEach((promotion, orders) ->
+                assertEquals(orders.stream().map(Order::getId).toList(),
+                        actual.getOrdersByPromotion().get(promotion).stream().map(Order::getId).toList()));
+        assertEquals(expected.getPaymentMethods().size(), actual.getPaymentMethods().size());
+        assertSameOrders(expected.getOrderStore(), readChunked(path.toString(), 4096));
+    }
+
+    // test checking whether files without a single array of orders are rejected
+    @Test
+    public void testInvalidFiles() throws IOException {
+        Path object = directory.resolve("object.json");
+        Files.writeString(object, "{\"id\": \"ORDER1\", \"value\": \"1.00\"}");
+        assertThrows(JsonParsingException.class, () -> readChunked(object.toString(), 8));
+
+        Path unclosed = directory.resolve("unclosed.json");
+        Files.writeString(unclosed, "[{\"id\": \"ORDER1\", \"value\": \"1.00\"}");
+        assertThrows(JsonParsingException.class, () -> readChunked(unclosed.toString(), 8));
+
+        Path empty = directory.resolve("empty.json");
+        Files.writeString(empty, " [ ] ");
+        assertEquals(0, readChunked(empty.toString(), 1).size());
+
+        assertThrows(RuntimeException.class, () -> readChunked(directory.resolve("missing.json").toString(), 8));
+    }
+}
@@ -0,0 +1,79 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import projects.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecorderEventsTest {
+
+    @TempDir
+    Path directory;
+
+    // method running the action during a recording of the events of the program and returning the recorded events
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        Path path = directory.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("projects.OptimizationRun").withThreshold(Duration.ZERO);
+            recording.enable("projects.SlowOrder");
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(path);
+        }
+        return RecordingFile.readAllEvents(path);
+    }
+
+    // test checking whether every run of chooseBestOption() is recorded with its sizes and phases
+    @Test
+    public void testOptimizationRunEvent() throws IOException {
+        CalculationsClass calculationsClass = new CalculationsClass("src/test/data/valueTests/test1/orders.json",
+                "src/test/data/valueTests/test1/paymentmethods.json");
+        List<RecordedEvent> events = record(() -> {
+            calculationsClass.chooseBestOption();
+            calculationsClass.chooseBestOption();
+        });
+
+        List<RecordedEvent> runs = events.stream().filter(event -> event.getEventType().getName().equals("projects.OptimizationRun")).toList();
+        assertEquals(2, runs.size());
+        RecordedEvent run = runs.get(1);
+        assertEquals("GreedySolver", run.getString("solver"));
+        assertEquals(calculationsClass.getOrderStore().size(), run.getInt("orderCount"));
+        assertEquals(calculationsClass.getPaymentMethods().size(), run.getInt("paymentMethodCount"));
+        assertTrue(run.getInt("candidateCount") > 0);
+        assertTrue(run.getDuration("generateTime").toNanos() > 0);
+        assertTrue(run.getDuration("greedyTime").toNanos() > 0);
+        assertEquals(calculationsClass.getCosts().size(), run.getInt("costsCount"));
+        assertTrue(run.getBoolean("allPaid"));
+        assertEquals(4950, run.getLong("totalDiscount"));
+    }
+
+    // test checking whether a leftover order paid with many payment methods is recorded, while others are not
+    @Test
+    public void testSlowOrderEvent() throws IOException {
+        OrderStore orderStore = new OrderStore.Builder()
+                .add("ORDER1", 10_000, List.of())
+                .add("ORDER2", 1_000, List.of())
+                .build();
+
+        // points cover less than 10% of ORDER1, which is paid with points and both cards in the leftover loop,
+        // ORDER2 is then paid with the second card only
+        InputSnapshot snapshot = InputSnapshot.of(orderStore, List.of(new PaymentMethod("PUNKTY", 10, 5.0),
+                new PaymentMethod("BankX", 0, 50.0), new PaymentMethod("BankY", 0, 100.0)));
+        List<RecordedEvent> events = record(() -> assertTrue(new GreedySolver().solve(snapshot, new SolverState()).allPaid()));
+
+        List<RecordedEvent> slowOrders = events.stream().filter(event -> event.getEventType().getName().equals("projects.SlowOrder"))
+                .filter(event -> event.getInt("methodCount") >= 3).toList();
+        assertEquals(1, slowOrders.size());
+        assertEquals("ORDER1", slowOrders.get(0).getString("orderId"));
+        assertEquals(10_000, slowOrders.get(0).getLong("value"));
+        assertTrue(slowOrders.get(0).getBoolean("paid"));
+    }
+}
@@ -0,0 +1,265 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalEngineTest {
+
+    private List<PaymentMethod> paymentMethods() {
+        return List.of(new PaymentMethod("PUNKTY", 15, 100.0), new PaymentMethod("mZysk", 10, 180.0),
+                new PaymentMethod("BosBankrut", 5, 200.0));
+    }
+
+    // checks that no payment method is overdrawn and remaining limits agree with the funds spent
+    private void assertConsistent(IncrementalEngine engine, List<String> methodIds, List<Long> limits) {
+        for (int i = 0; i < methodIds.size(); i++) {
+            long spent = engine.getSpent(methodIds.get(i));
+            assertTrue(spent >= 0);
+            assertTrue(spent <= limits.get(i));
+            assertEquals(limits.get(i) - spent, engine.getRemainingLimit(methodIds.get(i)));
+        }
+    }
+
+    // checks that the engine gives the same result as GreedySolver for its orders in the order of adding them
+    private void assertSameAsGreedy(IncrementalEngine engine, List<String> orderIds, List<Long> orderValues,
+                                    List<List<String>> orderPromotions, List<PaymentMethod> paymentMethods) {
+        OrderStore.Builder builder = new OrderStore.Builder();
+        for (int i = 0; i < orderIds.size(); i++) {
+            builder.add(orderIds.get(i), orderValues.get(i), orderPromotions.get(i));
+        }
+        AssignmentResult result = new GreedySolver().solve(builder.build(), paymentMethods);
+        for (int method = 0; method < paymentMethods.size(); method++) {
+            assertEquals(result.spent()[method], engine.getSpent(paymentMethods.get(method).getId()));
+            assertEquals(result.remainingLimits()[method], engine.getRemainingLimit(paymentMethods.get(method).getId()));
+        }
+        for (int i = 0; i < orderIds.size(); i++) {
+            assertEquals(result.paid()[i], engine.isPaid(orderIds.get(i)));
+        }
+        assertEquals(result.totalDiscount(), engine.getTotalDiscount());
+        assertEquals(result.allPaid(), engine.allPaid());
+    }
+
+    // test checking whether the engine built from files gives the result of CalculationsClass
+    @Test
+    public void testEngineFromFilesPaysAllOrders() {
+        IncrementalEngine engine = IncrementalEngine.of(new JsonFileReader("src/main/resources/data/orders.json",
+                "src/main/resources/data/paymentmethods.json"));
+        CalculationsClass calculationsClass = new CalculationsClass("src/main/resources/data/orders.json",
+                "src/main/resources/data/paymentmethods.json");
+        calculationsClass.chooseBestOption();
+        assertTrue(engine.allPaid());
+        for (PaymentMethod paymentMethod : calculationsClass.getPaymentMethods()) {
+            assertEquals(Money.toMinor(calculationsClass.getCosts().getOrDefault(paymentMethod.getId(), 0.0)),
+                    engine.getSpent(paymentMethod.getId()));
+        }
+        assertEquals(AssignmentType.POINTS, engine.getAssignmentType("ORDER1"));
+        assertEquals(AssignmentType.CARD, engine.getAssignmentType("ORDER2"));
+        assertEquals(AssignmentType.CARD, engine.getAssignmentType("ORDER3"));
+    }
+
+    // test checking whether removing an order frees its funds for an order that could not be paid before
+    @Test
+    public void testRemovingOrderPaysWaitingOrder() {
+        IncrementalEngine engine = new IncrementalEngine(List.of(new PaymentMethod("CardA", 10, 100.0)));
+        engine.addOrder("ORDER1", 10_000, List.of("CardA"));
+        engine.addOrder("ORDER2", 5_000, List.of("CardA"));
+        assertTrue(engine.isPaid("ORDER1"));
+        assertFalse(engine.isPaid("ORDER2"));
+
+        engine.removeOrder("ORDER1");
+        assertTrue(engine.isPaid("ORDER2"));
+        assertEquals(4_500, engine.getSpent("CardA"));
+        assertEquals(500, engine.getTotalDiscount());
+    }
+
+    // test checking whether an order with a higher discount takes the funds of the orders after it, which get them back
+    // when it is removed
+    @Test
+    public void testAddingOrderTakesFundsOfLaterOrders() {
+        IncrementalEngine engine = new IncrementalEngine(List.of(new PaymentMethod("CardA", 10, 100.0)));
+        engine.addOrder("ORDER1", 5_000, List.of("CardA"));
+        engine.addOrder("ORDER2", 4_000, List.of("CardA"));
+        assertEquals(8_100, engine.getSpent("CardA"));
+
+        engine.addOrder("ORDER3", 8_000, List.of("CardA"));
+        assertTrue(engine.isPaid("ORDER3"));
+        assertFalse(engine.isPaid("ORDER1"));
+        assertFalse(engine.isPaid("ORDER2"));
+        assertFalse(engine.allPaid());
+        assertEquals(7_200, engine.getSpent("CardA"));
+
+        engine.removeOrder("ORDER3");
+        assertTrue(engine.allPaid());
+        assertEquals(8_100, engine.getSpent("CardA"));
+        assertEquals(900, engine.getTotalDiscount());
+    }
+
+    // test checking whether lowering a limit settles the orders paying with that payment method again
+    @Test
+    public void testLoweringLimitMovesOrders() {
+        IncrementalEngine engine = new IncrementalEngine(paymentMethods());
+        engine.addOrder("ORDER1", 10_000, List.of("mZysk"));
+        assertEquals(AssignmentType.POINTS, engine.getAssignmentType("ORDER1"));
+
+        engine.changeLimit("PUNKTY", 1_000);
+        assertEquals(AssignmentType.CARD, engine.getAssignmentType("ORDER1"));
+        assertEquals(0, engine.getSpent("PUNKTY"));
+        assertEquals(9_000, engine.getSpent("mZysk"));
+
+        // like in GreedySolver, only the points of a partial payment are taken from the payment methods
+        engine.changeLimit("mZysk", 0);
+        assertEquals(AssignmentType.PARTIAL, engine.getAssignmentType("ORDER1"));
+        assertEquals(1_000, engine.getSpent("PUNKTY"));
+        assertEquals(0, engine.getSpent("BosBankrut"));
+    }
+
+    // test checking whether raising a limit moves an order that is already paid to a payment method with a higher discount
+    @Test
+    public void testRaisingLimitMovesPaidOrders() {
+        IncrementalEngine engine = new IncrementalEngine(List.of(new PaymentMethod("CardA", 10, 50.0),
+                new PaymentMethod("CardB", 5, 1000.0)));
+        engine.addOrder("ORDER1", 10_000, List.of("CardA", "CardB"));
+        assertEquals(9_500, engine.getSpent("CardB"));
+
+        engine.changeLimit("CardA", 10_000);
+        assertEquals(9_000, engine.getSpent("CardA"));
+        assertEquals(0, engine.getSpent("CardB"));
+        assertEquals(1_000, engine.getTotalDiscount());
+    }
+
+    // test checking whether changing a discount recalculates the options of the orders that can use it
+    @Test
+    public void testChangingDiscountUpdatesOrders() {
+        IncrementalEngine engine = new IncrementalEngine(List.of(new PaymentMethod("CardA", 10, 1000.0),
+                new PaymentMethod("CardB", 5, 1000.0)));
+        engine.addOrder("ORDER1", 10_000, List.of("CardA", "CardB"));
+        assertEquals(9_000, engine.getSpent("CardA"));
+
+        engine.changeDiscount("CardB", 2_000);
+        assertEquals(0, engine.getSpent("CardA"));
+        assertEquals(8_000, engine.getSpent("CardB"));
+        assertEquals(2_000, engine.getTotalDiscount());
+    }
+
+    // test checking whether the engine gives the result of GreedySolver after every change, with scarce funds, so that
+    // orders are also paid partially with points and by the leftover pass, or not at all, "Spare" has no promotions and
+    // only pays for the rest of partial payments and for leftover orders
+    @Test
+    public void testResultEqualsGreedySolverAfterEveryChange() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            List<String> methodIds = List.of("CardA", "PUNKTY", "CardB", "CardC", "Spare");
+            long[] limits = {15_000, 6_000, 20_000, 10_000, 5_000};
+            long[] discounts = {1_000, 1_500, 500, 2_000, 0};
+            IncrementalEngine engine = new IncrementalEngine(paymentMethods(methodIds, limits, discounts));
+
+            List<String> orderIds = new ArrayList<>();
+            List<Long> orderValues = new ArrayList<>();
+            List<List<String>> orderPromotions = new ArrayList<>();
+            for (int step = 0; step < 150; step++) {
+                int operation = random.nextInt(10);
+                if (operation < 5 || orderIds.isEmpty()) {
+                    String id = "ORDER" + step;
+                    long value = 100 + random.nextInt(20_000);
+                    List<String> promotions = new ArrayList<>();
+                    for (String methodId : List.of("CardA", "CardB", "CardC")) {
+                        if (random.nextInt(3) == 0)
+                            promotions.add(methodId);
+                    }
+                    engine.addOrder(id, value, promotions);
+                    orderIds.add(id);
+                    orderValues.add(value);
+                    orderPromotions.add(promotions);
+                } else if (operation < 7) {
+                    int position = random.nextInt(orderIds.size());
+                    engine.removeOrder(orderIds.remove(position));
+                    orderValues.remove(position);
+                    orderPromotions.remove(position);
+                } else if (operation < 9) {
+                    int method = random.nextInt(methodIds.size());
+                    limits[method] = random.nextInt(40_000);
+                    engine.changeLimit(methodIds.get(method), limits[method]);
+                } else {
+                    int method = random.nextInt(methodIds.size());
+                    discounts[method] = random.nextInt(30) * 100L;
+                    engine.changeDiscount(methodIds.get(method), discounts[method]);
+                }
+                assertSameAsGreedy(engine, orderIds, orderValues, orderPromotions, paymentMethods(methodIds, limits, discounts));
+            }
+        }
+    }
+
+    private List<PaymentMethod> paymentMethods(List<String> methodIds, long[] limits, long[] discounts) {
+        List<PaymentMethod> paymentMethods = new ArrayList<>();
+        for (int i = 0; i < methodIds.size(); i++) {
+            paymentMethods.add(PaymentMethod.of(methodIds.get(i), discounts[i], limits[i]));
+        }
+        return paymentMethods;
+    }
+
+    // test checking whether any sequence of changes keeps the funds consistent, and whether resettleAll() afterwards
+    // gives the same result as a new engine built from the final state
+    @Test
+    public void testRandomChangesKeepFundsConsistent() {
+        Random random = new Random(11);
+        List<String> methodIds = List.of("PUNKTY", "CardA", "CardB", "CardC");
+        List<Long> limits = new ArrayList<>(List.of(20_000L, 30_000L, 30_000L, 30_000L));
+        List<Long> discounts = new ArrayList<>(List.of(1_500L, 1_000L, 500L, 2_000L));
+        List<PaymentMethod> paymentMethods = new ArrayList<>();
+        for (int i = 0; i < methodIds.size(); i++) {
+            paymentMethods.add(new PaymentMethod(methodIds.get(i), discounts.get(i) / 100.0, limits.get(i) / 100.0));
+        }
+        IncrementalEngine engine = new IncrementalEngine(paymentMethods);
+
+        List<String> orderIds = new ArrayList<>();
+        List<long[]> orderValues = new ArrayList<>();
+        List<List<String>> orderPromotions = new ArrayList<>();
+        for (int step = 0; step < 2_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 5 || orderIds.isEmpty()) {
+                String id = "ORDER" + step;
+                long value = 100 + random.nextInt(10_000);
+                List<String> promotions = new ArrayList<>();
+                for (int card = 1; card < methodIds.size(); card++) {
+                    if (random.nextBoolean())
+                        promotions.add(methodIds.get(card));
+                }
+                engine.addOrder(id, value, promotions);
+                orderIds.add(id);
+                orderValues.add(new long[]{value});
+                orderPromotions.add(promotions);
+            } else if (operation < 8) {
+                int position = random.nextInt(orderIds.size());
+                engine.removeOrder(orderIds.remove(position));
+                orderValues.remove(position);
+                orderPromotions.remove(position);
+            } else if (operation < 9) {
+                int method = random.nextInt(methodIds.size());
+                limits.set(method, (long) random.nextInt(60_000));
+                engine.changeLimit(methodIds.get(method), limits.get(method));
+            } else {
+                int method = random.nextInt(methodIds.size());
+                discounts.set(method, (long) random.nextInt(30) * 100);
+                engine.changeDiscount(methodIds.get(method), discounts.get(method));
+            }
+            assertConsistent(engine, methodIds, limits);
+        }
+
+        List<PaymentMethod> finalMethods = new ArrayList<>();
+        for (int i = 0; i < methodIds.size(); i++) {
+            finalMethods.add(new PaymentMethod(methodIds.get(i), discounts.get(i) / 100.0, limits.get(i) / 100.0));
+        }
+        IncrementalEngine rebuilt = new IncrementalEngine(finalMethods);
+        for (int i = 0; i < orderIds.size(); i++) {
+            rebuilt.addOrder(orderIds.get(i), orderValues.get(i)[0], orderPromotions.get(i));
+        }
+        engine.resettleAll();
+        rebuilt.resettleAll();
+        assertEquals(rebuilt.getCosts(), engine.getCosts());
+        assertEquals(rebuilt.getTotalDiscount(), engine.getTotalDiscount());
+    }
+}
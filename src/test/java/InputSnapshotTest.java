@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputSnapshotTest {
+
+    private InputSnapshot readSnapshot(int test) {
+        return InputSnapshot.of(new JsonFileReader("src/test/data/valueTests/test" + test + "/orders.json",
+                "src/test/data/valueTests/test" + test + "/paymentmethods.json"));
+    }
+
+    // test checking whether a snapshot does not see later changes of the payment methods it was created from
+    @Test
+    public void testSnapshotCopiesPaymentMethods() {
+        List<PaymentMethod> paymentMethods = new ArrayList<>(List.of(new PaymentMethod("PUNKTY", 15, 100.0),
+                new PaymentMethod("CardA", 7.5, 50.25)));
+        InputSnapshot snapshot = InputSnapshot.of(new OrderStore.Builder().build(), paymentMethods);
+        paymentMethods.get(0).setLimit(0);
+
+        assertEquals(10_000, snapshot.getLimit(0));
+        assertEquals(5_025, snapshot.getLimit(1));
+        assertEquals(750, snapshot.getDiscount(1));
+        assertEquals(1, snapshot.indexOfMethod("CardA"));
+        assertEquals(-1, snapshot.indexOfMethod("CardB"));
+
+        InputSnapshot changed = snapshot.withLimit(1, 100).withDiscount(0, 0);
+        assertEquals(100, changed.getLimit(1));
+        assertEquals(0, changed.getDiscount(0));
+        assertEquals(5_025, snapshot.getLimit(1));
+        assertSame(snapshot.getOrderStore(), changed.getOrderStore());
+        assertEquals(paymentMethods.get(1), changed.withLimit(1, 5_025).toPaymentMethods().get(1));
+    }
+
+    // test checking whether a reused state gives the same results as a new one, including for different snapshots
+    @Test
+    public void testReusedStateGivesSameResults() {
+        GreedySolver solver = new GreedySolver();
+        SolverState state = new SolverState();
+        for (int round = 0; round < 2; round++) {
+            for (int test = 1; test <= 9; test++) {
+                InputSnapshot snapshot = readSnapshot(test);
+                AssignmentResult expected = solver.solve(snapshot.getOrderStore(), snapshot.toPaymentMethods());
+                AssignmentResult result = solver.solve(snapshot, state);
+                assertArrayEquals(expected.spent(), result.spent());
+                assertArrayEquals(expected.paid(), result.paid());
+                assertArrayEquals(expected.remainingLimits(), result.remainingLimits());
+                assertEquals(expected.totalDiscount(), result.totalDiscount());
+            }
+        }
+    }
+
+    // test checking whether scenarios with different limits can run at the same time on one snapshot with pooled states
+    @Test
+    public void testConcurrentScenariosOnSharedSnapshot() throws Exception {
+        InputSnapshot snapshot = readSnapshot(1);
+        GreedySolver solver = new GreedySolver();
+        List<InputSnapshot> scenarios = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            scenarios.add(snapshot.withLimit(i % snapshot.getMethodCount(), 1_000L * i));
+        }
+
+        SolverState.Pool pool = new SolverState.Pool();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<AssignmentResult>> futures = new ArrayList<>();
+            for (InputSnapshot scenario : scenarios) {
+                futures.add(executor.submit(() -> {
+                    SolverState state = pool.acquire();
+                    try {
+                        return solver.solve(scenario, state);
+                    } finally {
+                        pool.release(state);
+                    }
+                }));
+            }
+            for (int i = 0; i < scenarios.size(); i++) {
+                AssignmentResult expected = solver.solve(scenarios.get(i), new SolverState());
+                AssignmentResult result = futures.get(i).get();
+                assertArrayEquals(expected.spent(), result.spent());
+                assertArrayEquals(expected.paid(), result.paid());
+                assertEquals(expected.totalDiscount(), result.totalDiscount());
+            }
+        }
+    }
+}
@@ -1,9 +1,13 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import projects.JsonFileReader;
 import projects.Order;
 import projects.PaymentMethod;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -13,6 +17,9 @@ public class JsonFileReaderTest {
 
     private JsonFileReader jsonFileReader;
 
+    @TempDir
+    Path directory;
+
     @BeforeEach
     @Test
     public void setUp() {
@@ -57,7 +64,7 @@ public class JsonFileReaderTest {
     @Test
     public void testReadingOrdersByPromotionHashMapContent() {
         HashMap<String, ArrayList<Order>> ordersByPromotion = jsonFileReader.getOrdersByPromotion();
-        assertEquals(new Order("ORDER1", 100.0), ordersByPromotion.get("PUNKTY").getFirst());
+        assertFalse(ordersByPromotion.containsKey("PUNKTY"));
         assertEquals(new Order("ORDER3", 150.0), ordersByPromotion.get("mZysk").getLast());
         assertEquals(new Order("ORDER2", 200.0), ordersByPromotion.get("BosBankrut").getFirst());
     }
@@ -71,6 +78,30 @@ public class JsonFileReaderTest {
         assertEquals(new PaymentMethod("BosBankrut", 5.0, 200.0), paymentMethodsById.get("BosBankrut"));
     }
 
+    // test checking whether the orders of every promotion are the same objects as the ones in the orders ArrayList
+    @Test
+    public void testOrdersByPromotionShareOrderObjects() {
+        ArrayList<Order> orders = jsonFileReader.getOrders();
+        assertSame(jsonFileReader.getOrders(), orders);
+        assertSame(orders.get(2), jsonFileReader.getOrdersByPromotion().get("mZysk").getLast());
+        assertSame(orders.get(1), jsonFileReader.getOrdersByPromotion().get("BosBankrut").getFirst());
+    }
+
+    // test checking whether limits and discounts are parsed exactly, with the same rounding as the values of the orders
+    @Test
+    public void testPaymentMethodsAreParsedExactly() throws IOException {
+        Path orders = directory.resolve("orders.json");
+        Path paymentMethods = directory.resolve("paymentmethods.json");
+        Files.writeString(orders, "[{\"id\": \"ORDER1\", \"value\": \"1.005\"}]");
+        Files.writeString(paymentMethods, "[{\"id\": \"PUNKTY\", \"discount\": \"7.125\", \"limit\": \"1.005\"}]");
+        JsonFileReader jsonFileReader1 = new JsonFileReader(orders.toString(), paymentMethods.toString());
+        PaymentMethod points = jsonFileReader1.getPaymentMethods().getFirst();
+        assertEquals(101, jsonFileReader1.getOrderStore().getValue(0));
+        assertEquals(101, points.getMinorLimit());
+        assertEquals(713, points.getDiscountBasisPoints());
+        assertEquals(1.01, points.getLimit());
+    }
+
     // test checking whether JsonFileReader constructor throws RuntimeException when one or both of the files do not exist
     @Test
     public void testJsonFileReaderThrowsExceptionWithNonExistingFile() {
@@ -103,4 +134,18 @@ public class JsonFileReaderTest {
         assertThrows(RuntimeException.class, () -> new JsonFileReader("scr/test/data/text.txt",
                 "src/main/resources/data/orders.json"));
     }
+
+    // test checking whether the streaming reader and the JsonArray reader produce the same orders and promotions
+    @Test
+    public void testStreamingAndArrayReadersReturnTheSameOrders() {
+        for (int i = 1; i <= 9; i++) {
+            String directory = "src/test/data/valueTests/test" + i + "/";
+            JsonFileReader streamingReader = new JsonFileReader(directory + "orders.json",
+                    directory + "paymentmethods.json", true);
+            JsonFileReader arrayReader = new JsonFileReader(directory + "orders.json",
+                    directory + "paymentmethods.json", false);
+            assertEquals(arrayReader.getOrders(), streamingReader.getOrders());
+            assertEquals(arrayReader.getOrdersByPromotion(), streamingReader.getOrdersByPromotion());
+        }
+    }
 }
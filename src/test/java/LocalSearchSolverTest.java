@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalSearchSolverTest {
+
+    // method checking whether a result pays for all orders within the limits of the payment methods, the funds spent
+    // follow GreedySolver, which does not take the rest of a partial payment by points from any payment method
+    private void assertValid(List<PaymentMethod> paymentMethods, AssignmentResult result) {
+        assertTrue(result.allPaid());
+        assertEquals(-1, result.failedOrder());
+        for (int methodIndex = 0; methodIndex < paymentMethods.size(); methodIndex++) {
+            long limit = paymentMethods.get(methodIndex).getMinorLimit();
+            assertTrue(result.spent()[methodIndex] <= limit);
+            assertEquals(limit - result.spent()[methodIndex], result.remainingLimits()[methodIndex]);
+        }
+    }
+
+    private static LocalSearchSolver solver(long timeBudgetMillis, long seed) {
+        return new LocalSearchSolver(timeBudgetMillis, 2, seed, ForkJoinPool.commonPool());
+    }
+
+    // test checking whether the local search finds the assignment the greedy one misses, where the first order should
+    // take its card, so that the second one can be paid wholly by points
+    @Test
+    public void testFindsBetterAssignmentThanGreedy() {
+        OrderStore orderStore = new OrderStore.Builder()
+                .add("ORDER_A", 10000, List.of("CardX"))
+                .add("ORDER_B", 9000, List.of())
+                .build();
+        List<PaymentMethod> paymentMethods = new ArrayList<>(List.of(new PaymentMethod("PUNKTY", 15, 100.0),
+                new PaymentMethod("CardX", 20, 100.0)));
+        LocalSearchSolver.Report report = solver(100, 1).solveWithReport(orderStore, paymentMethods);
+
+        assertEquals(2400, report.greedyResult().totalDiscount());
+        assertEquals(3350, report.result().totalDiscount());
+        assertArrayEquals(new long[]{7650, 8000}, report.result().spent());
+        assertValid(paymentMethods, report.result());
+    }
+
+    // test checking whether orders sharing an id get a single discounted candidate, so that nothing better than
+    // the greedy result of the fixture is found
+    @Test
+    public void testOrdersSharingIds() {
+        JsonFileReader jsonFileReader = new JsonFileReader("src/test/data/duplicateIds/orders.json",
+                "src/test/data/duplicateIds/paymentmethods.json");
+        LocalSearchSolver.Report report = solver(50, 3).solveWithReport(jsonFileReader.getOrderStore(), jsonFileReader.getPaymentMethods());
+        assertSame(report.greedyResult(), report.result());
+        assertEquals(3000, report.result().totalDiscount());
+        assertTrue(report.moves() > 0);
+    }
+
+    // test checking whether on random input, also with orders sharing ids, the result is never worse than the greedy
+    // one nor better than the optimum
+    @Test
+    public void testBetweenGreedyAndOptimum() {
+        Random random = new Random(24);
+        int improved = 0;
+        for (int instance = 0; instance < 60; instance++) {
+            InputSnapshot snapshot = RandomInputs.snapshot(random, 9, 3, instance % 2 == 1);
+            OrderStore orderStore = snapshot.getOrderStore();
+            List<PaymentMethod> paymentMethods = snapshot.toPaymentMethods();
+
+            LocalSearchSolver.Report report = solver(20, instance).solveWithReport(orderStore, paymentMethods);
+            assertTrue(report.gap() >= 0 || !report.greedyResult().allPaid());
+            if (report.result() == report.greedyResult())
+                continue;
+            improved++;
+            assertValid(paymentMethods, report.result());
+            BranchAndBoundSolver.Report exact = new BranchAndBoundSolver(1000).solveWithReport(orderStore, paymentMethods);
+            assertTrue(exact.optimal());
+            assertTrue(report.result().totalDiscount() <= exact.result().totalDiscount());
+        }
+        assertTrue(improved > 0);
+    }
+
+    // test checking whether the result is never worse than the greedy one on the test data
+    @Test
+    public void testNeverWorseThanGreedy() {
+        for (int i = 1; i <= 9; i++) {
+            JsonFileReader jsonFileReader = new JsonFileReader("src/test/data/valueTests/test" + i + "/orders.json",
+                    "src/test/data/valueTests/test" + i + "/paymentmethods.json");
+            LocalSearchSolver.Report report = solver(20, i)
+                    .solveWithReport(jsonFileReader.getOrderStore(), jsonFileReader.getPaymentMethods());
+            assertTrue(report.gap() >= 0 || !report.greedyResult().allPaid());
+            if (report.result() != report.greedyResult())
+                assertValid(jsonFileReader.getPaymentMethods(), report.result());
+        }
+    }
+
+    // test checking whether the greedy result is returned when there is no time to search
+    @Test
+    public void testFallsBackToGreedyWithoutTimeBudget() {
+        JsonFileReader jsonFileReader = new JsonFileReader("src/main/resources/data/orders.json",
+                "src/main/resources/data/paymentmethods.json");
+        LocalSearchSolver.Report report = solver(0, 0).solveWithReport(jsonFileReader.getOrderStore(), jsonFileReader.getPaymentMethods());
+        assertSame(report.greedyResult(), report.result());
+        assertEquals(0, report.moves());
+    }
+}
@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodDictionaryTest {
+
+    // test checking whether payment methods get codes of their distinct ids in the order of their first appearance
+    @Test
+    public void testCodes() {
+        MethodDictionary dictionary = new MethodDictionary(new String[]{"mZysk", "PUNKTY", "BosBankrut", "mZysk"});
+        assertEquals(4, dictionary.getMethodCount());
+        assertEquals(3, dictionary.size());
+        assertEquals(0, dictionary.getCode(0));
+        assertEquals(0, dictionary.getCode(3));
+        assertEquals(2, dictionary.getCode(2));
+        assertEquals("BosBankrut", dictionary.getId(2));
+        assertEquals("mZysk", dictionary.getMethodId(3));
+        assertEquals(1, dictionary.codeOf("PUNKTY"));
+        assertEquals(-1, dictionary.codeOf("Other"));
+        assertEquals(0, dictionary.indexOfMethod("mZysk"));
+        assertEquals(-1, dictionary.indexOfMethod("Other"));
+    }
+
+    // test checking whether points are recognized in any letter case for generating assignments, but only as the
+    // exact id for the limit kept as points
+    @Test
+    public void testPoints() {
+        MethodDictionary dictionary = new MethodDictionary(new String[]{"punkty", "mZysk", "PUNKTY"});
+        assertTrue(dictionary.isPoints(0));
+        assertFalse(dictionary.isPoints(1));
+        assertTrue(dictionary.isPoints(2));
+        assertEquals(2, dictionary.getPointsMethod());
+        assertEquals(-1, new MethodDictionary(new String[]{"mZysk"}).getPointsMethod());
+    }
+
+    // test checking whether the snapshot finds promotions and payment methods through the dictionary
+    @Test
+    public void testSnapshotLookups() {
+        CalculationsClass calculationsClass = new CalculationsClass("src/test/data/valueTests/test1/orders.json",
+                "src/test/data/valueTests/test1/paymentmethods.json");
+        InputSnapshot snapshot = calculationsClass.getSnapshot();
+        assertEquals(snapshot.getMethodCount(), snapshot.getDictionary().size());
+        for (int method = 0; method < snapshot.getMethodCount(); method++) {
+            assertEquals(snapshot.getOrderStore().indexOfPromotion(snapshot.getMethodId(method)), snapshot.getPromotion(method));
+        }
+
+        OrderStore orderStore = new OrderStore.Builder().add("ORDER1", 10_000, List.of("BankX")).build();
+        InputSnapshot repeated = InputSnapshot.of(orderStore, List.of(new PaymentMethod("BankX", 10, 50.0),
+                new PaymentMethod("BankX", 5, 100.0)));
+        assertEquals(1, repeated.getDictionary().size());
+        assertEquals(0, repeated.indexOfMethod("BankX"));
+    }
+}
@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.Test;
+import projects.Money;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    // test checking whether amounts are parsed exactly into grosze
+    @Test
+    public void testParse() {
+        assertEquals(10000, Money.parse("100.00"));
+        assertEquals(10000, Money.parse("100"));
+        assertEquals(10050, Money.parse("100.5"));
+        assertEquals(1, Money.parse("0.01"));
+        assertEquals(-250, Money.parse("-2.50"));
+        assertEquals(12_345_678_901_234L, Money.parse("123456789012.34"));
+    }
+
+    // test checking whether amounts with more than two decimal places or exponents are rounded half up
+    @Test
+    public void testParseRoundsHalfUp() {
+        assertEquals(101, Money.parse("1.005"));
+        assertEquals(100, Money.parse("1.0049"));
+        assertEquals(12000, Money.parse("1.2e2"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+    }
+
+    // test checking the rounding rules of percentages
+    @Test
+    public void testPercentages() {
+        assertEquals(1500, Money.toBasisPoints(15));
+        assertEquals(750, Money.toBasisPoints(7.5));
+        assertEquals(1500, Money.parsePercent("15"));
+        assertEquals(750, Money.parsePercent("7.5"));
+        assertEquals(1001, Money.parsePercent("10.005"));
+
+        // 15% of 0.33 is 0.0495, rounded half up to 0.05
+        assertEquals(5, Money.percentOf(33, 1500));
+
+        // 10% of 12.34 is 1.234, the discount is rounded to 1.23 but the minimum share paid with points is 1.24
+        assertEquals(123, Money.percentOf(1234, 1000));
+        assertEquals(124, Money.minimumShare(1234, 1000));
+        assertEquals(1000, Money.minimumShare(10000, 1000));
+    }
+
+    // test checking whether conversions between grosze and doubles give the closest doubles
+    @Test
+    public void testConversions() {
+        assertEquals(244.5, Money.toDouble(24450));
+        assertEquals(0.1, Money.toDouble(10));
+        assertEquals(24450, Money.toMinor(244.5));
+        assertEquals(10, Money.toMinor(0.1));
+    }
+}
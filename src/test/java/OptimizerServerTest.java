@@ -0,0 +1,134 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projects.AssignmentResult;
+import projects.GreedySolver;
+import projects.OptimizerServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimizerServerTest {
+
+    private OptimizerServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setUp() {
+        server = new OptimizerServer(0, new GreedySolver());
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpResponse<String> post(String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/optimize"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // test checking whether the server returns the same costs as Main for the files from resources
+    @Test
+    public void testReturnsSameCostsAsMain() throws IOException, InterruptedException {
+        String orders = Files.readString(Path.of("src/main/resources/data/orders.json"));
+        String paymentMethods = Files.readString(Path.of("src/main/resources/data/paymentmethods.json"));
+
+        // the same request twice, to check that nothing is kept between requests
+        for (int i = 0; i < 2; i++) {
+            HttpResponse<String> response = post("{\"orders\": " + orders + ", \"paymentMethods\": " + paymentMethods + "}");
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"costs\":{\"PUNKTY\":\"100.00\",\"mZysk\":\"165.00\",\"BosBankrut\":\"190.00\"},\"allPaid\":true}",
+                    response.body());
+        }
+    }
+
+    // test checking whether unused payment methods are returned with zero costs
+    @Test
+    public void testUnusedPaymentMethodHasZeroCost() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("""
+                {"orders": [{"id": "ORDER1", "value": "10.00", "promotions": ["CardA"]}],
+                 "paymentMethods": [{"id": "CardA", "discount": "10", "limit": "100.00"},
+                                    {"id": "CardB", "discount": "5", "limit": "100.00"}]}""");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"costs\":{\"CardA\":\"9.00\",\"CardB\":\"0.00\"},\"allPaid\":true}", response.body());
+    }
+
+    // test checking whether a server with a cache answers repeated requests from it with the same costs
+    @Test
+    public void testCachedRequests() throws IOException, InterruptedException {
+        server.stop(0);
+        server = new OptimizerServer(0, new GreedySolver(), 4);
+        server.start();
+        for (int i = 0; i < 3; i++) {
+            HttpResponse<String> response = post("""
+                    {"orders": [{"id": "ORDER%d", "value": "10.00", "promotions": ["CardA"]}],
+                     "paymentMethods": [{"id": "CardA", "discount": "10", "limit": "100.00"},
+                                        {"id": "CardB", "discount": "5", "limit": "100.00"}]}""".formatted(i));
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"costs\":{\"CardA\":\"9.00\",\"CardB\":\"0.00\"},\"allPaid\":true}", response.body());
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/stats")).build();
+        assertEquals("{\"hits\":2,\"misses\":1,\"evictions\":0,\"size\":1}",
+                client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    // test checking whether malformed input is rejected with 400
+    @Test
+    public void testRejectsMalformedInput() throws IOException, InterruptedException {
+        assertEquals(400, post("{\"orders\": []}").statusCode());
+        assertEquals(400, post("[1, 2]").statusCode());
+        assertEquals(400, post("{\"orders\": [{\"id\": \"ORDER1\"}], \"paymentMethods\": []}").statusCode());
+    }
+
+    // test checking whether a body larger than the limit is rejected with 413 and one within it is calculated
+    @Test
+    public void testRejectsLargeBody() throws IOException, InterruptedException {
+        server.stop(0);
+        server = new OptimizerServer(0, new GreedySolver(), 0, 300);
+        server.start();
+        String body = """
+                {"orders": [{"id": "ORDER1", "value": "10.00", "promotions": ["CardA"]}],
+                 "paymentMethods": [{"id": "CardA", "discount": "10", "limit": "100.00"}]}""";
+        assertEquals(200, post(body).statusCode());
+        assertEquals(413, post(body + " ".repeat(300)).statusCode());
+    }
+
+    // test checking whether an order paid only partially gives 422 and any other failure of the solver gives 500
+    @Test
+    public void testFailuresOfSolver() throws IOException, InterruptedException {
+        String body = """
+                {"orders": [{"id": "ORDER1", "value": "10.00"}],
+                 "paymentMethods": [{"id": "CardA", "discount": "10", "limit": "100.00"}]}""";
+        server.stop(0);
+        server = new OptimizerServer(0, (orderStore, paymentMethods) -> new AssignmentResult(new long[1], new boolean[1],
+                new long[1], new boolean[1], 0, 0));
+        server.start();
+        HttpResponse<String> response = post(body);
+        assertEquals(422, response.statusCode());
+        assertEquals("{\"error\":\"Cannot pay for ORDER1 - insufficient amount of funds!\"}", response.body());
+
+        server.stop(0);
+        server = new OptimizerServer(0, (orderStore, paymentMethods) -> {
+            throw new IllegalStateException("Broken solver");
+        });
+        server.start();
+        assertEquals(500, post(body).statusCode());
+    }
+
+    // test checking whether requests other than POST are rejected with 405
+    @Test
+    public void testRejectsGet() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/optimize")).GET().build();
+        assertEquals(405, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+}
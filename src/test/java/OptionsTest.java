@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptionsTest {
+
+    // test checking whether the paths of the files and the options after them are parsed, with defaults for the rest
+    @Test
+    public void testSingleMode() {
+        Options options = Options.parse(new String[]{"orders.json", "methods.json", "--parallel-read", "--improve=50"});
+        assertEquals(Options.Mode.SINGLE, options.mode());
+        assertEquals("orders.json", options.input());
+        assertEquals("methods.json", options.paymentMethodsPath());
+        assertTrue(options.parallelRead());
+        assertEquals(50, options.improveMillis());
+        assertEquals(-1, options.exactMillis());
+        assertEquals(LocalSearchSolver.DEFAULT_SEED, options.seed());
+        assertEquals("text", options.output());
+        assertFalse(options.metrics());
+        assertInstanceOf(LocalSearchSolver.class, options.createSolver());
+
+        assertInstanceOf(GreedySolver.class, Options.parse(new String[]{"orders.json", "methods.json"}).createSolver());
+        assertInstanceOf(BranchAndBoundSolver.class, Options.parse(new String[]{"orders.json", "methods.json", "--exact=10"}).createSolver());
+        assertInstanceOf(PartitionedSolver.class, Options.parse(new String[]{"orders.json", "methods.json", "--shards=4"}).createSolver());
+        assertEquals(7, Options.parse(new String[]{"orders.json", "methods.json", "--improve=50", "--seed=7"}).seed());
+    }
+
+    // test checking whether "--metrics" and "--output" are accepted anywhere, also before the paths of the files
+    @Test
+    public void testGlobalOptions() {
+        Options options = Options.parse(new String[]{"--metrics", "--output=ndjson", "orders.json", "methods.json"});
+        assertEquals(Options.Mode.SINGLE, options.mode());
+        assertTrue(options.metrics());
+        assertEquals("ndjson", options.output());
+
+        options = Options.parse(new String[]{"--batch=baskets.ndjson", "--threads=3", "--output=text", "--metrics"});
+        assertEquals(Options.Mode.BATCH, options.mode());
+        assertEquals("baskets.ndjson", options.input());
+        assertEquals(3, options.threads());
+        assertEquals(32, Options.parse(new String[]{"--batch=-", "--cache=32"}).cacheSize());
+        assertEquals("text", options.output());
+        assertTrue(options.metrics());
+    }
+
+    // test checking whether the first argument chooses the server, batch and snapshot modes
+    @Test
+    public void testModes() {
+        Options server = Options.parse(new String[]{"--server"});
+        assertEquals(Options.Mode.SERVER, server.mode());
+        assertEquals(8080, server.port());
+        assertEquals(0, server.cacheSize());
+
+        server = Options.parse(new String[]{"--server=9090", "--cache=16", "--shards=2"});
+        assertEquals(9090, server.port());
+        assertEquals(16, server.cacheSize());
+        assertEquals(2, server.shards());
+
+        Options batch = Options.parse(new String[]{"--batch=-"});
+        assertEquals("-", batch.input());
+        assertEquals(0, batch.cacheSize());
+        assertEquals("ndjson", batch.output());
+        assertEquals(Runtime.getRuntime().availableProcessors(), batch.threads());
+
+        Options snapshot = Options.parse(new String[]{"--snapshot=input.bin", "--exact=100"});
+        assertEquals(Options.Mode.SNAPSHOT, snapshot.mode());
+        assertEquals("input.bin", snapshot.input());
+        assertEquals(100, snapshot.exactMillis());
+
+        Options export = Options.parse(new String[]{"orders.json", "methods.json", "--export-snapshot=input.bin"});
+        assertEquals(Options.Mode.EXPORT, export.mode());
+        assertEquals("input.bin", export.exportPath());
+
+        Options scenario = Options.parse(new String[]{"orders.json", "methods.json", "--scenario=a:PUNKTY.limit=0", "--scenario=b:PUNKTY.limit*=2"});
+        assertEquals(Options.Mode.SCENARIO, scenario.mode());
+        assertEquals(List.of("a:PUNKTY.limit=0", "b:PUNKTY.limit*=2"), scenario.scenarios());
+    }
+
+    // test checking whether unknown options, options of other modes and conflicting options are rejected
+    @Test
+    public void testRejectedOptions() {
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[0]));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"orders.json"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"orders.json", "--exact=10"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"orders.json", "methods.json", "--unknown"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"orders.json", "methods.json", "--cache=4"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"orders.json", "methods.json", "--threads=4"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"--server", "--parallel-read"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"--batch=-", "--scenario=a:PUNKTY.limit=0"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"--snapshot=input.bin", "--cache=4"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"orders.json", "methods.json", "--exact=10", "--improve=10"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"orders.json", "methods.json", "--shards=2", "--exact=10"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"orders.json", "methods.json", "--seed=7"}));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[]{"orders.json", "methods.json", "--export-snapshot=input.bin", "--scenario=a:PUNKTY.limit=0"}));
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projects.JsonFileReader;
+import projects.Money;
+import projects.Order;
+import projects.OrderStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStoreTest {
+
+    private JsonFileReader jsonFileReader;
+    private OrderStore orderStore;
+
+    @BeforeEach
+    public void setUp() {
+        jsonFileReader = new JsonFileReader("src/main/resources/data/orders.json",
+                "src/main/resources/data/paymentmethods.json");
+        orderStore = jsonFileReader.getOrderStore();
+    }
+
+    // test checking whether the store contains the same orders, in the same order, as the orders ArrayList
+    @Test
+    public void testStoreMatchesOrdersList() {
+        ArrayList<Order> orders = jsonFileReader.getOrders();
+        assertEquals(orders.size(), orderStore.size());
+        for (int i = 0; i < orders.size(); i++) {
+            assertEquals(orders.get(i).getId(), orderStore.getId(i));
+            assertEquals(orders.get(i).getValue(), Money.toDouble(orderStore.getValue(i)));
+        }
+    }
+
+    // test checking whether the inverted promotion index matches the ordersByPromotion HashMap, without "PUNKTY"
+    @Test
+    public void testOrdersByPromotionMatchesHashMap() {
+        HashMap<String, ArrayList<Order>> ordersByPromotion = jsonFileReader.getOrdersByPromotion();
+        assertEquals(-1, orderStore.indexOfPromotion("PUNKTY"));
+        assertEquals(ordersByPromotion.size(), orderStore.getPromotionCount());
+        for (int p = 0; p < orderStore.getPromotionCount(); p++) {
+            List<Order> expected = ordersByPromotion.get(orderStore.getPromotionId(p));
+            List<Order> actual = new ArrayList<>();
+            for (int k = orderStore.ordersByPromotionStart(p); k < orderStore.ordersByPromotionEnd(p); k++) {
+                actual.add(jsonFileReader.getOrders().get(orderStore.getOrderByPromotion(k)));
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    // test checking whether promotions of a single order are stored as read from the file
+    @Test
+    public void testPromotionsOfOrder() {
+        int order = 2;
+        List<String> promotions = new ArrayList<>();
+        for (int k = orderStore.promotionsStart(order); k < orderStore.promotionsEnd(order); k++) {
+            promotions.add(orderStore.getPromotionId(orderStore.getPromotion(k)));
+        }
+        assertEquals(List.of("mZysk", "BosBankrut"), promotions);
+        assertEquals(orderStore.promotionsStart(3), orderStore.promotionsEnd(3));
+    }
+
+    // test checking whether reading only the store gives the same result as reading the orders with JsonFileReader
+    @Test
+    public void testReadOrderStoreMatchesJsonFileReader() {
+        OrderStore readStore = JsonFileReader.readOrderStore("src/main/resources/data/orders.json");
+        assertEquals(orderStore.size(), readStore.size());
+        for (int i = 0; i < orderStore.size(); i++) {
+            assertEquals(orderStore.getId(i), readStore.getId(i));
+            assertEquals(orderStore.getValue(i), readStore.getValue(i));
+            assertEquals(orderStore.promotionsEnd(i), readStore.promotionsEnd(i));
+        }
+    }
+
+    // test checking whether the store grows correctly past its initial capacity
+    @Test
+    public void testBuilderGrowsPastInitialCapacity() {
+        OrderStore.Builder builder = new OrderStore.Builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add("ORDER" + i, i, i % 3 == 0 ? List.of("A", "B") : List.of("C"));
+        }
+        OrderStore store = builder.build();
+        assertEquals(1000, store.size());
+        assertEquals("ORDER999", store.getId(999));
+        assertEquals(999, store.getValue(999));
+        assertEquals(334, store.ordersByPromotionEnd(store.indexOfPromotion("A")) - store.ordersByPromotionStart(store.indexOfPromotion("A")));
+        assertEquals(666, store.ordersByPromotionEnd(store.indexOfPromotion("C")) - store.ordersByPromotionStart(store.indexOfPromotion("C")));
+    }
+
+    // test checking whether orders sharing an id point at the first of them, and whether distinct ids give null
+    @Test
+    public void testFirstOrdersWithSameId() {
+        assertNull(orderStore.getFirstOrdersWithSameId());
+
+        OrderStore.Builder builder = new OrderStore.Builder();
+        for (String id : List.of("A", "B", "A", "C", "B", "A")) {
+            builder.add(id, 100, List.of());
+        }
+        assertArrayEquals(new int[]{0, 1, 0, 3, 1, 0}, builder.build().getFirstOrdersWithSameId());
+    }
+}
@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedSolverTest {
+
+    // orders in independent groups, each group sharing its own card
+    private OrderStore groupedOrders(int groups, int ordersPerGroup, Random random) {
+        OrderStore.Builder builder = new OrderStore.Builder();
+        for (int i = 0; i < groups * ordersPerGroup; i++) {
+            builder.add("ORDER" + i, 1_000 + random.nextInt(10_000), List.of("Card" + (i % groups)));
+        }
+        return builder.build();
+    }
+
+    private List<PaymentMethod> groupCards(int groups, double limit) {
+        List<PaymentMethod> paymentMethods = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            paymentMethods.add(new PaymentMethod("Card" + group, 5 + group % 10, limit));
+        }
+        return paymentMethods;
+    }
+
+    private void assertConsistent(List<PaymentMethod> paymentMethods, AssignmentResult result) {
+        for (int methodIndex = 0; methodIndex < paymentMethods.size(); methodIndex++) {
+            long limit = Money.toMinor(paymentMethods.get(methodIndex).getLimit());
+            assertTrue(result.spent()[methodIndex] <= limit);
+            assertEquals(limit - result.spent()[methodIndex], result.remainingLimits()[methodIndex]);
+        }
+    }
+
+    // test checking whether orders sharing a card are always placed in the same shard
+    @Test
+    public void testOrdersSharingCardAreInSameShard() {
+        OrderStore.Builder builder = new OrderStore.Builder();
+        builder.add("ORDER1", 100, List.of("CardA"));
+        builder.add("ORDER2", 100, List.of("CardB"));
+        builder.add("ORDER3", 100, List.of("CardA", "CardC"));
+        builder.add("ORDER4", 100, List.of("CardC"));
+        builder.add("ORDER5", 100, List.of());
+        OrderStore orderStore = builder.build();
+        List<PaymentMethod> paymentMethods = List.of(new PaymentMethod("PUNKTY", 15, 10.0),
+                new PaymentMethod("CardA", 10, 10.0), new PaymentMethod("CardB", 10, 10.0), new PaymentMethod("CardC", 10, 10.0));
+
+        AssignmentResult result = new PartitionedSolver(3).solve(orderStore, paymentMethods);
+        assertTrue(result.allPaid());
+        assertConsistent(paymentMethods, result);
+
+        // ORDER1, ORDER3 and ORDER4 are connected through CardA and CardC, points do not connect orders
+        AssignmentResult whole = new GreedySolver().solve(orderStore, paymentMethods);
+        assertEquals(whole.totalDiscount(), result.totalDiscount());
+    }
+
+    // test checking whether independent components without points give the same result as solving them at once, when
+    // every card can pay for all orders of its group
+    @Test
+    public void testIndependentComponentsMatchWholeProblem() {
+        Random random = new Random(3);
+        OrderStore orderStore = groupedOrders(40, 10, random);
+        List<PaymentMethod> paymentMethods = groupCards(40, 1_200.0);
+
+        AssignmentResult whole = new GreedySolver().solve(orderStore, paymentMethods);
+        AssignmentResult partitioned = new PartitionedSolver(8).solve(orderStore, paymentMethods);
+        assertEquals(whole.totalDiscount(), partitioned.totalDiscount());
+        assertArrayEquals(whole.spent(), partitioned.spent());
+        assertArrayEquals(whole.paid(), partitioned.paid());
+        assertConsistent(paymentMethods, partitioned);
+    }
+
+    // test checking whether points shared by all shards never exceed their limit and all orders are still paid
+    @Test
+    public void testPointsAreSharedByShards() {
+        Random random = new Random(5);
+        OrderStore orderStore = groupedOrders(20, 10, random);
+        List<PaymentMethod> paymentMethods = groupCards(20, 200.0);
+        paymentMethods.add(new PaymentMethod("PUNKTY", 15, 3_000.0));
+        paymentMethods.add(new PaymentMethod("Unused", 50, 20_000.0));
+
+        AssignmentResult result = new PartitionedSolver(4).solve(orderStore, paymentMethods);
+        assertTrue(result.allPaid());
+        assertEquals(-1, result.failedOrder());
+        assertConsistent(paymentMethods, result);
+    }
+
+    // test checking whether the partitioned solver gives exactly the result of the greedy solver when points are
+    // scarce, so that orders are paid partially with points and by the leftover pass, some of them sharing ids
+    @Test
+    public void testMatchesGreedySolverWithPartialAndLeftoverOrders() {
+        for (int seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            int groups = 2 + random.nextInt(12);
+            OrderStore.Builder builder = new OrderStore.Builder();
+            for (int i = 0; i < 20 + random.nextInt(100); i++) {
+                List<String> promotions = random.nextInt(4) == 0 ? List.of() : List.of("Card" + random.nextInt(groups));
+                builder.add("ORDER" + random.nextInt(150), 100 + random.nextInt(20_000), promotions);
+            }
+            OrderStore orderStore = builder.build();
+            List<PaymentMethod> paymentMethods = groupCards(groups, 20.0 + random.nextInt(300));
+            paymentMethods.add(random.nextInt(paymentMethods.size()), new PaymentMethod("PUNKTY", 15, 50.0 + random.nextInt(1_000)));
+
+            AssignmentResult whole = new GreedySolver().solve(orderStore, paymentMethods);
+            for (int shards = 2; shards <= 6; shards++) {
+                AssignmentResult partitioned = new PartitionedSolver(shards).solve(orderStore, paymentMethods);
+                assertEquals(whole.totalDiscount(), partitioned.totalDiscount());
+                assertArrayEquals(whole.spent(), partitioned.spent());
+                assertArrayEquals(whole.used(), partitioned.used());
+                assertArrayEquals(whole.remainingLimits(), partitioned.remainingLimits());
+                assertArrayEquals(whole.paid(), partitioned.paid());
+                assertEquals(whole.failedOrder(), partitioned.failedOrder());
+            }
+        }
+    }
+
+    // test checking whether the partitioned solver can be used by CalculationsClass
+    @Test
+    public void testUsedByCalculationsClass() {
+        CalculationsClass calculationsClass = new CalculationsClass("src/main/resources/data/orders.json",
+                "src/main/resources/data/paymentmethods.json");
+        calculationsClass.setSolver(new PartitionedSolver(4));
+        calculationsClass.chooseBestOption();
+        for (Order order : calculationsClass.getOrders()) {
+            assertTrue(order.isPaid());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelineMetricsTest {
+
+    private static final String ORDERS_PATH = "src/test/data/valueTests/test1/orders.json";
+    private static final String PAYMENT_METHODS_PATH = "src/test/data/valueTests/test1/paymentmethods.json";
+
+    @AfterEach
+    public void disable() {
+        PipelineMetrics.get().setEnabled(false);
+        PipelineMetrics.get().reset();
+    }
+
+    // test checking whether nothing is recorded while the metrics are disabled
+    @Test
+    public void testDisabled() {
+        PipelineMetrics.get().reset();
+        new CalculationsClass(ORDERS_PATH, PAYMENT_METHODS_PATH).chooseBestOption();
+        assertEquals(0, PipelineMetrics.get().getRuns());
+        assertEquals(0, PipelineMetrics.get().getReadNanos());
+        assertEquals(0, PipelineMetrics.get().getPointsCandidates());
+    }
+
+    // test checking whether a calculation records its phases, candidates and discount
+    @Test
+    public void testRecordsCalculation() {
+        PipelineMetrics metrics = PipelineMetrics.enable();
+        metrics.reset();
+        CalculationsClass calculationsClass = new CalculationsClass(ORDERS_PATH, PAYMENT_METHODS_PATH);
+        calculationsClass.generateCandidates();
+        CandidateBuffer candidates = calculationsClass.getCandidates();
+        AssignmentResult result = new GreedySolver().solve(calculationsClass.getSnapshot(), new SolverState());
+
+        assertEquals(1, metrics.getRuns());
+        for (PipelineMetrics.Phase phase : PipelineMetrics.Phase.values()) {
+            assertTrue(metrics.getNanos(phase) > 0, phase.name());
+        }
+        int[] counts = new int[AssignmentType.values().length];
+        for (int candidate = 0; candidate < candidates.size(); candidate++) {
+            counts[candidates.getType(candidate).ordinal()]++;
+        }
+        assertEquals(counts[AssignmentType.POINTS.ordinal()], metrics.getPointsCandidates());
+        assertEquals(counts[AssignmentType.CARD.ordinal()], metrics.getCardCandidates());
+        assertEquals(counts[AssignmentType.PARTIAL.ordinal()], metrics.getPartialCandidates());
+        assertEquals(result.totalDiscount(), metrics.getTotalDiscount());
+
+        JsonObject summary = Json.createReader(new StringReader(metrics.getSummary())).readObject();
+        assertEquals(1, summary.getInt("runs"));
+        assertEquals(metrics.getFallbackOrders(), summary.getJsonNumber("fallbackOrders").longValue());
+        assertEquals(metrics.getGenerateNanos(), summary.getJsonObject("phases").getJsonObject("generate").getJsonNumber("nanos").longValue());
+        assertFalse(metrics.getSummary().contains("\n"));
+    }
+
+    // test checking whether orders left unpaid by the greedy pass are counted
+    @Test
+    public void testFallbackOrders() {
+        PipelineMetrics metrics = PipelineMetrics.enable();
+        metrics.reset();
+        OrderStore orderStore = new OrderStore.Builder()
+                .add("ORDER1", 10_000, java.util.List.of())
+                .build();
+
+        // points cover less than 10% of the order, so no candidate exists and the order is paid by the fallback loop
+        InputSnapshot snapshot = InputSnapshot.of(orderStore, java.util.List.of(new PaymentMethod("PUNKTY", 10, 5.0),
+                new PaymentMethod("mZysk", 10, 200.0)));
+        assertTrue(new GreedySolver().solve(snapshot, new SolverState()).allPaid());
+        assertEquals(1, metrics.getFallbackOrders());
+    }
+
+    // test checking whether the metrics can be read through JMX
+    @Test
+    public void testMBean() throws Exception {
+        PipelineMetrics.enable();
+        PipelineMetrics.get().reset();
+        new GreedySolver().solve(new CalculationsClass(ORDERS_PATH, PAYMENT_METHODS_PATH).getSnapshot(), new SolverState());
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(PipelineMetrics.OBJECT_NAME);
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "Runs"));
+        assertEquals(true, mBeanServer.getAttribute(objectName, "Enabled"));
+        mBeanServer.invoke(objectName, "reset", null, null);
+        assertEquals(0L, mBeanServer.getAttribute(objectName, "Runs"));
+    }
+}
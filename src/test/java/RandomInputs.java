@@ -0,0 +1,35 @@
+import projects.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// class for creating random orders and payment methods shared by the tests comparing two ways of calculating a result
+final class RandomInputs {
+
+    private RandomInputs() {}
+
+    // method creating up to maxOrders orders with promotions of up to maxCards cards and limits from scarce to
+    // plentiful, with duplicateIds about every fourth order gets the id of an earlier one, so that the greedy pass
+    // has to skip orders whose id was already assigned
+    static InputSnapshot snapshot(Random random, int maxOrders, int maxCards, boolean duplicateIds) {
+        int cardCount = 1 + random.nextInt(maxCards);
+        OrderStore.Builder builder = new OrderStore.Builder();
+        int orderCount = 1 + random.nextInt(maxOrders);
+        for (int order = 0; order < orderCount; order++) {
+            List<String> promotions = new ArrayList<>();
+            for (int card = 0; card < cardCount; card++) {
+                if (random.nextBoolean())
+                    promotions.add("card" + card);
+            }
+            int id = duplicateIds && order > 0 && random.nextInt(4) == 0 ? random.nextInt(order) : order;
+            builder.add("ORDER" + id, 100 + random.nextInt(20_000), promotions);
+        }
+        List<PaymentMethod> paymentMethods = new ArrayList<>();
+        paymentMethods.add(new PaymentMethod("PUNKTY", random.nextInt(30), random.nextInt(orderCount * 100)));
+        for (int card = 0; card < cardCount; card++) {
+            paymentMethods.add(new PaymentMethod("card" + card, random.nextInt(30), random.nextInt(orderCount * 150)));
+        }
+        return InputSnapshot.of(builder.build(), paymentMethods);
+    }
+}
@@ -0,0 +1,179 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTest {
+
+    private static void assertSameResult(CostsResult expected, CostsResult result) {
+        assertArrayEquals(expected.methodIds(), result.methodIds());
+        assertArrayEquals(expected.costs(), result.costs());
+        assertEquals(expected.allPaid(), result.allPaid());
+    }
+
+    private static CostsResult fresh(InputSnapshot snapshot) {
+        return CostsResult.of(null, snapshot, new GreedySolver().solve(snapshot, new SolverState()));
+    }
+
+    // method creating a basket whose orders have the given ids and, apart from the cards, the given promotion
+    private static InputSnapshot basket(String orderPrefix, String otherPromotion, double cardLimit) {
+        OrderStore orderStore = new OrderStore.Builder()
+                .add(orderPrefix + "1", 10000, List.of(otherPromotion, "CardA"))
+                .add(orderPrefix + "2", 20000, List.of("CardB"))
+                .build();
+        return InputSnapshot.of(orderStore, List.of(new PaymentMethod("PUNKTY", 15, 50.0),
+                new PaymentMethod("CardA", 10, cardLimit), new PaymentMethod("CardB", 5, 300.0)));
+    }
+
+    // test checking whether cached results of the test data are the same as the ones of CalculationsClass
+    @Test
+    public void testSameAsCalculationsClass() {
+        ResultCache cache = new ResultCache(new GreedySolver(), 16);
+        for (int i = 0; i < 2; i++) {
+            for (int test = 1; test <= 9; test++) {
+                String directory = "src/test/data/valueTests/test" + test + "/";
+                CalculationsClass calculationsClass = new CalculationsClass(directory + "orders.json", directory + "paymentmethods.json");
+                calculationsClass.chooseBestOption();
+                CostsResult result = cache.get("test" + test, InputSnapshot.of(new JsonFileReader(directory + "orders.json",
+                        directory + "paymentmethods.json")));
+                assertEquals("test" + test, result.id());
+                assertSameResult(calculationsClass.getResult(null), result);
+            }
+        }
+
+        // some of the test data differ only in ids of the orders, so they share a result
+        ResultCache.Stats stats = cache.getStats();
+        assertEquals(18, stats.hits() + stats.misses());
+        assertEquals(stats.misses(), stats.size());
+        assertTrue(stats.hits() >= 9);
+    }
+
+    // test checking whether every result of random baskets requested again and again, many of them after being evicted,
+    // is the same as a fresh calculation, also when some orders share ids
+    @Test
+    public void testSameAsFreshCalculationOnRandomInput() {
+        Random random = new Random(23);
+        List<InputSnapshot> snapshots = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            snapshots.add(RandomInputs.snapshot(random, 30, 4, i % 2 == 1));
+        }
+        ResultCache cache = new ResultCache(new GreedySolver(), 8);
+        for (int i = 0; i < 2000; i++) {
+            InputSnapshot snapshot = snapshots.get(random.nextInt(snapshots.size()));
+            CostsResult expected;
+            try {
+                expected = fresh(snapshot);
+            } catch (RuntimeException exception) {
+                continue;
+            }
+            assertSameResult(expected, cache.get(null, snapshot));
+        }
+        ResultCache.Stats stats = cache.getStats();
+        assertTrue(stats.hits() > 0);
+        assertTrue(stats.evictions() > 0);
+        assertEquals(8, stats.size());
+    }
+
+    // test checking whether ids of orders and promotions without a payment method do not matter, but limits do
+    @Test
+    public void testCanonicalKey() {
+        ResultCache cache = new ResultCache(new GreedySolver(), 16);
+        cache.get(null, basket("ORDER", "Other", 200.0));
+        cache.get(null, basket("X", "Unknown", 200.0));
+        assertEquals(new ResultCache.Stats(1, 1, 0, 1), cache.getStats());
+
+        InputSnapshot changed = basket("ORDER", "Other", 50.0);
+        assertSameResult(fresh(changed), cache.get(null, changed));
+        assertEquals(new ResultCache.Stats(1, 2, 0, 2), cache.getStats());
+    }
+
+    // test checking whether a basket whose orders share an id does not get the result of the same basket with different
+    // ids, as only the first of the orders sharing an id can get a promotion
+    @Test
+    public void testOrdersSharingIds() {
+        List<PaymentMethod> paymentMethods = List.of(new PaymentMethod("PUNKTY", 15, 100.0), new PaymentMethod("mZysk", 10, 500.0));
+        InputSnapshot sharedIds = InputSnapshot.of(new OrderStore.Builder()
+                .add("ORDER1", 10000, List.of("mZysk"))
+                .add("ORDER1", 10000, List.of("mZysk"))
+                .add("ORDER2", 5000, List.of("mZysk"))
+                .build(), paymentMethods);
+        InputSnapshot differentIds = InputSnapshot.of(new OrderStore.Builder()
+                .add("A", 10000, List.of("mZysk"))
+                .add("B", 10000, List.of("mZysk"))
+                .add("C", 5000, List.of("mZysk"))
+                .build(), paymentMethods);
+
+        ResultCache cache = new ResultCache(new GreedySolver(), 4);
+        CostsResult first = cache.get(null, sharedIds);
+        CostsResult second = cache.get(null, differentIds);
+        assertSameResult(fresh(sharedIds), first);
+        assertSameResult(fresh(differentIds), second);
+        assertFalse(Arrays.equals(first.costs(), second.costs()));
+        assertEquals(new ResultCache.Stats(0, 2, 0, 2), cache.getStats());
+
+        assertSameResult(fresh(sharedIds), cache.get(null, sharedIds));
+        assertEquals(new ResultCache.Stats(1, 2, 0, 2), cache.getStats());
+    }
+
+    // test checking whether the least recently used result is evicted first
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        ResultCache cache = new ResultCache(new GreedySolver(), 2);
+        InputSnapshot first = basket("ORDER", "Other", 100.0);
+        InputSnapshot second = basket("ORDER", "Other", 200.0);
+        InputSnapshot third = basket("ORDER", "Other", 300.0);
+        cache.get(null, first);
+        cache.get(null, second);
+        cache.get(null, first);
+        cache.get(null, third);
+        assertEquals(new ResultCache.Stats(1, 3, 1, 2), cache.getStats());
+
+        cache.get(null, first);
+        cache.get(null, second);
+        assertEquals(new ResultCache.Stats(2, 4, 2, 2), cache.getStats());
+    }
+
+    // test checking whether a cache shared by CalculationsClass objects of the same files calculates the result once and
+    // leaves the costs, limits and paid orders of a fresh calculation
+    @Test
+    public void testInFrontOfCalculationsClass() {
+        String directory = "src/test/data/valueTests/test1/";
+        CalculationsClass expected = new CalculationsClass(directory + "orders.json", directory + "paymentmethods.json");
+        expected.chooseBestOption();
+
+        ResultCache cache = new ResultCache(new GreedySolver(), 4);
+        for (int i = 0; i < 3; i++) {
+            CalculationsClass calculationsClass = new CalculationsClass(directory + "orders.json", directory + "paymentmethods.json");
+            calculationsClass.setSolver(cache);
+            calculationsClass.chooseBestOption();
+            calculationsClass.chooseBestOption();
+            assertEquals(expected.getCosts(), calculationsClass.getCosts());
+            assertEquals(expected.getPaymentMethods(), calculationsClass.getPaymentMethods());
+            for (int order = 0; order < expected.getOrders().size(); order++) {
+                assertEquals(expected.getOrders().get(order).isPaid(), calculationsClass.getOrders().get(order).isPaid());
+            }
+        }
+        assertEquals(new ResultCache.Stats(5, 1, 0, 1), cache.getStats());
+    }
+
+    // test checking whether solvers whose results depend on a time budget or random walks are refused
+    @Test
+    public void testOnlyDeterministicSolvers() {
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(new BranchAndBoundSolver(10), 4));
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(new LocalSearchSolver(10), 4));
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache((orderStore, paymentMethods) -> null, 4));
+        assertThrows(IllegalArgumentException.class, () -> new OptimizerServer(0, new LocalSearchSolver(10), 4));
+        assertTrue(new ResultCache(new LocalSearchSolver(0), 4).isDeterministic());
+        assertTrue(new ResultCache(new PartitionedSolver(2), 4).isDeterministic());
+    }
+
+    @Test
+    public void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(new GreedySolver(), 0));
+    }
+}
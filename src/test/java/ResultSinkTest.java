@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultSinkTest {
+
+    private static final CostsResult RESULT = new CostsResult(null, new String[]{"PUNKTY", "mZysk", "Bank\"Ä\""},
+            new long[]{15000, 5, 123456789012L}, true, null);
+
+    // test checking whether the text sink prints the same lines as the program always has, with two decimal places
+    @Test
+    public void testText() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ByteArrayOutputStream messages = new ByteArrayOutputStream();
+        try (ResultSink resultSink = ResultSink.create("text", outputStream, new PrintStream(messages))) {
+            resultSink.write(RESULT);
+            resultSink.write(new CostsResult("basket", new String[]{"PUNKTY"}, new long[]{0}, false, null));
+            resultSink.write(CostsResult.error("broken", "Cannot pay"));
+        }
+        assertEquals("PUNKTY 150.00\nmZysk 0.05\nBank\"Ä\" 1234567890.12\nbasket PUNKTY 0.00\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+        assertEquals(List.of("basket: Insufficient amount of funds to pay for all orders!", "broken: Cannot pay"),
+                messages.toString().lines().toList());
+    }
+
+    // test checking whether the NDJSON sink escapes ids and writes amounts as strings
+    @Test
+    public void testNdjson() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ResultSink resultSink = new NdjsonResultSink(Channels.newChannel(outputStream))) {
+            resultSink.write(RESULT);
+            resultSink.write(CostsResult.error("a\nb", "Cannot pay"));
+        }
+        assertEquals("{\"costs\":{\"PUNKTY\":\"150.00\",\"mZysk\":\"0.05\",\"Bank\\\"Ä\\\"\":\"1234567890.12\"},\"allPaid\":true}\n"
+                + "{\"id\":\"a\\nb\",\"error\":\"Cannot pay\"}\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    // test checking whether results written by the binary sink are read back unchanged, also past the size of its buffer
+    @Test
+    public void testBinaryRoundTrip() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ResultSink resultSink = new BinaryResultSink(Channels.newChannel(outputStream))) {
+            for (int i = 0; i < 5000; i++) {
+                resultSink.write(i % 100 == 0 ? CostsResult.error(String.valueOf(i), "error " + i) : RESULT);
+            }
+        }
+        List<CostsResult> results = BinaryResultSink.readAll(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(5000, results.size());
+        assertEquals("error 4900", results.get(4900).error());
+        assertEquals("4900", results.get(4900).id());
+        CostsResult result = results.get(4999);
+        assertNull(result.id());
+        assertArrayEquals(RESULT.methodIds(), result.methodIds());
+        assertArrayEquals(RESULT.costs(), result.costs());
+        assertTrue(result.allPaid());
+    }
+
+    // test checking whether results cut at every byte, also in the middle of an int, a long or a string, are reported
+    // as a truncated record
+    @Test
+    public void testBinaryTruncated() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ResultSink resultSink = new BinaryResultSink(Channels.newChannel(outputStream))) {
+            resultSink.write(RESULT);
+            resultSink.write(CostsResult.error("broken", "Cannot pay"));
+        }
+        byte[] bytes = outputStream.toByteArray();
+        int firstEnd = bytes.length - (1 + 4 + "broken".length() + 4 + "Cannot pay".length());
+        for (int length = 1; length < bytes.length; length++) {
+            if (length == firstEnd)
+                continue;
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes, 0, length);
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> BinaryResultSink.readAll(inputStream), "length " + length);
+            assertEquals("Results end in the middle of a record", exception.getMessage());
+        }
+        assertEquals(1, BinaryResultSink.readAll(new ByteArrayInputStream(bytes, 0, firstEnd)).size());
+    }
+
+    // test checking whether CalculationsClass writes the costs of every payment method in the order of the file
+    @Test
+    public void testCalculateCosts() {
+        CalculationsClass calculationsClass = new CalculationsClass("src/test/data/valueTests/test1/orders.json",
+                "src/test/data/valueTests/test1/paymentmethods.json");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ResultSink resultSink = ResultSink.create("text", outputStream, System.err);
+        calculationsClass.calculateCosts(resultSink);
+        resultSink.flush();
+        assertEquals("PUNKTY 150.00\nBankX 244.50\nBankY 76.00\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> ResultSink.create("xml", new ByteArrayOutputStream(), System.err));
+    }
+}
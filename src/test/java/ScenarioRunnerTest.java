@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+import projects.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScenarioRunnerTest {
+
+    private final String ordersPath = "src/main/resources/data/orders.json";
+    private final String paymentMethodsPath = "src/main/resources/data/paymentmethods.json";
+
+    private ScenarioRunner createRunner() {
+        return new ScenarioRunner(InputSnapshot.of(new JsonFileReader(ordersPath, paymentMethodsPath)), new GreedySolver());
+    }
+
+    // test checking whether changes of a scenario are applied to the base payment methods
+    @Test
+    public void testParseChanges() {
+        ScenarioRunner scenarioRunner = createRunner();
+        ScenarioRunner.Scenario scenario = scenarioRunner.parse("what-if:mZysk.discount=12,PUNKTY.limit*=2,BosBankrut.limit=50.5");
+        InputSnapshot snapshot = scenario.snapshot();
+        assertEquals("what-if", scenario.name());
+        assertEquals(20_000, snapshot.getLimit(snapshot.indexOfMethod("PUNKTY")));
+        assertEquals(1_200, snapshot.getDiscount(snapshot.indexOfMethod("mZysk")));
+        assertEquals(5_050, snapshot.getLimit(snapshot.indexOfMethod("BosBankrut")));
+        assertSame(scenarioRunner.getBase().getOrderStore(), snapshot.getOrderStore());
+
+        assertThrows(IllegalArgumentException.class, () -> scenarioRunner.parse("wrong:Unknown.limit=1"));
+        assertThrows(IllegalArgumentException.class, () -> scenarioRunner.parse("wrong:mZysk.value=1"));
+        assertThrows(IllegalArgumentException.class, () -> scenarioRunner.parse("no changes"));
+    }
+
+    // test checking whether every scenario gives the same outcome as running it on its own
+    @Test
+    public void testRunMatchesSeparateCalculations() {
+        ScenarioRunner scenarioRunner = createRunner();
+        List<ScenarioRunner.Outcome> outcomes = scenarioRunner.run(List.of(scenarioRunner.parse("mZysk12:mZysk.discount=12"),
+                scenarioRunner.parse("doublePoints:PUNKTY.limit*=2"), scenarioRunner.parse("src/test/data/valueTests/test1/paymentmethods.json")));
+
+        assertEquals(List.of("base", "mZysk12", "doublePoints", "paymentmethods.json"),
+                outcomes.stream().map(ScenarioRunner.Outcome::name).toList());
+        assertEquals(new ScenarioRunner.Outcome("base", 45_500, 4_500, true), outcomes.get(0));
+        assertEquals(new ScenarioRunner.Outcome("mZysk12", 45_200, 4_800, true), outcomes.get(1));
+        assertEquals(new ScenarioRunner.Outcome("doublePoints", 44_500, 5_500, true), outcomes.get(2));
+
+        CalculationsClass calculationsClass = new CalculationsClass(ordersPath, "src/test/data/valueTests/test1/paymentmethods.json");
+        calculationsClass.chooseBestOption();
+        double totalCost = calculationsClass.getCosts().values().stream().mapToDouble(Double::doubleValue).sum();
+        assertEquals(Money.toMinor(totalCost), outcomes.get(3).totalCost());
+    }
+
+    // test checking whether the table contains a row for every outcome with differences from the first one
+    @Test
+    public void testFormatTable() {
+        String table = ScenarioRunner.formatTable(List.of(new ScenarioRunner.Outcome("base", 45_500, 4_500, true),
+                new ScenarioRunner.Outcome("cheaper", 45_000, 5_000, false)));
+        String[] lines = table.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("scenario"));
+        assertTrue(lines[1].matches("base +455\\.00 +45\\.00 +0\\.00 +0\\.00 +yes"));
+        assertTrue(lines[2].matches("cheaper +450\\.00 +50\\.00 +-5\\.00 +\\+5\\.00 +no"));
+    }
+}
@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import projects.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private void assertSameStores(OrderStore expected, OrderStore actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getPromotionCount(), actual.getPromotionCount());
+        for (int order = 0; order < expected.size(); order++) {
+            assertEquals(expected.getId(order), actual.getId(order));
+            assertEquals(expected.getValue(order), actual.getValue(order));
+            assertEquals(expected.promotionsStart(order), actual.promotionsStart(order));
+            assertEquals(expected.promotionsEnd(order), actual.promotionsEnd(order));
+        }
+        for (int promotion = 0; promotion < expected.getPromotionCount(); promotion++) {
+            assertEquals(expected.getPromotionId(promotion), actual.getPromotionId(promotion));
+            assertEquals(promotion, actual.indexOfPromotion(expected.getPromotionId(promotion)));
+            assertEquals(expected.ordersByPromotionStart(promotion), actual.ordersByPromotionStart(promotion));
+            assertEquals(expected.ordersByPromotionEnd(promotion), actual.ordersByPromotionEnd(promotion));
+        }
+        int orderPromotions = expected.size() == 0 ? 0 : expected.promotionsEnd(expected.size() - 1);
+        for (int k = 0; k < orderPromotions; k++) {
+            assertEquals(expected.getPromotion(k), actual.getPromotion(k));
+            assertEquals(expected.getOrderByPromotion(k), actual.getOrderByPromotion(k));
+        }
+        assertEquals(-1, actual.indexOfPromotion("NoSuchPromotion"));
+    }
+
+    // test checking whether a loaded snapshot has the same orders, payment methods and results as the files it was written from
+    @Test
+    public void testWriteAndLoadTestData() {
+        for (int test = 1; test <= 9; test++) {
+            InputSnapshot snapshot = InputSnapshot.of(new JsonFileReader("src/test/data/valueTests/test" + test + "/orders.json",
+                    "src/test/data/valueTests/test" + test + "/paymentmethods.json"));
+            Path path = directory.resolve("test" + test + ".bin");
+            SnapshotFile.write(snapshot, path);
+            InputSnapshot loaded = SnapshotFile.load(path);
+
+            assertSameStores(snapshot.getOrderStore(), loaded.getOrderStore());
+            assertEquals(snapshot.getMethodCount(), loaded.getMethodCount());
+            for (int method = 0; method < snapshot.getMethodCount(); method++) {
+                assertEquals(snapshot.getMethodId(method), loaded.getMethodId(method));
+                assertEquals(snapshot.getLimit(method), loaded.getLimit(method));
+                assertEquals(snapshot.getDiscount(method), loaded.getDiscount(method));
+            }
+
+            AssignmentResult expected = new GreedySolver().solve(snapshot, new SolverState());
+            AssignmentResult result = new GreedySolver().solve(loaded, new SolverState());
+            assertArrayEquals(expected.spent(), result.spent());
+            assertArrayEquals(expected.paid(), result.paid());
+        }
+    }
+
+    // test checking whether ids with characters outside ASCII and orders without promotions survive the round trip
+    @Test
+    public void testWriteAndLoadUnicodeIds() {
+        OrderStore orderStore = new OrderStore.Builder()
+                .add("ZAMÓWIENIE-1", 12_345, List.of("Płatność", "mZysk"))
+                .add("ORDER2", 1, List.of())
+                .add("ORDER3", 99_999, List.of("mZysk"))
+                .build();
+        InputSnapshot snapshot = InputSnapshot.of(orderStore, List.of(new PaymentMethod("PUNKTY", 15, 10.5),
+                new PaymentMethod("Płatność", 7.5, 1000.0)));
+        Path path = directory.resolve("unicode.bin");
+        SnapshotFile.write(snapshot, path);
+        InputSnapshot loaded = SnapshotFile.load(path);
+
+        assertSameStores(orderStore, loaded.getOrderStore());
+        assertEquals("Płatność", loaded.getMethodId(1));
+        assertEquals(750, loaded.getDiscount(1));
+        assertEquals("ORDER3", loaded.getOrderStore().subset(new int[]{2}).getId(0));
+    }
+
+    // test checking whether files that are not snapshots are rejected
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        Path path = directory.resolve("orders.bin");
+        Files.copy(Path.of("src/main/resources/data/orders.json"), path);
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.load(path));
+    }
+}
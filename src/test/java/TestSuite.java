@@ -3,5 +3,5 @@ import org.junit.platform.suite.api.*;
 // test suite to run all tests simultaneously
 @Suite
 @SuiteDisplayName("Test suite")
-@SelectClasses({JsonFileReaderTest.class, CalculationsClassTest.class})
+@SelectClasses({JsonFileReaderTest.class, CalculationsClassTest.class, OrderStoreTest.class, CandidateBufferTest.class, MoneyTest.class, BranchAndBoundSolverTest.class, CandidateGeneratorTest.class, PartitionedSolverTest.class, OptimizerServerTest.class, IncrementalEngineTest.class, InputSnapshotTest.class, ScenarioRunnerTest.class, SnapshotFileTest.class, ChunkedOrdersReaderTest.class, MethodDictionaryTest.class, PipelineMetricsTest.class, FlightRecorderEventsTest.class, CandidatePrunerTest.class, BatchRunnerTest.class, ResultSinkTest.class, ResultCacheTest.class, LocalSearchSolverTest.class, OptionsTest.class})
 public class TestSuite {}